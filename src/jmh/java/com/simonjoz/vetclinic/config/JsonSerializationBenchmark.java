@@ -0,0 +1,51 @@
+package com.simonjoz.vetclinic.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.dto.PageDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a page of appointments with the date and time serializers used by the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private ObjectMapper objectMapper;
+    private PageDTO<AppointmentDTO> page;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        new DateTimeFormatConfiguration().jsonDateTimeCustomizer().customize(builder);
+        objectMapper = builder.build();
+
+        LocalDate date = LocalDate.of(2030, 1, 21);
+        List<AppointmentDTO> content = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            content.add(new AppointmentDTO((long) i, "note", date, LocalTime.of(8, 0).plusMinutes(30L * i),
+                    "NAME", "SURNAME"));
+        }
+        page = new PageDTO<>(50, 1000, false, false, false, content);
+    }
+
+    @Benchmark
+    public byte[] serializeAppointmentsPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
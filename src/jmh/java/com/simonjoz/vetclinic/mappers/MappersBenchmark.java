@@ -0,0 +1,70 @@
+package com.simonjoz.vetclinic.mappers;
+
+import com.simonjoz.vetclinic.domain.Appointment;
+import com.simonjoz.vetclinic.domain.Customer;
+import com.simonjoz.vetclinic.domain.Doctor;
+import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.dto.PageDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of a page of appointments, as done for every paged appointments response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappersBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final PagesMapper<AppointmentDTO> pagesMapper = new PagesMapper<>();
+    private final CustomerAppointmentMapper customerAppointmentMapper = new CustomerAppointmentMapperImpl();
+
+    private Page<AppointmentDTO> page;
+    private Appointment appointment;
+
+    @Setup
+    public void setUp() {
+        LocalDate date = LocalDate.of(2030, 1, 21);
+        List<AppointmentDTO> content = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            content.add(new AppointmentDTO((long) i, "note", date, LocalTime.of(8, 0).plusMinutes(30L * i),
+                    "NAME", "SURNAME"));
+        }
+        page = new PageImpl<>(content, PageRequest.of(2, PAGE_SIZE), 1000);
+
+        Doctor doctor = Doctor.builder().id(1L).title("Dr").name("DOCTOR").surname("SURNAME").build();
+        Customer customer = new Customer(1L, 1234, "CUSTOMER", "SURNAME", new ArrayList<>());
+        appointment = Appointment.builder()
+                .id(1L)
+                .note("note")
+                .scheduledDate(date)
+                .scheduledTime(LocalTime.of(12, 0))
+                .timestamp(date.atTime(12, 0))
+                .doctor(doctor)
+                .customer(customer)
+                .build();
+    }
+
+    @Benchmark
+    public PageDTO<AppointmentDTO> pagesMapperMap() {
+        return pagesMapper.map(page);
+    }
+
+    @Benchmark
+    public AppointmentDTO customerAppointmentMapperMap() {
+        return customerAppointmentMapper.map(appointment);
+    }
+}
@@ -0,0 +1,43 @@
+package com.simonjoz.vetclinic.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Availability check of single booking. Booked slots are served from the in-memory index,
+ * so no database call is made, as in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppointmentSlotsIndexBenchmark {
+
+    private static final long DOCTOR_ID = 1L;
+    private static final LocalDate DATE = LocalDate.now().plusDays(7);
+    private static final int VISIT_DURATION = 30;
+
+    private AppointmentSlotsIndex slotsIndex;
+    private LocalDateTime availableSlot;
+
+    @Setup
+    public void setUp() {
+        slotsIndex = new AppointmentSlotsIndex(null);
+        // Day booked every second slot, requested time lies between two booked slots.
+        for (LocalTime time = LocalTime.of(8, 0); time.isBefore(LocalTime.of(16, 0)); time = time.plusHours(1)) {
+            slotsIndex.book(DOCTOR_ID, DATE.atTime(time));
+        }
+        availableSlot = DATE.atTime(12, 30);
+    }
+
+    @Benchmark
+    public boolean isAvailable() {
+        return slotsIndex.isAvailable(DOCTOR_ID, availableSlot, VISIT_DURATION);
+    }
+}
@@ -0,0 +1,29 @@
+package com.simonjoz.vetclinic.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Page request is built from query parameters of every paged request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageReqUtilsBenchmark {
+
+    // Non final, so arguments are not constant folded.
+    private int page = 3;
+    private int size = 20;
+    private String sortBy = "surname";
+    private boolean desc = true;
+
+    @Benchmark
+    public PageRequest getPageRequest() {
+        return PageReqUtils.getPageRequest(page, size, sortBy, desc, PageReqUtils.CUSTOMERS_SORT_FIELDS);
+    }
+}
@@ -0,0 +1,35 @@
+package com.simonjoz.vetclinic.cache;
+
+import com.simonjoz.vetclinic.utils.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Appointments of each customer are cached under customer id. Changes made by customer evict the entry with
+ * {@link org.springframework.cache.annotation.CacheEvict}, changes made on doctor side evict entries of affected
+ * customers explicitly.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerAppointmentsCache {
+
+    public static final String CACHE_NAME = "customerAppointments";
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Within transaction eviction is deferred until commit.
+     */
+    public void evict(Collection<Long> customerIds) {
+        TransactionUtils.runAfterCommit(() -> {
+            Cache cache = cacheManager.getCache(CACHE_NAME);
+            if (cache != null) {
+                customerIds.forEach(cache::evict);
+            }
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package com.simonjoz.vetclinic.cache;
+
+import com.simonjoz.vetclinic.utils.TransactionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Index of cached doctor appointments pages and slices by doctor, so booking or cancellation evicts only pages of affected
+ * doctor and date, without scanning the cache.
+ * NOTE: Keys of entries expired by the cache stay indexed until next change of the doctor appointments, but all indexed
+ * keys are bounded by heap capacity of both caches together. Least recently read key over the bound is evicted
+ * from the caches as well, so no cached page is left without its key.
+ */
+@Component
+public class DoctorAppointmentsPageIndex {
+
+    public static final List<String> CACHE_NAMES = List.of("doctorAppointmentsPage", "doctorAppointmentsSlice");
+
+    // Guarded by this, keys of all doctors are kept in order of last read and bounded together.
+    private final IndexedKeys indexedKeys = new IndexedKeys();
+    private final Map<Long, Set<DoctorAppointmentsPageKey>> keysByDoctor = new HashMap<>();
+    private final CacheManager cacheManager;
+    private final int maxKeys;
+
+    public DoctorAppointmentsPageIndex(
+            CacheManager cacheManager,
+            @Value("${spring.application.page-index.max-keys:2000}") int maxKeys) {
+        this.cacheManager = cacheManager;
+        this.maxKeys = maxKeys;
+    }
+
+    synchronized void register(DoctorAppointmentsPageKey key) {
+        indexedKeys.put(key, Boolean.TRUE);
+        keysByDoctor.computeIfAbsent(key.getDoctorId(), id -> new HashSet<>()).add(key);
+    }
+
+    public void evict(Long doctorId, LocalDate date) {
+        evict(doctorId, List.of(date));
+    }
+
+    /**
+     * Evicts pages of all doctor appointments and pages of given dates. Within transaction eviction is deferred
+     * until commit, so pages are not cached again with uncommitted state.
+     */
+    public void evict(Long doctorId, Collection<LocalDate> dates) {
+        TransactionUtils.runAfterCommit(() -> doEvict(doctorId, dates));
+    }
+
+    synchronized int getIndexedKeysCount(Long doctorId) {
+        Set<DoctorAppointmentsPageKey> keys = keysByDoctor.get(doctorId);
+        return keys == null ? 0 : keys.size();
+    }
+
+    synchronized int getIndexedKeysCount() {
+        return indexedKeys.size();
+    }
+
+    synchronized int getIndexedDoctorsCount() {
+        return keysByDoctor.size();
+    }
+
+    private synchronized void doEvict(Long doctorId, Collection<LocalDate> dates) {
+        Set<DoctorAppointmentsPageKey> keys = keysByDoctor.get(doctorId);
+        if (keys == null) {
+            return;
+        }
+        List<Cache> caches = getCaches();
+        keys.removeIf(key -> {
+            boolean isAffected = dates.stream().anyMatch(key::isAffectedBy);
+            if (isAffected) {
+                indexedKeys.remove(key);
+                caches.forEach(cache -> cache.evict(key));
+            }
+            return isAffected;
+        });
+        if (keys.isEmpty()) {
+            keysByDoctor.remove(doctorId);
+        }
+    }
+
+    private List<Cache> getCaches() {
+        return CACHE_NAMES.stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Keys of all doctors in order of last read.
+     */
+    private class IndexedKeys extends LinkedHashMap<DoctorAppointmentsPageKey, Boolean> {
+
+        private IndexedKeys() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<DoctorAppointmentsPageKey, Boolean> eldest) {
+            if (size() <= maxKeys) {
+                return false;
+            }
+            DoctorAppointmentsPageKey key = eldest.getKey();
+            getCaches().forEach(cache -> cache.evict(key));
+            Set<DoctorAppointmentsPageKey> doctorKeys = keysByDoctor.get(key.getDoctorId());
+            doctorKeys.remove(key);
+            if (doctorKeys.isEmpty()) {
+                keysByDoctor.remove(key.getDoctorId());
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.simonjoz.vetclinic.cache;
+
+import lombok.Value;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+
+/**
+ * Key of doctor appointments page. Date is null for pages of all doctor appointments.
+ */
+@Value
+public class DoctorAppointmentsPageKey {
+    Long doctorId;
+    LocalDate date;
+    String pageRequest;
+
+    public static DoctorAppointmentsPageKey of(PageRequest pageRequest, Long doctorId, LocalDate date) {
+        return new DoctorAppointmentsPageKey(doctorId, date, PageRequestKeyGenerator.toKey(pageRequest));
+    }
+
+    public boolean isAffectedBy(LocalDate changedDate) {
+        return date == null || date.equals(changedDate);
+    }
+}
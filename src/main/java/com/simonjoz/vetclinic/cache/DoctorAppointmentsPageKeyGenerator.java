@@ -0,0 +1,31 @@
+package com.simonjoz.vetclinic.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+
+/**
+ * Expects (PageRequest, doctorId, date) arguments. Every generated key is registered in the index,
+ * also on cache hit, so entry put after concurrent eviction is indexed again by the next read
+ * and keys of frequently read pages are not dropped from bounded index.
+ */
+@Component(DoctorAppointmentsPageKeyGenerator.NAME)
+@RequiredArgsConstructor
+public class DoctorAppointmentsPageKeyGenerator implements KeyGenerator {
+
+    public static final String NAME = "doctorAppointmentsPageKeyGenerator";
+
+    private final DoctorAppointmentsPageIndex pageIndex;
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        DoctorAppointmentsPageKey key = DoctorAppointmentsPageKey.of(
+                (PageRequest) params[0], (Long) params[1], (LocalDate) params[2]);
+        pageIndex.register(key);
+        return key;
+    }
+}
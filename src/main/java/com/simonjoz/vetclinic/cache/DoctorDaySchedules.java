@@ -0,0 +1,190 @@
+package com.simonjoz.vetclinic.cache;
+
+import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.repository.AppointmentsRepo;
+import com.simonjoz.vetclinic.utils.TransactionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Appointments of doctor per day, kept sorted and patched after bookings and cancellations, so pages of a day
+ * are sliced from memory without page and count queries. Lists are never modified, every patch publishes
+ * a new copy, so readers do not block.
+ * Past days are purged every night, when the limit of entries is reached, new days are not cached.
+ * NOTE: Day is loaded under a lease. Patch of a day which is being loaded cancels the lease, so schedule
+ * read before the change is never published.
+ */
+@Component
+public class DoctorDaySchedules {
+
+    private static final Comparator<AppointmentDTO> SCHEDULE_ORDER =
+            Comparator.comparing(AppointmentDTO::getScheduledTime).thenComparing(AppointmentDTO::getId);
+
+    private static final Map<String, Comparator<AppointmentDTO>> SORTABLE_PROPERTIES = Map.of(
+            "id", Comparator.comparing(AppointmentDTO::getId),
+            "note", Comparator.comparing(AppointmentDTO::getNote, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "scheduledDate", Comparator.comparing(AppointmentDTO::getScheduledDate),
+            "scheduledTime", Comparator.comparing(AppointmentDTO::getScheduledTime),
+            "timestamp", Comparator.comparing(AppointmentDTO::getScheduledTime));
+
+    private final ConcurrentMap<DayKey, Schedule> schedules = new ConcurrentHashMap<>();
+    private final AppointmentsRepo appointmentsRepo;
+    private final int maxEntries;
+
+    public DoctorDaySchedules(AppointmentsRepo appointmentsRepo,
+                              @Value("${spring.application.day-schedules.max-entries:10000}") int maxEntries) {
+        this.appointmentsRepo = appointmentsRepo;
+        this.maxEntries = maxEntries;
+    }
+
+    public boolean isLoaded(Long doctorId, LocalDate date) {
+        return isLoaded(new DayKey(doctorId, date));
+    }
+
+    /**
+     * Sorting is supported by appointment properties only, other pages should be fetched from database.
+     */
+    public boolean isSortable(Sort sort) {
+        return sort.stream().allMatch(order -> SORTABLE_PROPERTIES.containsKey(order.getProperty()));
+    }
+
+    public Page<AppointmentDTO> getPage(Long doctorId, LocalDate date, PageRequest pageRequest) {
+        List<AppointmentDTO> appointments = getSchedule(doctorId, date);
+        if (pageRequest.getSort().isSorted()) {
+            appointments = appointments.stream().sorted(getComparator(pageRequest.getSort())).collect(Collectors.toList());
+        }
+        int fromIndex = (int) Math.min(pageRequest.getOffset(), appointments.size());
+        int toIndex = Math.min(fromIndex + pageRequest.getPageSize(), appointments.size());
+        return new PageImpl<>(appointments.subList(fromIndex, toIndex), pageRequest, appointments.size());
+    }
+
+    public List<AppointmentDTO> getSchedule(Long doctorId, LocalDate date) {
+        final DayKey key = new DayKey(doctorId, date);
+        Schedule schedule = schedules.get(key);
+        if (schedule != null && schedule.isLoaded()) {
+            return schedule.getAppointments();
+        }
+        Schedule lease = hasRoom() ? schedules.computeIfAbsent(key, dayKey -> new Schedule(null)) : null;
+        if (lease != null && lease.isLoaded()) {
+            return lease.getAppointments();
+        }
+
+        List<AppointmentDTO> appointments = List.copyOf(appointmentsRepo.getDoctorDaySchedule(doctorId, date));
+        if (lease != null) {
+            schedules.replace(key, lease, new Schedule(appointments));
+        }
+        return appointments;
+    }
+
+    /**
+     * Patches are applied after commit, so the schedule does not show uncommitted changes. Appointment is
+     * fetched only if the day is loaded. Adding is idempotent, appointment with the same id is replaced.
+     */
+    public void add(Long doctorId, LocalDate date, Supplier<Optional<AppointmentDTO>> appointmentSupplier) {
+        final DayKey key = new DayKey(doctorId, date);
+        TransactionUtils.runAfterCommit(() -> {
+            Optional<AppointmentDTO> appointment = isLoaded(key) ? appointmentSupplier.get() : Optional.empty();
+            patch(key, appointments -> appointment
+                    .map(added -> Stream.concat(
+                                    appointments.stream().filter(scheduled -> !scheduled.getId().equals(added.getId())),
+                                    Stream.of(added))
+                            .sorted(SCHEDULE_ORDER)
+                            .collect(Collectors.toUnmodifiableList()))
+                    .orElse(null));
+        });
+    }
+
+    public void remove(Long doctorId, LocalDateTime timestamp) {
+        final DayKey key = new DayKey(doctorId, timestamp.toLocalDate());
+        TransactionUtils.runAfterCommit(() -> patch(key, appointments -> appointments.stream()
+                .filter(scheduled -> !scheduled.getScheduledTime().equals(timestamp.toLocalTime()))
+                .collect(Collectors.toUnmodifiableList())));
+    }
+
+    public void clear(Long doctorId, LocalDate date) {
+        final DayKey key = new DayKey(doctorId, date);
+        TransactionUtils.runAfterCommit(() -> patch(key, appointments -> List.of()));
+    }
+
+    public void clear() {
+        schedules.clear();
+    }
+
+    @Scheduled(cron = "${spring.application.day-schedules.purge-cron:0 5 0 * * *}")
+    public void purgePastDays() {
+        final LocalDate today = LocalDate.now();
+        schedules.keySet().removeIf(key -> key.getDate().isBefore(today));
+    }
+
+    private boolean isLoaded(DayKey key) {
+        Schedule schedule = schedules.get(key);
+        return schedule != null && schedule.isLoaded();
+    }
+
+    /**
+     * Lease of the day is always cancelled. Loaded day is replaced with patched copy, or dropped
+     * if change gives no result.
+     */
+    private void patch(DayKey key, UnaryOperator<List<AppointmentDTO>> change) {
+        schedules.computeIfPresent(key, (dayKey, schedule) -> {
+            if (!schedule.isLoaded()) {
+                return null;
+            }
+            List<AppointmentDTO> patched = change.apply(schedule.getAppointments());
+            return patched == null ? null : new Schedule(patched);
+        });
+    }
+
+    private boolean hasRoom() {
+        return schedules.size() < maxEntries;
+    }
+
+    private static Comparator<AppointmentDTO> getComparator(Sort sort) {
+        return sort.stream()
+                .map(order -> order.isAscending()
+                        ? SORTABLE_PROPERTIES.get(order.getProperty())
+                        : SORTABLE_PROPERTIES.get(order.getProperty()).reversed())
+                .reduce(Comparator::thenComparing)
+                .orElse(SCHEDULE_ORDER);
+    }
+
+    @lombok.Value
+    private static class DayKey {
+        Long doctorId;
+        LocalDate date;
+    }
+
+    /**
+     * Schedule without appointments is a lease of the loading reader. Compared by identity.
+     */
+    private static final class Schedule {
+        private final List<AppointmentDTO> appointments;
+
+        private Schedule(List<AppointmentDTO> appointments) {
+            this.appointments = appointments;
+        }
+
+        private boolean isLoaded() {
+            return appointments != null;
+        }
+
+        private List<AppointmentDTO> getAppointments() {
+            return appointments;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.simonjoz.vetclinic.cache;
+
+import lombok.Value;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Key of doctor appointments within week starting on Monday.
+ */
+@Value
+public class DoctorWeekKey {
+    Long doctorId;
+    LocalDate weekStart;
+
+    public static DoctorWeekKey of(Long doctorId, LocalDate date) {
+        return new DoctorWeekKey(doctorId, date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+    }
+
+    public DoctorWeekKey next() {
+        return new DoctorWeekKey(doctorId, weekStart.plusWeeks(1));
+    }
+
+    public LocalDate getWeekEnd() {
+        return weekStart.plusDays(6);
+    }
+}
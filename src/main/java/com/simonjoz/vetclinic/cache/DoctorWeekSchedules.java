@@ -0,0 +1,87 @@
+package com.simonjoz.vetclinic.cache;
+
+import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.repository.AppointmentsRepo;
+import com.simonjoz.vetclinic.utils.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Doctor appointments cached per week, so calendar views of consecutive ranges hit the same entries.
+ * Weeks missing in the cache are loaded with single range query and cached one by one.
+ */
+@Component
+@RequiredArgsConstructor
+public class DoctorWeekSchedules {
+
+    public static final String CACHE_NAME = "doctorWeekSchedule";
+
+    private final AppointmentsRepo appointmentsRepo;
+    private final CacheManager cacheManager;
+
+    /**
+     * @return doctor appointments scheduled from first to last date inclusive, ordered by date and time
+     */
+    public List<AppointmentDTO> getAppointments(Long doctorId, LocalDate from, LocalDate to) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        Map<DoctorWeekKey, List<AppointmentDTO>> weeks = new LinkedHashMap<>();
+        List<DoctorWeekKey> missingWeeks = new ArrayList<>();
+        for (DoctorWeekKey week = DoctorWeekKey.of(doctorId, from); !week.getWeekStart().isAfter(to); week = week.next()) {
+            List<AppointmentDTO> appointments = getCached(cache, week);
+            if (appointments == null) {
+                missingWeeks.add(week);
+            }
+            weeks.put(week, appointments);
+        }
+
+        if (!missingWeeks.isEmpty()) {
+            Map<DoctorWeekKey, List<AppointmentDTO>> loadedWeeks = loadWeeks(doctorId,
+                    missingWeeks.get(0), missingWeeks.get(missingWeeks.size() - 1));
+            for (DoctorWeekKey week : missingWeeks) {
+                List<AppointmentDTO> appointments = loadedWeeks.getOrDefault(week, List.of());
+                weeks.put(week, appointments);
+                if (cache != null) {
+                    cache.put(week, appointments);
+                }
+            }
+        }
+
+        return weeks.values().stream()
+                .flatMap(List::stream)
+                .filter(appointment -> !appointment.getScheduledDate().isBefore(from)
+                        && !appointment.getScheduledDate().isAfter(to))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Evicts weeks of given dates. Within transaction eviction is deferred until commit.
+     */
+    public void evict(Long doctorId, Collection<LocalDate> dates) {
+        TransactionUtils.runAfterCommit(() -> {
+            Cache cache = cacheManager.getCache(CACHE_NAME);
+            if (cache != null) {
+                dates.stream()
+                        .map(date -> DoctorWeekKey.of(doctorId, date))
+                        .distinct()
+                        .forEach(cache::evict);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AppointmentDTO> getCached(Cache cache, DoctorWeekKey week) {
+        return cache == null ? null : cache.get(week, List.class);
+    }
+
+    private Map<DoctorWeekKey, List<AppointmentDTO>> loadWeeks(Long doctorId, DoctorWeekKey first, DoctorWeekKey last) {
+        return appointmentsRepo.getDoctorAppointmentsBetween(doctorId, first.getWeekStart().atStartOfDay(),
+                        last.getWeekEnd().plusDays(1).atStartOfDay()).stream()
+                .collect(Collectors.groupingBy(appointment -> DoctorWeekKey.of(doctorId, appointment.getScheduledDate())));
+    }
+}
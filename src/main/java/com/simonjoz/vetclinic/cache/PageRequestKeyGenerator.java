@@ -0,0 +1,30 @@
+package com.simonjoz.vetclinic.cache;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.stream.Collectors;
+
+/**
+ * Expects PageRequest as the only argument. Key is a short string, e.g. "2:10:-surname" for third page
+ * of ten elements sorted by surname descending.
+ */
+@Component(PageRequestKeyGenerator.NAME)
+public class PageRequestKeyGenerator implements KeyGenerator {
+
+    public static final String NAME = "pageRequestKeyGenerator";
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        return toKey((PageRequest) params[0]);
+    }
+
+    public static String toKey(PageRequest pageRequest) {
+        String sort = pageRequest.getSort().stream()
+                .map(order -> order.isAscending() ? order.getProperty() : "-" + order.getProperty())
+                .collect(Collectors.joining(","));
+        return pageRequest.getPageNumber() + ":" + pageRequest.getPageSize() + ":" + sort;
+    }
+}
@@ -0,0 +1,96 @@
+package com.simonjoz.vetclinic.cache;
+
+import com.simonjoz.vetclinic.jfr.CacheLookupEvent;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache decorator emitting {@link CacheLookupEvent} with hit or miss of every lookup.
+ */
+public class RecordingCache implements Cache {
+
+    private final Cache target;
+
+    public RecordingCache(Cache target) {
+        this.target = target;
+    }
+
+    public Cache getTarget() {
+        return target;
+    }
+
+    @Override
+    public String getName() {
+        return target.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return target.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        ValueWrapper value = target.get(key);
+        event.commit(target.getName(), value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        T value = target.get(key, type);
+        event.commit(target.getName(), value != null);
+        return value;
+    }
+
+    /**
+     * Lookup is a miss when the value loader has been called.
+     */
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        boolean[] loaded = new boolean[1];
+        T value = target.get(key, () -> {
+            loaded[0] = true;
+            return valueLoader.call();
+        });
+        event.commit(target.getName(), !loaded[0]);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        target.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return target.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        target.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return target.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        target.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return target.invalidate();
+    }
+}
@@ -0,0 +1,39 @@
+package com.simonjoz.vetclinic.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache manager decorator, every cache is wrapped with {@link RecordingCache} once.
+ */
+public class RecordingCacheManager implements CacheManager {
+
+    private final CacheManager target;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public RecordingCacheManager(CacheManager target) {
+        this.target = target;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache == null) {
+            Cache targetCache = target.getCache(name);
+            if (targetCache == null) {
+                return null;
+            }
+            cache = caches.computeIfAbsent(name, key -> new RecordingCache(targetCache));
+        }
+        return cache;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return target.getCacheNames();
+    }
+}
@@ -0,0 +1,48 @@
+package com.simonjoz.vetclinic.config;
+
+import com.simonjoz.vetclinic.cache.RecordingCache;
+import com.simonjoz.vetclinic.cache.RecordingCacheManager;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.JCacheCacheMeterBinderProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.jcache.JCacheCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches of every cache manager are wrapped to emit JFR cache lookup events, events are recorded only while
+ * flight recording is running.
+ * NOTE: Cache metrics are bound to wrapped JCache caches, otherwise the wrapper hides their statistics.
+ */
+@Configuration
+public class CacheEventsConfiguration {
+
+    @Bean
+    static BeanPostProcessor recordingCacheManagerPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager && !(bean instanceof RecordingCacheManager)) {
+                    return new RecordingCacheManager((CacheManager) bean);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    CacheMeterBinderProvider<RecordingCache> recordingCacheMeterBinderProvider() {
+        JCacheCacheMeterBinderProvider jCacheProvider = new JCacheCacheMeterBinderProvider();
+        return new CacheMeterBinderProvider<RecordingCache>() {
+            @Override
+            public MeterBinder getMeterBinder(RecordingCache cache, Iterable<Tag> tags) {
+                return cache.getTarget() instanceof JCacheCache
+                        ? jCacheProvider.getMeterBinder((JCacheCache) cache.getTarget(), tags)
+                        : null;
+            }
+        };
+    }
+}
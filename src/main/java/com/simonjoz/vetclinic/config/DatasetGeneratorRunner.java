@@ -0,0 +1,67 @@
+package com.simonjoz.vetclinic.config;
+
+import com.simonjoz.vetclinic.domain.DatasetSettings;
+import com.simonjoz.vetclinic.service.DatasetGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Populates empty database with synthetic dataset on startup, before appointment slots index is built.
+ * Already populated database is left untouched, so generated MySQL dataset is reused by following runs.
+ */
+@Slf4j
+@Component
+@Profile("perf")
+@RequiredArgsConstructor
+public class DatasetGeneratorRunner implements ApplicationRunner {
+
+    private final DatasetGenerator datasetGenerator;
+
+    @Value("${spring.application.dataset.seed:42}")
+    private long seed;
+
+    @Value("${spring.application.dataset.doctors:500}")
+    private int doctors;
+
+    @Value("${spring.application.dataset.customers:1000000}")
+    private long customers;
+
+    @Value("${spring.application.dataset.appointments:20000000}")
+    private long appointments;
+
+    @Value("${spring.application.dataset.occupancy:0.8}")
+    private double occupancy;
+
+    // Fixed date instead of current one, otherwise each run would generate different appointments.
+    @Value("${spring.application.dataset.last-date:2030-12-31}")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate lastDate;
+
+    @Value("${spring.application.dataset.batch-size:1000}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (datasetGenerator.isPopulated()) {
+            log.info("Database is already populated, dataset is not generated.");
+            return;
+        }
+        datasetGenerator.generate(DatasetSettings.builder()
+                .seed(seed)
+                .doctors(doctors)
+                .customers(customers)
+                .appointments(appointments)
+                .occupancy(occupancy)
+                .lastDate(lastDate)
+                .batchSize(batchSize)
+                .build());
+    }
+}
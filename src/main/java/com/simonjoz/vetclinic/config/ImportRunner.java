@@ -0,0 +1,40 @@
+package com.simonjoz.vetclinic.config;
+
+import com.simonjoz.vetclinic.service.BulkImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Runs bulk import of configured files on startup, e.g.
+ * {@code java -jar vet-clinic-api.jar --spring.profiles.active=prod,import
+ * --spring.application.import.customers-file=customers.csv}.
+ */
+@Component
+@Profile("import")
+@RequiredArgsConstructor
+public class ImportRunner implements ApplicationRunner {
+
+    private final BulkImportService bulkImportService;
+
+    @Value("${spring.application.import.doctors-file:}")
+    private String doctorsFile;
+
+    @Value("${spring.application.import.customers-file:}")
+    private String customersFile;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!doctorsFile.isBlank()) {
+            bulkImportService.importDoctors(Path.of(doctorsFile));
+        }
+        if (!customersFile.isBlank()) {
+            bulkImportService.importCustomers(Path.of(customersFile));
+        }
+    }
+}
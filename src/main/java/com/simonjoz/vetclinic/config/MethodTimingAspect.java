@@ -0,0 +1,86 @@
+package com.simonjoz.vetclinic.config;
+
+import com.simonjoz.vetclinic.utils.RequestTimings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records execution time of every public service method and repository query, tagged with class, method
+ * and exception. Percentile histograms of both timers are enabled in application.yml.
+ * NOTE: Calls within the same bean are not proxied, so they are included in the caller's time only.
+ * Cache hits of cached methods are answered before the timer starts, they are counted by cache metrics.
+ * Repository time is also added to db phase of {@link RequestTimings}.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MethodTimingAspect {
+
+    static final String SERVICE_METRIC = "service.method";
+    static final String REPOSITORY_METRIC = "repository.query";
+
+    private static final String APPLICATION_PACKAGE = "com.simonjoz.vetclinic";
+
+    private final MeterRegistry meterRegistry;
+
+    // Repository proxies implement many interfaces, the application one is looked up once per proxy class.
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("@within(org.springframework.stereotype.Service) && within(com.simonjoz.vetclinic.service..*) " +
+            "&& execution(public * *(..))")
+    public Object timeServiceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        return time(SERVICE_METRIC, "class", className, joinPoint);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..)) " +
+            "|| (@within(org.springframework.stereotype.Repository) && execution(public * *(..)))")
+    public Object timeRepositoryQuery(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repositoryName = repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(),
+                MethodTimingAspect::getRepositoryName);
+        final long phaseStart = RequestTimings.start();
+        try {
+            return time(REPOSITORY_METRIC, "repository", repositoryName, joinPoint);
+        } finally {
+            RequestTimings.record(RequestTimings.DB_PHASE, phaseStart);
+        }
+    }
+
+    private Object time(String metric, String typeTag, String typeName, ProceedingJoinPoint joinPoint)
+            throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            exception = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder(metric)
+                    .tag(typeTag, typeName)
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String getRepositoryName(Class<?> proxyClass) {
+        return Arrays.stream(ClassUtils.getAllInterfacesForClass(proxyClass))
+                .filter(type -> Repository.class.isAssignableFrom(type)
+                        && type.getName().startsWith(APPLICATION_PACKAGE))
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElseGet(() -> ClassUtils.getUserClass(proxyClass).getSimpleName());
+    }
+}
@@ -0,0 +1,78 @@
+package com.simonjoz.vetclinic.config;
+
+import com.simonjoz.vetclinic.utils.RequestTimings;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Adds Server-Timing header with request phases collected by {@link RequestTimings} and logs them at debug level.
+ * Response body is buffered, so serialization time is known before the header is sent.
+ * NOTE: Streamed responses are not buffered and get no header, their phases are logged only.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "spring.application.server-timing.enabled", havingValue = "true")
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    // Set by ShallowEtagHeaderFilter.disableContentCaching, e.g. for StreamingResponseBody return values.
+    private static final String STREAMING_ATTRIBUTE = ShallowEtagHeaderFilter.class.getName() + ".STREAMING";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        TimedResponseWrapper responseWrapper = new TimedResponseWrapper(request, response);
+        RequestTimings timings = RequestTimings.begin();
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } finally {
+            RequestTimings.end();
+            timings.endSerialization();
+            if (!responseWrapper.isStreaming()) {
+                responseWrapper.setHeader(HEADER, timings.toHeader());
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Server timing of {} {}: {}", request.getMethod(), request.getRequestURI(),
+                        timings.toLogLine());
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private static class TimedResponseWrapper extends ContentCachingResponseWrapper {
+
+        private final HttpServletRequest request;
+
+        TimedResponseWrapper(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            return isStreaming() ? getResponse().getOutputStream() : super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return isStreaming() ? getResponse().getWriter() : super.getWriter();
+        }
+
+        boolean isStreaming() {
+            return request.isAsyncStarted() || request.getAttribute(STREAMING_ATTRIBUTE) != null;
+        }
+    }
+}
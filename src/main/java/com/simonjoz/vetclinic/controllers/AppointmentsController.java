@@ -0,0 +1,49 @@
+package com.simonjoz.vetclinic.controllers;
+
+import com.simonjoz.vetclinic.domain.ExportFormat;
+import com.simonjoz.vetclinic.service.AppointmentsExportService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@RestController
+@Api(tags = "Appointments")
+@RequestMapping("api/v1/appointments")
+@RequiredArgsConstructor
+public class AppointmentsController {
+
+    private final AppointmentsExportService exportService;
+
+    @GetMapping("export")
+    @ApiOperation(value = "Export appointments",
+            notes = "Method is used to export all appointments scheduled from first to last date inclusive, " +
+                    "ordered by date and time, as newline delimited JSON or CSV. Appointments are streamed to " +
+                    "the response while read from database, so export of any size does not need more memory.")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @RequestParam @ApiParam(format = "yyyy-MM-dd", example = "2022-01-01", value = "First date") LocalDate from,
+            @RequestParam @ApiParam(format = "yyyy-MM-dd", example = "2022-01-31", value = "Last date") LocalDate to,
+            @RequestParam(defaultValue = "ndjson", required = false)
+            @ApiParam(value = "Export format", allowableValues = "ndjson, csv") String format) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        // Validated before response is committed, later errors can only abort the stream.
+        AppointmentsExportService.checkRange(from, to);
+
+        String fileName = String.format("appointments_%s_%s.%s", from, to, exportFormat.getFileExtension());
+        StreamingResponseBody body = outputStream -> exportService.export(from, to, exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+}
@@ -1,9 +1,14 @@
 package com.simonjoz.vetclinic.controllers;
 
+import com.simonjoz.vetclinic.domain.AppointmentBatchRequest;
 import com.simonjoz.vetclinic.domain.AppointmentRequest;
+import com.simonjoz.vetclinic.domain.AppointmentsCancelRequest;
+import com.simonjoz.vetclinic.dto.AppointmentBatchResultDTO;
 import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.dto.CancellationResultDTO;
 import com.simonjoz.vetclinic.dto.CustomerDTO;
 import com.simonjoz.vetclinic.dto.PageDTO;
+import com.simonjoz.vetclinic.dto.SliceDTO;
 import com.simonjoz.vetclinic.service.CustomersService;
 import com.simonjoz.vetclinic.utils.PageReqUtils;
 import io.swagger.annotations.Api;
@@ -16,6 +21,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.util.List;
 
 import static com.simonjoz.vetclinic.utils.PageReqUtils.*;
 
@@ -36,10 +42,32 @@ public class CustomersController {
             @RequestParam(defaultValue = DEFAULT_SORT_BY, required = false) String sortBy,
             @RequestParam(defaultValue = DESC_FALSE, required = false)
             @ApiParam(value = "Sort direction descending ?") boolean isDesc) {
-        PageRequest pageRequest = PageReqUtils.getPageRequest(page, pageSize, sortBy, isDesc);
+        PageRequest pageRequest = PageReqUtils.getPageRequest(page, pageSize, sortBy, isDesc, CUSTOMERS_SORT_FIELDS);
         return customersService.getPage(pageRequest);
     }
 
+    @GetMapping(params = "slice=true")
+    @ApiOperation(value = "Fetch customers slice",
+            notes = "Method is used to fetch customers slice. Unlike page, slice does not contain total number " +
+                    "of elements and pages, so no count query is run. Slice is sortable depend on specified params.")
+    public SliceDTO<CustomerDTO> getCustomersSlice(
+            @RequestParam(defaultValue = PAGE_ZERO, required = false) int page,
+            @RequestParam(defaultValue = DEFAULT_SIZE, required = false) int pageSize,
+            @RequestParam(defaultValue = DEFAULT_SORT_BY, required = false) String sortBy,
+            @RequestParam(defaultValue = DESC_FALSE, required = false)
+            @ApiParam(value = "Sort direction descending ?") boolean isDesc) {
+        PageRequest pageRequest = PageReqUtils.getPageRequest(page, pageSize, sortBy, isDesc, CUSTOMERS_SORT_FIELDS);
+        return customersService.getSlice(pageRequest);
+    }
+
+    @GetMapping("{customerId}/appointments")
+    @ApiOperation(value = "Fetch customer appointments",
+            notes = "Method is used to fetch all appointments of customer with given id, ordered by date and time. " +
+                    "Person of each appointment is the doctor.")
+    public List<AppointmentDTO> getAppointmentsByCustomerId(@PathVariable Long customerId) {
+        return customersService.getAppointments(customerId);
+    }
+
     @PostMapping("{customerId}/appointments/add")
     @ApiOperation(value = "Schedule appointment", notes = "Method is used to create new appointment " +
             "with specified doctor at certain date and time, for customer with given id. " +
@@ -51,6 +79,16 @@ public class CustomersController {
         return new ResponseEntity<>(appointmentDTO, HttpStatus.CREATED);
     }
 
+    @PostMapping("{customerId}/appointments/batch")
+    @ApiOperation(value = "Schedule multiple appointments", notes = "Method is used to create up to 500 appointments " +
+            "at once for customer with given id. Valid pin number must be provided in each appointment. " +
+            "All appointments are validated against the same schedule, the ones accepted are saved together. " +
+            "Result is reported for each appointment: BOOKED, CONFLICT (date taken) or REJECTED (invalid request).")
+    public List<AppointmentBatchResultDTO> makeAppointments(
+            @Valid @RequestBody AppointmentBatchRequest batchReq, @PathVariable Long customerId) {
+        return customersService.makeAppointments(batchReq, customerId);
+    }
+
     @DeleteMapping("{customerId}/appointments/cancel")
     @ApiOperation(value = "Cancel appointment", notes = "Method is used to cancel (delete) appointment with " +
             "specified doctor at certain date and time for customer with given id. " +
@@ -61,4 +99,14 @@ public class CustomersController {
         return ResponseEntity.ok("Appointment has been removed successfully.");
     }
 
+    @DeleteMapping("{customerId}/appointments/cancel/batch")
+    @ApiOperation(value = "Cancel multiple appointments", notes = "Method is used to cancel (delete) up to 500 " +
+            "appointments at once, identified by date and time (yyyy-MM-ddTHH:mm), for customer with given id. " +
+            "In order to perform cancellation valid pin number must be provided. " +
+            "Number of cancelled appointments and dates which were not found are returned.")
+    public CancellationResultDTO cancelAppointments(
+            @Valid @RequestBody AppointmentsCancelRequest cancelReq, @PathVariable Long customerId) {
+        return customersService.cancelAppointments(cancelReq, customerId);
+    }
+
 }
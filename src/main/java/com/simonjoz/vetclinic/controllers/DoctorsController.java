@@ -1,8 +1,17 @@
 package com.simonjoz.vetclinic.controllers;
 
+import com.simonjoz.vetclinic.domain.DoctorAppointmentsCancelRequest;
 import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.dto.CancellationResultDTO;
+import com.simonjoz.vetclinic.dto.CursorPageDTO;
+import com.simonjoz.vetclinic.dto.DayScheduleDTO;
+import com.simonjoz.vetclinic.dto.DayAvailabilityDTO;
 import com.simonjoz.vetclinic.dto.DoctorDTO;
+import com.simonjoz.vetclinic.dto.FirstAvailableSlotDTO;
 import com.simonjoz.vetclinic.dto.PageDTO;
+import com.simonjoz.vetclinic.dto.SliceDTO;
+import com.simonjoz.vetclinic.service.AppointmentsService;
+import com.simonjoz.vetclinic.service.AvailabilityService;
 import com.simonjoz.vetclinic.service.DoctorsService;
 import com.simonjoz.vetclinic.utils.PageReqUtils;
 import io.swagger.annotations.Api;
@@ -14,6 +23,8 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static com.simonjoz.vetclinic.utils.PageReqUtils.*;
 
@@ -24,6 +35,7 @@ import static com.simonjoz.vetclinic.utils.PageReqUtils.*;
 public class DoctorsController {
 
     private final DoctorsService doctorsService;
+    private final AvailabilityService availabilityService;
 
     @GetMapping
     @ApiOperation(value = "Fetch doctors list",
@@ -34,11 +46,25 @@ public class DoctorsController {
             @RequestParam(defaultValue = DEFAULT_SORT_BY, required = false) String sortBy,
             @RequestParam(defaultValue = DESC_FALSE, required = false)
             @ApiParam(value = "Sort direction descending ?") boolean isDesc) {
-        PageRequest pageRequest = PageReqUtils.getPageRequest(page, pageSize, sortBy, isDesc);
+        PageRequest pageRequest = PageReqUtils.getPageRequest(page, pageSize, sortBy, isDesc, DOCTORS_SORT_FIELDS);
         return doctorsService.getPage(pageRequest);
     }
 
 
+    @GetMapping(params = "slice=true")
+    @ApiOperation(value = "Fetch doctors slice",
+            notes = "Method is used to fetch doctors slice. Unlike page, slice does not contain total number " +
+                    "of elements and pages, so no count query is run. Slice is sortable depend on specified params.")
+    public SliceDTO<DoctorDTO> getDoctorsSlice(
+            @RequestParam(defaultValue = PAGE_ZERO, required = false) int page,
+            @RequestParam(defaultValue = DEFAULT_SIZE, required = false) int pageSize,
+            @RequestParam(defaultValue = DEFAULT_SORT_BY, required = false) String sortBy,
+            @RequestParam(defaultValue = DESC_FALSE, required = false)
+            @ApiParam(value = "Sort direction descending ?") boolean isDesc) {
+        PageRequest pageRequest = PageReqUtils.getPageRequest(page, pageSize, sortBy, isDesc, DOCTORS_SORT_FIELDS);
+        return doctorsService.getSlice(pageRequest);
+    }
+
     @GetMapping("{doctorId}/appointments")
     @ApiOperation(value = "Fetch all appointments by doctor id",
             notes = "Method is used to fetch appointments page for doctor with specified id. " +
@@ -53,7 +79,89 @@ public class DoctorsController {
             @Valid @RequestParam(required = false)
             @ApiParam(format = "yyyy-MM-dd", example = "2022-01-23", value = "Appointments date") LocalDate date,
             @PathVariable Long doctorId) {
-        PageRequest pageRequest = PageReqUtils.getPageRequest(page, pageSize, sortBy, isDesc);
+        PageRequest pageRequest = PageReqUtils.getPageRequest(page, pageSize, sortBy, isDesc, APPOINTMENTS_SORT_FIELDS);
         return doctorsService.getAppointmentsPageById(pageRequest, doctorId, date);
     }
+
+    @GetMapping(value = "{doctorId}/appointments", params = "slice=true")
+    @ApiOperation(value = "Fetch slice of appointments by doctor id",
+            notes = "Method is used to fetch appointments slice for doctor with specified id. " +
+                    "Unlike page, slice does not contain total number of elements and pages, so no count query is run. " +
+                    "Method takes optional argument of date (yyyy-MM-dd) in order to narrow result to certain period. " +
+                    "It is also sortable depend on specified params.")
+    public SliceDTO<AppointmentDTO> getAppointmentsSliceByDoctorId(
+            @RequestParam(defaultValue = PAGE_ZERO, required = false) int page,
+            @RequestParam(defaultValue = DEFAULT_SIZE, required = false) int pageSize,
+            @RequestParam(defaultValue = DEFAULT_SORT_BY, required = false) String sortBy,
+            @RequestParam(defaultValue = DESC_FALSE, required = false)
+            @ApiParam(value = "Sort direction descending ?") boolean isDesc,
+            @Valid @RequestParam(required = false)
+            @ApiParam(format = "yyyy-MM-dd", example = "2022-01-23", value = "Appointments date") LocalDate date,
+            @PathVariable Long doctorId) {
+        PageRequest pageRequest = PageReqUtils.getPageRequest(page, pageSize, sortBy, isDesc, APPOINTMENTS_SORT_FIELDS);
+        return doctorsService.getAppointmentsSliceById(pageRequest, doctorId, date);
+    }
+
+    @GetMapping(value = "{doctorId}/appointments", params = {"from", "to"})
+    @ApiOperation(value = "Fetch doctor schedule for date range",
+            notes = "Method is used to fetch appointments of doctor with specified id scheduled from first to last " +
+                    "date inclusive, grouped by day. Range may cover up to " + AppointmentsService.MAX_SCHEDULE_DAYS +
+                    " days. Appointments are cached per week, so calendar views do not query database day by day.")
+    public List<DayScheduleDTO> getScheduleByDoctorId(
+            @RequestParam @ApiParam(format = "yyyy-MM-dd", example = "2022-01-17", value = "First date") LocalDate from,
+            @RequestParam @ApiParam(format = "yyyy-MM-dd", example = "2022-01-23", value = "Last date") LocalDate to,
+            @PathVariable Long doctorId) {
+        return doctorsService.getScheduleById(doctorId, from, to);
+    }
+
+    @GetMapping("{doctorId}/appointments/cursor")
+    @ApiOperation(value = "Fetch appointments by doctor id with cursor",
+            notes = "Method is used to fetch appointments of doctor with specified id, ordered by date and time. " +
+                    "Unlike page based method, it does not count all appointments and its latency does not depend " +
+                    "on how deep the page is. First page is fetched without cursor, following pages are fetched " +
+                    "with cursor returned with previous page. Page size is capped at " + MAX_SIZE + ".")
+    public CursorPageDTO<AppointmentDTO> getAppointmentsCursorPageByDoctorId(
+            @RequestParam(defaultValue = DEFAULT_SIZE, required = false) int pageSize,
+            @RequestParam(defaultValue = DESC_FALSE, required = false)
+            @ApiParam(value = "Sort direction descending ? Ignored when cursor is given.") boolean isDesc,
+            @RequestParam(required = false) @ApiParam(value = "Cursor returned with previous page") String cursor,
+            @PathVariable Long doctorId) {
+        return doctorsService.getAppointmentsCursorPageById(doctorId, pageSize, isDesc, cursor);
+    }
+
+    @DeleteMapping("{doctorId}/appointments")
+    @ApiOperation(value = "Cancel all appointments of doctor at given day",
+            notes = "Method is used to cancel (delete) all appointments of doctor with specified id " +
+                    "scheduled at given date (yyyy-MM-dd), e.g. when doctor is off sick. " +
+                    "In order to perform cancellation valid admin pin must be provided. " +
+                    "Number of cancelled appointments is returned.")
+    public CancellationResultDTO cancelAppointmentsByDoctorId(
+            @Valid @RequestBody DoctorAppointmentsCancelRequest cancelReq, @PathVariable Long doctorId) {
+        return doctorsService.cancelAppointments(cancelReq, doctorId);
+    }
+
+    @GetMapping("{doctorId}/availability")
+    @ApiOperation(value = "Fetch free appointment slots by doctor id",
+            notes = "Method is used to fetch free appointment slots of doctor with specified id for each day " +
+                    "of given date range (yyyy-MM-dd). Slots are resolved base on visit details of the doctor. " +
+                    "Range must not be longer than 31 days.")
+    public List<DayAvailabilityDTO> getAvailabilityByDoctorId(
+            @RequestParam
+            @ApiParam(format = "yyyy-MM-dd", example = "2022-01-23", value = "Range start date") LocalDate from,
+            @RequestParam
+            @ApiParam(format = "yyyy-MM-dd", example = "2022-01-30", value = "Range end date") LocalDate to,
+            @PathVariable Long doctorId) {
+        return availabilityService.getFreeSlots(doctorId, from, to);
+    }
+
+    @GetMapping("availability/first")
+    @ApiOperation(value = "Find first free appointment slot with any doctor",
+            notes = "Method is used to find the earliest free appointment slot with any doctor after specified " +
+                    "date and time (yyyy-MM-ddTHH:mm). Search is limited to 30 days ahead. If search exceeds its latency " +
+                    "budget, the best slot found so far is returned with complete set to false, or 503 if none.")
+    public FirstAvailableSlotDTO getFirstAvailableSlot(
+            @RequestParam(required = false)
+            @ApiParam(format = "yyyy-MM-ddTHH:mm", example = "2022-01-23T10:00", value = "Search start") LocalDateTime after) {
+        return availabilityService.findFirstAvailable(after);
+    }
 }
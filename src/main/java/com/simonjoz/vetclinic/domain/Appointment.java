@@ -18,10 +18,21 @@ import java.time.LocalTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity(name = "appointments")
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = Appointment.DOCTOR_TIMESTAMP_CONSTRAINT, columnNames = {"doctor_id", "timestamp"}),
+        indexes = {
+                @Index(name = "idx_appointments_doctor_date", columnList = "doctor_id, scheduledDate, scheduledTime"),
+                @Index(name = "idx_appointments_customer_timestamp", columnList = "customer_id, timestamp"),
+                @Index(name = "idx_appointments_timestamp", columnList = "timestamp")})
 public class Appointment {
 
+    // Only one appointment may start at given time for each doctor, different doctors can be booked at the same time.
+    public static final String DOCTOR_TIMESTAMP_CONSTRAINT = "uk_appointments_doctor_timestamp";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // on db side.
+    // Pooled sequence instead of identity, which disables JDBC insert batching.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = 50)
     private Long id;
 
     private String note;
@@ -33,7 +44,6 @@ public class Appointment {
     @NotNull(message = "Time is required.")
     private LocalTime scheduledTime;
 
-    @Column(unique = true)
     @NotNull(message = "Timestamp must be provided")
     private LocalDateTime timestamp;
 
@@ -0,0 +1,22 @@
+package com.simonjoz.vetclinic.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentBatchRequest {
+
+    public static final int MAX_BATCH_SIZE = 500;
+
+    @NotEmpty(message = "At least one appointment is required.")
+    @Size(max = MAX_BATCH_SIZE, message = "Batch must not contain more than " + MAX_BATCH_SIZE + " appointments.")
+    private List<@Valid AppointmentRequest> appointments;
+}
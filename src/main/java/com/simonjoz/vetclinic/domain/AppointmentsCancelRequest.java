@@ -0,0 +1,27 @@
+package com.simonjoz.vetclinic.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.simonjoz.vetclinic.domain.AppointmentBatchRequest.MAX_BATCH_SIZE;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentsCancelRequest {
+
+    @Min(value = 4, message = "Pin number must not be null and less than four digits.")
+    private int customerPin;
+
+    @NotEmpty(message = "At least one appointment timestamp is required.")
+    @Size(max = MAX_BATCH_SIZE, message = "Batch must not contain more than " + MAX_BATCH_SIZE + " appointments.")
+    private List<@NotNull(message = "Appointment timestamp must not be null.") LocalDateTime> timestamps;
+}
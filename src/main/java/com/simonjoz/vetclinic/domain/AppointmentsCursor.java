@@ -0,0 +1,46 @@
+package com.simonjoz.vetclinic.domain;
+
+import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after the last appointment of a page, ordered by (timestamp, id). Direction is kept in the cursor,
+ * so the following pages are fetched in the same order as the first one.
+ * NOTE: Token is opaque for clients, only Base64 encoded, not signed.
+ */
+@Value
+public class AppointmentsCursor {
+
+    private static final String SEPARATOR = "|";
+
+    LocalDateTime timestamp;
+    Long id;
+    boolean descending;
+
+    public static AppointmentsCursor after(AppointmentDTO appointment, boolean descending) {
+        LocalDateTime timestamp = LocalDateTime.of(appointment.getScheduledDate(), appointment.getScheduledTime());
+        return new AppointmentsCursor(timestamp, appointment.getId(), descending);
+    }
+
+    public static AppointmentsCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\" + SEPARATOR);
+            if (parts.length == 3) {
+                return new AppointmentsCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]), "D".equals(parts[2]));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            // Not Base64, or malformed timestamp or id - reported below as invalid cursor.
+        }
+        throw new IllegalArgumentException(String.format("Cursor '%s' is invalid.", token));
+    }
+
+    public String encode() {
+        String raw = timestamp + SEPARATOR + id + SEPARATOR + (descending ? "D" : "A");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,23 @@
+package com.simonjoz.vetclinic.domain;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Volumes and shape of generated dataset. The same settings and seed always produce the same rows.
+ */
+@Value
+@Builder
+public class DatasetSettings {
+    long seed;
+    int doctors;
+    long customers;
+    long appointments;
+    // Share of doctor's slots which are booked, remaining ones stay free for availability searches.
+    double occupancy;
+    // Appointments are placed on working days back from this date, doctor by doctor.
+    LocalDate lastDate;
+    int batchSize;
+}
@@ -0,0 +1,20 @@
+package com.simonjoz.vetclinic.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorAppointmentsCancelRequest {
+
+    @NotNull(message = "Admin pin is required.")
+    private Integer adminPin;
+
+    @NotNull(message = "Date is required.")
+    private LocalDate date;
+}
@@ -0,0 +1,27 @@
+package com.simonjoz.vetclinic.domain;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String fileExtension;
+
+    public static ExportFormat of(String format) {
+        return Arrays.stream(values())
+                .filter(value -> value.name().equals(format.trim().toUpperCase(Locale.ROOT)))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format(
+                        "Export format '%s' is not supported. Allowed values: %s.", format,
+                        Arrays.stream(values()).map(ExportFormat::getFileExtension).collect(Collectors.toList()))));
+    }
+}
@@ -0,0 +1,15 @@
+package com.simonjoz.vetclinic.dto;
+
+import lombok.Value;
+
+@Value
+public class AppointmentBatchResultDTO {
+    int index;
+    Status status;
+    AppointmentDTO appointment;
+    String message;
+
+    public enum Status {
+        BOOKED, CONFLICT, REJECTED
+    }
+}
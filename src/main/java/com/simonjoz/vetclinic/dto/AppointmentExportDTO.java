@@ -0,0 +1,22 @@
+package com.simonjoz.vetclinic.dto;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Value
+public class AppointmentExportDTO {
+    Long id;
+    LocalDate scheduledDate;
+    LocalTime scheduledTime;
+    Long doctorId;
+    String doctorName;
+    String doctorSurname;
+    Long customerId;
+    String customerName;
+    String customerSurname;
+    BigDecimal visitPrice;
+    String note;
+}
@@ -0,0 +1,11 @@
+package com.simonjoz.vetclinic.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookedSlotDTO {
+    Long doctorId;
+    LocalDateTime timestamp;
+}
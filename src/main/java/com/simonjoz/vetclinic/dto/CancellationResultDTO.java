@@ -0,0 +1,12 @@
+package com.simonjoz.vetclinic.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Value
+public class CancellationResultDTO {
+    int cancelled;
+    List<LocalDateTime> notFound;
+}
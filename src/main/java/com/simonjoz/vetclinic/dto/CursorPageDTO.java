@@ -0,0 +1,15 @@
+package com.simonjoz.vetclinic.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Page fetched with keyset pagination. Total count is not known, next cursor is null on the last page.
+ */
+@Value
+public class CursorPageDTO<T> {
+    List<T> content;
+    String nextCursor;
+    boolean last;
+}
@@ -0,0 +1,13 @@
+package com.simonjoz.vetclinic.dto;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Value
+public class DayAvailabilityDTO {
+    LocalDate date;
+    List<LocalTime> freeSlots;
+}
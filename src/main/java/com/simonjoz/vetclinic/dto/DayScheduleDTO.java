@@ -0,0 +1,12 @@
+package com.simonjoz.vetclinic.dto;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Value
+public class DayScheduleDTO {
+    LocalDate date;
+    List<AppointmentDTO> appointments;
+}
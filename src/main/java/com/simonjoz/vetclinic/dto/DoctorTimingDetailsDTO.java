@@ -0,0 +1,20 @@
+package com.simonjoz.vetclinic.dto;
+
+import lombok.Value;
+
+import java.time.LocalTime;
+
+@Value
+public class DoctorTimingDetailsDTO {
+    Long doctorId;
+    String title;
+    String name;
+    String surname;
+    int visitDurationInMinutes;
+    LocalTime openingAt;
+    LocalTime closingAt;
+
+    public TimingDetailsDTO getTimingDetails() {
+        return new TimingDetailsDTO(visitDurationInMinutes, openingAt, closingAt);
+    }
+}
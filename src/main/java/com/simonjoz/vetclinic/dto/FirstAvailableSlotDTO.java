@@ -0,0 +1,18 @@
+package com.simonjoz.vetclinic.dto;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Value
+public class FirstAvailableSlotDTO {
+    Long doctorId;
+    String title;
+    String name;
+    String surname;
+    LocalDate date;
+    LocalTime time;
+    // False when latency budget has been exceeded, an earlier slot may exist.
+    boolean complete;
+}
@@ -0,0 +1,14 @@
+package com.simonjoz.vetclinic.dto;
+
+import lombok.Value;
+
+@Value
+public class ImportReportDTO {
+    String source;
+    // Records covered by checkpoint of previous run.
+    long skipped;
+    long imported;
+    long rejected;
+    long durationInMillis;
+    double rowsPerSecond;
+}
@@ -0,0 +1,13 @@
+package com.simonjoz.vetclinic.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class SliceDTO<T> {
+    boolean first;
+    boolean last;
+    boolean empty;
+    List<T> content;
+}
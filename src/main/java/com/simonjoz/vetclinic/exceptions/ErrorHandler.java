@@ -39,6 +39,11 @@ public class ErrorHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(SearchTimeoutException.class)
+    public ResponseEntity<String> handleSearchTimeout(RuntimeException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(RemovalFailureException.class)
     public ResponseEntity<String> handleRemovalFailure(RuntimeException ex) {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -0,0 +1,42 @@
+package com.simonjoz.vetclinic.jfr;
+
+import jdk.jfr.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Availability decision of requested slot against doctor's opening times and booked slots.
+ */
+@Name("com.simonjoz.vetclinic.AvailabilityCheck")
+@Label("Availability Check")
+@Category({"Vet Clinic", "Booking"})
+@Description("Availability decision of requested appointment slot.")
+@StackTrace(false)
+public class AvailabilityCheckEvent extends Event {
+
+    public static final String AVAILABLE = "available";
+    public static final String CLOSED = "closed";
+    public static final String TAKEN = "taken";
+
+    @Label("Doctor Id")
+    private long doctorId;
+
+    @Label("Slot")
+    private String slot;
+
+    @Label("Result")
+    @Description("Available, closed or taken.")
+    private String result;
+
+    /**
+     * Fields are set only if the event is recorded.
+     */
+    public void commit(long doctorId, LocalDateTime slot, String result) {
+        if (shouldCommit()) {
+            this.doctorId = doctorId;
+            this.slot = slot.toString();
+            this.result = result;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.simonjoz.vetclinic.jfr;
+
+import jdk.jfr.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Single appointment booking, from validation to insert. Lock wait shows contention on the doctor's booking lock.
+ */
+@Name("com.simonjoz.vetclinic.Booking")
+@Label("Booking")
+@Category({"Vet Clinic", "Booking"})
+@Description("Appointment booking of single slot.")
+@StackTrace(false)
+public class BookingEvent extends Event {
+
+    public static final String BOOKED = "booked";
+
+    @Label("Customer Id")
+    private long customerId;
+
+    @Label("Doctor Id")
+    private long doctorId;
+
+    @Label("Slot")
+    private String slot;
+
+    @Label("Lock Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    private long lockWait;
+
+    @Label("Result")
+    @Description("Booked or simple name of the exception.")
+    private String result;
+
+    public void setLockWait(long lockWait) {
+        this.lockWait = lockWait;
+    }
+
+    /**
+     * Fields are set only if the event is recorded.
+     */
+    public void commit(long customerId, long doctorId, LocalDate date, LocalTime time, String result) {
+        if (shouldCommit()) {
+            this.customerId = customerId;
+            this.doctorId = doctorId;
+            this.slot = date + "T" + time;
+            this.result = result;
+            commit();
+        }
+    }
+}
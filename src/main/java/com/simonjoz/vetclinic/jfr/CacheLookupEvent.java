@@ -0,0 +1,31 @@
+package com.simonjoz.vetclinic.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Lookup in Spring cache, emitted by {@link com.simonjoz.vetclinic.cache.RecordingCache}.
+ */
+@Name("com.simonjoz.vetclinic.CacheLookup")
+@Label("Cache Lookup")
+@Category({"Vet Clinic", "Cache"})
+@Description("Lookup of a key in Spring cache.")
+@StackTrace(false)
+public class CacheLookupEvent extends Event {
+
+    @Label("Cache")
+    private String cache;
+
+    @Label("Hit")
+    private boolean hit;
+
+    /**
+     * Fields are set only if the event is recorded.
+     */
+    public void commit(String cache, boolean hit) {
+        if (shouldCommit()) {
+            this.cache = cache;
+            this.hit = hit;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.simonjoz.vetclinic.mappers;
+
+import com.simonjoz.vetclinic.domain.Appointment;
+import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface DoctorAppointmentMapper {
+
+    @Mapping(source = "customer.name", target = "personName")
+    @Mapping(source = "customer.surname", target = "personSurname")
+    AppointmentDTO map(Appointment appointment);
+
+}
@@ -0,0 +1,21 @@
+package com.simonjoz.vetclinic.mappers;
+
+
+import com.simonjoz.vetclinic.dto.SliceDTO;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class SlicesMapper<T> {
+
+    public SliceDTO<T> map(Slice<T> slice) {
+        List<T> content = slice.getContent();
+        boolean first = slice.isFirst();
+        boolean last = slice.isLast();
+        boolean empty = slice.isEmpty();
+        return new SliceDTO<>(first, last, empty, content);
+    }
+
+}
@@ -2,17 +2,26 @@ package com.simonjoz.vetclinic.repository;
 
 import com.simonjoz.vetclinic.domain.Appointment;
 import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.dto.AppointmentExportDTO;
+import com.simonjoz.vetclinic.dto.BookedSlotDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
 import javax.transaction.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface AppointmentsRepo extends JpaRepository<Appointment, Long> {
+public interface AppointmentsRepo extends JpaRepository<Appointment, Long>, AppointmentsRepoCustom {
 
     @Query("SELECT new com.simonjoz.vetclinic.dto.AppointmentDTO(a.id, a.note, a.scheduledDate, a.scheduledTime, " +
             "a.customer.name, a.customer.surname) FROM appointments a WHERE a.doctor.id = :doctorId")
@@ -22,6 +31,72 @@ public interface AppointmentsRepo extends JpaRepository<Appointment, Long> {
             "a.customer.name, a.customer.surname) FROM appointments a WHERE a.doctor.id = :doctorId AND a.scheduledDate = :date")
     Page<AppointmentDTO> getDoctorAppointmentsPage(Long doctorId, LocalDate date, Pageable pageable);
 
+    // Slices are fetched with one row more than requested instead of count query.
+
+    @Query("SELECT new com.simonjoz.vetclinic.dto.AppointmentDTO(a.id, a.note, a.scheduledDate, a.scheduledTime, " +
+            "a.customer.name, a.customer.surname) FROM appointments a WHERE a.doctor.id = :doctorId")
+    Slice<AppointmentDTO> getDoctorAppointmentsSlice(Long doctorId, Pageable pageable);
+
+    @Query("SELECT new com.simonjoz.vetclinic.dto.AppointmentDTO(a.id, a.note, a.scheduledDate, a.scheduledTime, " +
+            "a.customer.name, a.customer.surname) FROM appointments a WHERE a.doctor.id = :doctorId AND a.scheduledDate = :date")
+    Slice<AppointmentDTO> getDoctorAppointmentsSlice(Long doctorId, LocalDate date, Pageable pageable);
+
+    // Keyset pagination, seek predicates are served by (doctor_id, timestamp) unique index. No count query is issued.
+
+    @Query("SELECT new com.simonjoz.vetclinic.dto.AppointmentDTO(a.id, a.note, a.scheduledDate, a.scheduledTime, " +
+            "a.customer.name, a.customer.surname) FROM appointments a WHERE a.doctor.id = :doctorId " +
+            "ORDER BY a.timestamp, a.id")
+    List<AppointmentDTO> getDoctorAppointmentsFirst(Long doctorId, Pageable limit);
+
+    @Query("SELECT new com.simonjoz.vetclinic.dto.AppointmentDTO(a.id, a.note, a.scheduledDate, a.scheduledTime, " +
+            "a.customer.name, a.customer.surname) FROM appointments a WHERE a.doctor.id = :doctorId " +
+            "AND a.timestamp >= :timestamp AND (a.timestamp > :timestamp OR a.id > :id) " +
+            "ORDER BY a.timestamp, a.id")
+    List<AppointmentDTO> getDoctorAppointmentsAfter(Long doctorId, LocalDateTime timestamp, Long id, Pageable limit);
+
+    @Query("SELECT new com.simonjoz.vetclinic.dto.AppointmentDTO(a.id, a.note, a.scheduledDate, a.scheduledTime, " +
+            "a.customer.name, a.customer.surname) FROM appointments a WHERE a.doctor.id = :doctorId " +
+            "ORDER BY a.timestamp DESC, a.id DESC")
+    List<AppointmentDTO> getDoctorAppointmentsLast(Long doctorId, Pageable limit);
+
+    @Query("SELECT new com.simonjoz.vetclinic.dto.AppointmentDTO(a.id, a.note, a.scheduledDate, a.scheduledTime, " +
+            "a.customer.name, a.customer.surname) FROM appointments a WHERE a.doctor.id = :doctorId " +
+            "AND a.timestamp <= :timestamp AND (a.timestamp < :timestamp OR a.id < :id) " +
+            "ORDER BY a.timestamp DESC, a.id DESC")
+    List<AppointmentDTO> getDoctorAppointmentsBefore(Long doctorId, LocalDateTime timestamp, Long id, Pageable limit);
+
+    // Single range scan of (doctor_id, timestamp) unique index.
+    @Query("SELECT new com.simonjoz.vetclinic.dto.AppointmentDTO(a.id, a.note, a.scheduledDate, a.scheduledTime, " +
+            "a.customer.name, a.customer.surname) FROM appointments a WHERE a.doctor.id = :doctorId " +
+            "AND a.timestamp >= :start AND a.timestamp < :end ORDER BY a.timestamp, a.id")
+    List<AppointmentDTO> getDoctorAppointmentsBetween(Long doctorId, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT new com.simonjoz.vetclinic.dto.AppointmentDTO(a.id, a.note, a.scheduledDate, a.scheduledTime, " +
+            "a.customer.name, a.customer.surname) FROM appointments a WHERE a.doctor.id = :doctorId AND a.scheduledDate = :date " +
+            "ORDER BY a.scheduledTime, a.id")
+    List<AppointmentDTO> getDoctorDaySchedule(Long doctorId, LocalDate date);
+
+    // Forward only cursor, rows are fetched from database in chunks of given size.
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.simonjoz.vetclinic.dto.AppointmentExportDTO(a.id, a.scheduledDate, a.scheduledTime, " +
+            "d.id, d.name, d.surname, c.id, c.name, c.surname, v.visitPrice, a.note) FROM appointments a " +
+            "JOIN a.doctor d JOIN a.customer c LEFT JOIN d.visitDetails v " +
+            "WHERE a.timestamp >= :start AND a.timestamp < :end ORDER BY a.timestamp, a.id")
+    Stream<AppointmentExportDTO> streamAppointmentsBetween(LocalDateTime start, LocalDateTime end);
+
+    // Served by (customer_id, timestamp) index, person is the doctor.
+    @Query("SELECT new com.simonjoz.vetclinic.dto.AppointmentDTO(a.id, a.note, a.scheduledDate, a.scheduledTime, " +
+            "a.doctor.name, a.doctor.surname) FROM appointments a WHERE a.customer.id = :customerId " +
+            "ORDER BY a.timestamp, a.id")
+    List<AppointmentDTO> getCustomerAppointments(Long customerId);
+
+    @Query("SELECT DISTINCT a.customer.id FROM appointments a WHERE a.doctor.id = :doctorId AND a.scheduledDate = :date")
+    List<Long> getCustomerIdsByDoctorIdAndScheduledDate(Long doctorId, LocalDate date);
+
+    @Query("SELECT new com.simonjoz.vetclinic.dto.AppointmentDTO(a.id, a.note, a.scheduledDate, a.scheduledTime, " +
+            "a.customer.name, a.customer.surname) FROM appointments a WHERE a.id = :appointmentId")
+    Optional<AppointmentDTO> getDoctorAppointment(Long appointmentId);
+
 
     @Query("SELECT CASE WHEN count(a.id) = 0 THEN true ELSE false END FROM appointments a WHERE a.doctor.id = :doctorId " +
             "AND (a.timestamp > :start AND a.timestamp < :end OR a.timestamp = :actual)")
@@ -33,7 +108,28 @@ public interface AppointmentsRepo extends JpaRepository<Appointment, Long> {
     void deleteByCustomerIdAndTimestamp(Long customerId, LocalDateTime timestamp);
 
 
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM appointments a WHERE a.customer.id = :customerId AND a.timestamp IN :timestamps")
+    int deleteByCustomerIdAndTimestampIn(Long customerId, Collection<LocalDateTime> timestamps);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM appointments a WHERE a.doctor.id = :doctorId AND a.scheduledDate = :date")
+    int deleteByDoctorIdAndScheduledDate(Long doctorId, LocalDate date);
+
     @Query("SELECT CASE WHEN count(a.id) > 0 THEN true ELSE false END FROM appointments a " +
             "WHERE a.customer.id = :customerId AND a.timestamp = :timestamp")
     boolean existsByCustomerIdAndTimestamp(Long customerId, LocalDateTime timestamp);
+
+    @Query("SELECT a.doctor.id FROM appointments a WHERE a.customer.id = :customerId AND a.timestamp = :timestamp")
+    List<Long> getDoctorIdsByCustomerIdAndTimestamp(Long customerId, LocalDateTime timestamp);
+
+    @Query("SELECT new com.simonjoz.vetclinic.dto.BookedSlotDTO(a.doctor.id, a.timestamp) FROM appointments a " +
+            "WHERE a.timestamp >= :from")
+    List<BookedSlotDTO> getBookedSlotsFrom(LocalDateTime from);
+
+    @Query("SELECT new com.simonjoz.vetclinic.dto.BookedSlotDTO(a.doctor.id, a.timestamp) FROM appointments a " +
+            "WHERE a.customer.id = :customerId AND a.timestamp IN :timestamps")
+    List<BookedSlotDTO> getBookedSlotsByCustomerIdAndTimestampIn(Long customerId, Collection<LocalDateTime> timestamps);
 }
@@ -0,0 +1,29 @@
+package com.simonjoz.vetclinic.repository;
+
+import com.simonjoz.vetclinic.domain.Appointment;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface AppointmentsRepoCustom {
+
+    /**
+     * Inserts appointment with single statement, only if customer pin matches and doctor has no other appointment
+     * starting less than visit duration before or after given timestamp.
+     *
+     * @return id of inserted appointment, empty if conditions were not met
+     */
+    Optional<Long> insertIfAvailable(Long customerId, int customerPin, Long doctorId, String note,
+                                     LocalDateTime timestamp, int visitDurationInMinutes);
+
+    /**
+     * Inserts appointments with single JDBC batch, each one only if its doctor has no other appointment starting
+     * less than visit duration before or after its timestamp. Ids are assigned to all given appointments.
+     * NOTE: Customer pin is not checked.
+     *
+     * @return whether appointment has been inserted, in order of given appointments
+     */
+    boolean[] insertAllIfAvailable(List<Appointment> appointments, Map<Long, Integer> visitDurationsByDoctorId);
+}
@@ -0,0 +1,106 @@
+package com.simonjoz.vetclinic.repository;
+
+import com.simonjoz.vetclinic.domain.Appointment;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Customer and doctor are referenced by id only, none of them is loaded to book an appointment.
+ * NOTE: NOT EXISTS condition does not lock doctor's schedule, two concurrent transactions can both insert
+ * overlapping appointments. Overlaps are prevented by booking locks held by the callers, which are local
+ * to the application node. Across nodes only appointments starting at exactly the same time are rejected,
+ * by (doctor_id, timestamp) unique constraint.
+ */
+@RequiredArgsConstructor
+public class AppointmentsRepoImpl implements AppointmentsRepoCustom {
+
+    private static final String INSERT_IF_AVAILABLE =
+            "INSERT INTO appointments (id, note, scheduled_date, scheduled_time, timestamp, customer_id, doctor_id) " +
+            "SELECT :id, :note, :scheduledDate, :scheduledTime, :timestamp, c.id, :doctorId FROM customers c " +
+            "WHERE c.id = :customerId AND c.pin = :customerPin AND NOT EXISTS (SELECT 1 FROM appointments a " +
+            "WHERE a.doctor_id = :doctorId AND a.timestamp > :rangeStart AND a.timestamp < :rangeEnd)";
+
+    // Customer pin is checked once for whole batch, so only the doctor's schedule is condition of the insert.
+    private static final String INSERT_IF_FREE =
+            "INSERT INTO appointments (id, note, scheduled_date, scheduled_time, timestamp, customer_id, doctor_id) " +
+            "SELECT :id, :note, :scheduledDate, :scheduledTime, :timestamp, :customerId, d.id FROM doctors d " +
+            "WHERE d.id = :doctorId AND NOT EXISTS (SELECT 1 FROM appointments a " +
+            "WHERE a.doctor_id = :doctorId AND a.timestamp > :rangeStart AND a.timestamp < :rangeEnd)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public Optional<Long> insertIfAvailable(Long customerId, int customerPin, Long doctorId, String note,
+                                            LocalDateTime timestamp, int visitDurationInMinutes) {
+        final Long appointmentId = generateAppointmentId();
+        MapSqlParameterSource params = getInsertParams(appointmentId, customerId, doctorId, note, timestamp,
+                visitDurationInMinutes)
+                .addValue("customerPin", customerPin, Types.INTEGER);
+
+        int inserted = jdbcTemplate.update(INSERT_IF_AVAILABLE, params);
+        return inserted == 0 ? Optional.empty() : Optional.of(appointmentId);
+    }
+
+    @Override
+    @Transactional
+    public boolean[] insertAllIfAvailable(List<Appointment> appointments, Map<Long, Integer> visitDurationsByDoctorId) {
+        MapSqlParameterSource[] batchParams = new MapSqlParameterSource[appointments.size()];
+        for (int i = 0; i < appointments.size(); i++) {
+            Appointment appointment = appointments.get(i);
+            Long doctorId = appointment.getDoctor().getId();
+            appointment.setId(generateAppointmentId());
+            batchParams[i] = getInsertParams(appointment.getId(), appointment.getCustomer().getId(), doctorId,
+                    appointment.getNote(), appointment.getTimestamp(), visitDurationsByDoctorId.get(doctorId));
+        }
+
+        boolean[] inserted = new boolean[appointments.size()];
+        if (!appointments.isEmpty()) {
+            int[] insertedRows = jdbcTemplate.batchUpdate(INSERT_IF_FREE, batchParams);
+            for (int i = 0; i < insertedRows.length; i++) {
+                inserted[i] = insertedRows[i] > 0;
+            }
+        }
+        return inserted;
+    }
+
+    private MapSqlParameterSource getInsertParams(Long appointmentId, Long customerId, Long doctorId, String note,
+                                                  LocalDateTime timestamp, int visitDurationInMinutes) {
+        return new MapSqlParameterSource()
+                .addValue("id", appointmentId, Types.BIGINT)
+                .addValue("note", note, Types.VARCHAR)
+                .addValue("scheduledDate", Date.valueOf(timestamp.toLocalDate()), Types.DATE)
+                .addValue("scheduledTime", Time.valueOf(timestamp.toLocalTime()), Types.TIME)
+                .addValue("timestamp", Timestamp.valueOf(timestamp), Types.TIMESTAMP)
+                .addValue("customerId", customerId, Types.BIGINT)
+                .addValue("doctorId", doctorId, Types.BIGINT)
+                .addValue("rangeStart", Timestamp.valueOf(timestamp.minusMinutes(visitDurationInMinutes)), Types.TIMESTAMP)
+                .addValue("rangeEnd", Timestamp.valueOf(timestamp.plusMinutes(visitDurationInMinutes)), Types.TIMESTAMP);
+    }
+
+    /**
+     * Id is taken from the same pooled generator as for persisted appointments,
+     * so most of the time no database call is needed.
+     */
+    private Long generateAppointmentId() {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        IdentifierGenerator generator = session.getFactory().getMetamodel()
+                .entityPersister(Appointment.class).getIdentifierGenerator();
+        return (Long) generator.generate(session, null);
+    }
+}
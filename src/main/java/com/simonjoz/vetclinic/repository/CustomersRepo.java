@@ -4,6 +4,7 @@ import com.simonjoz.vetclinic.domain.Customer;
 import com.simonjoz.vetclinic.dto.CustomerDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -14,6 +15,13 @@ public interface CustomersRepo extends JpaRepository<Customer, Long> {
     @Query("SELECT new com.simonjoz.vetclinic.dto.CustomerDTO(c.id, c.pin, c.name, c.surname) FROM customers c")
     Page<CustomerDTO> getCustomersPage(PageRequest pageRequest);
 
+    @Query("SELECT new com.simonjoz.vetclinic.dto.CustomerDTO(c.id, c.pin, c.name, c.surname) FROM customers c")
+    Slice<CustomerDTO> getCustomersSlice(PageRequest pageRequest);
+
     @Query("SELECT c.pin FROM customers c WHERE c.id = :customerId")
     Optional<Integer> getCustomerPinById(Long customerId);
+
+    @Query("SELECT new com.simonjoz.vetclinic.dto.CustomerDTO(c.id, c.pin, c.name, c.surname) FROM customers c " +
+            "WHERE c.id = :customerId")
+    Optional<CustomerDTO> getCustomerById(Long customerId);
 }
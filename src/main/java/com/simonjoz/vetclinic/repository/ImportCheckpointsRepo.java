@@ -0,0 +1,38 @@
+package com.simonjoz.vetclinic.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Number of source records covered by committed chunks of each bulk import.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ImportCheckpointsRepo {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long getCommittedRows(String source) {
+        List<Long> committedRows = jdbcTemplate.queryForList(
+                "SELECT committed_rows FROM import_checkpoints WHERE source = ?", Long.class, source);
+        return committedRows.isEmpty() ? 0L : committedRows.get(0);
+    }
+
+    /**
+     * Must be called in the transaction of imported chunk, so checkpoint never gets ahead of imported rows.
+     */
+    public void saveCommittedRows(String source, long committedRows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int updated = jdbcTemplate.update("UPDATE import_checkpoints SET committed_rows = ?, updated_at = ? " +
+                "WHERE source = ?", committedRows, now, source);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO import_checkpoints (source, committed_rows, updated_at) " +
+                    "VALUES (?, ?, ?)", source, committedRows, now);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.simonjoz.vetclinic.repository;
 
 import com.simonjoz.vetclinic.domain.VisitDetails;
+import com.simonjoz.vetclinic.dto.DoctorTimingDetailsDTO;
 import com.simonjoz.vetclinic.dto.TimingDetailsDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface VisitDetailsRepo extends JpaRepository<VisitDetails, Long> {
@@ -13,4 +15,12 @@ public interface VisitDetailsRepo extends JpaRepository<VisitDetails, Long> {
             " v.openingAt, v.closingAt) FROM VisitDetails v WHERE v.id = :doctorId")
     Optional<TimingDetailsDTO> getTimingDetails(Long doctorId);
 
+    @Query("SELECT new com.simonjoz.vetclinic.dto.DoctorTimingDetailsDTO(d.id, d.title, d.name, d.surname, " +
+            "v.visitDurationInMinutes, v.openingAt, v.closingAt) FROM VisitDetails v JOIN v.doctor d")
+    List<DoctorTimingDetailsDTO> getDoctorsTimingDetails();
+
+    @Query("SELECT new com.simonjoz.vetclinic.dto.DoctorTimingDetailsDTO(d.id, d.title, d.name, d.surname, " +
+            "v.visitDurationInMinutes, v.openingAt, v.closingAt) FROM VisitDetails v JOIN v.doctor d WHERE d.id = :doctorId")
+    Optional<DoctorTimingDetailsDTO> getDoctorTimingDetails(Long doctorId);
+
 }
@@ -0,0 +1,184 @@
+package com.simonjoz.vetclinic.service;
+
+import com.simonjoz.vetclinic.dto.BookedSlotDTO;
+import com.simonjoz.vetclinic.repository.AppointmentsRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.simonjoz.vetclinic.service.DaySlots.MINUTES_PER_DAY;
+
+/**
+ * In-memory index of booked appointment start times, kept per doctor and per day.
+ * Availability checks are answered from the index instead of counting rows in the appointments table.
+ * NOTE: Resolution is one minute, appointment times are truncated to full minutes.
+ * Index is rebuilt into a new map which replaces the live one at once, changes made meanwhile wait for the swap,
+ * so none of them is lost. Days before yesterday are purged every night.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AppointmentSlotsIndex implements SmartInitializingSingleton {
+
+    private final AppointmentsRepo appointmentsRepo;
+
+    // Changes hold the read lock, so they are applied either before the snapshot is read or to the new map.
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private volatile ConcurrentMap<Long, ConcurrentMap<LocalDate, DaySlots>> doctorsSlots = new ConcurrentHashMap<>();
+
+    /**
+     * Index is built before the web server starts, so no request is answered from an empty index.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Built again once application runners are done, as they may import or generate appointments.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            // Yesterday is included, so the ranges crossing midnight are resolved correctly.
+            LocalDateTime from = LocalDate.now().minusDays(1).atStartOfDay();
+            List<BookedSlotDTO> bookedSlots = appointmentsRepo.getBookedSlotsFrom(from);
+
+            ConcurrentMap<Long, ConcurrentMap<LocalDate, DaySlots>> rebuiltSlots = new ConcurrentHashMap<>();
+            bookedSlots.forEach(slot -> book(rebuiltSlots, slot.getDoctorId(), slot.getTimestamp()));
+            doctorsSlots = rebuiltSlots;
+            log.debug("Appointment slots index built from {} appointments.", bookedSlots.size());
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(cron = "${spring.application.slots-index.purge-cron:0 5 0 * * *}")
+    public void purgePastDays() {
+        purgeDaysBefore(LocalDate.now().minusDays(1));
+    }
+
+    void purgeDaysBefore(LocalDate date) {
+        doctorsSlots.values().forEach(days -> days.keySet().removeIf(day -> day.isBefore(date)));
+    }
+
+    public void book(Long doctorId, LocalDateTime timestamp) {
+        rebuildLock.readLock().lock();
+        try {
+            book(doctorsSlots, doctorId, timestamp);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public void release(Long doctorId, LocalDateTime timestamp) {
+        rebuildLock.readLock().lock();
+        try {
+            DaySlots daySlots = getDaySlots(doctorId, timestamp.toLocalDate());
+            if (daySlots != null) {
+                daySlots.release(minuteOfDay(timestamp));
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public void releaseDay(Long doctorId, LocalDate date) {
+        rebuildLock.readLock().lock();
+        try {
+            ConcurrentMap<LocalDate, DaySlots> days = doctorsSlots.get(doctorId);
+            if (days != null) {
+                days.remove(date);
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    int getIndexedDaysCount() {
+        return doctorsSlots.values().stream().mapToInt(Map::size).sum();
+    }
+
+    public boolean isBooked(Long doctorId, LocalDateTime timestamp) {
+        DaySlots daySlots = getDaySlots(doctorId, timestamp.toLocalDate());
+        return daySlots != null && daySlots.isBooked(minuteOfDay(timestamp));
+    }
+
+    /**
+     * Start times of appointments of the doctor booked at given day, in order.
+     */
+    public List<LocalTime> getBookedTimes(Long doctorId, LocalDate date) {
+        DaySlots daySlots = getDaySlots(doctorId, date);
+        if (daySlots == null) {
+            return List.of();
+        }
+        List<LocalTime> bookedTimes = new ArrayList<>();
+        for (int minute = daySlots.nextBooked(0); minute >= 0; minute = daySlots.nextBooked(minute + 1)) {
+            bookedTimes.add(LocalTime.MIN.plusMinutes(minute));
+        }
+        return bookedTimes;
+    }
+
+    /**
+     * Appointment is available when no other appointment of the doctor starts less than
+     * visit duration before or after the requested time. Ranges crossing midnight are checked on both days.
+     */
+    public boolean isAvailable(Long doctorId, LocalDateTime timestamp, int visitDurationInMinutes) {
+        ConcurrentMap<LocalDate, DaySlots> days = doctorsSlots.get(doctorId);
+        if (days == null) {
+            return true;
+        }
+
+        final LocalDateTime requested = timestamp.truncatedTo(ChronoUnit.MINUTES);
+        final LocalDateTime rangeStart = requested.minusMinutes(visitDurationInMinutes - 1L);
+        final LocalDateTime rangeEnd = requested.plusMinutes(visitDurationInMinutes - 1L);
+        final LocalDate lastDate = rangeEnd.toLocalDate();
+
+        for (LocalDate date = rangeStart.toLocalDate(); !date.isAfter(lastDate); date = date.plusDays(1)) {
+            DaySlots daySlots = days.get(date);
+            if (daySlots == null) {
+                continue;
+            }
+            int fromMinute = date.equals(rangeStart.toLocalDate()) ? minuteOfDay(rangeStart) : 0;
+            int toMinute = date.equals(lastDate) ? minuteOfDay(rangeEnd) : MINUTES_PER_DAY - 1;
+            if (daySlots.anyBooked(fromMinute, toMinute)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void book(ConcurrentMap<Long, ConcurrentMap<LocalDate, DaySlots>> slots, Long doctorId,
+                             LocalDateTime timestamp) {
+        slots.computeIfAbsent(doctorId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(timestamp.toLocalDate(), date -> new DaySlots())
+                .book(minuteOfDay(timestamp));
+    }
+
+    private DaySlots getDaySlots(Long doctorId, LocalDate date) {
+        ConcurrentMap<LocalDate, DaySlots> days = doctorsSlots.get(doctorId);
+        return days == null ? null : days.get(date);
+    }
+
+    private static int minuteOfDay(LocalDateTime timestamp) {
+        return timestamp.getHour() * 60 + timestamp.getMinute();
+    }
+}
@@ -0,0 +1,103 @@
+package com.simonjoz.vetclinic.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simonjoz.vetclinic.domain.ExportFormat;
+import com.simonjoz.vetclinic.dto.AppointmentExportDTO;
+import com.simonjoz.vetclinic.repository.AppointmentsRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Appointments are read with forward only cursor and written to the output row by row, so memory use does not
+ * depend on number of exported appointments.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AppointmentsExportService {
+
+    // Rows written between flushes of the output and clears of persistence context.
+    static final int FLUSH_INTERVAL = 1000;
+
+    static final String CSV_HEADER = "id,scheduledDate,scheduledTime,doctorId,doctorName,doctorSurname," +
+            "customerId,customerName,customerSurname,visitPrice,note";
+
+    private final AppointmentsRepo appointmentsRepo;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public static void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Date 'from' must not be after date 'to'.");
+        }
+    }
+
+    /**
+     * Writes appointments scheduled from first to last date inclusive, ordered by date and time.
+     * NOTE: Output stream is flushed, but not closed.
+     *
+     * @return number of exported appointments
+     */
+    @Transactional
+    public long export(LocalDate from, LocalDate to, ExportFormat format, OutputStream outputStream) throws IOException {
+        checkRange(from, to);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long rows = 0;
+        try (Stream<AppointmentExportDTO> appointments = appointmentsRepo.streamAppointmentsBetween(
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            Iterator<AppointmentExportDTO> iterator = appointments.iterator();
+            while (iterator.hasNext()) {
+                writer.write(format == ExportFormat.CSV ? toCsv(iterator.next()) : toJson(iterator.next()));
+                writer.write('\n');
+                if (++rows % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+        log.debug("Exported {} appointments from {} to {} as {}.", rows, from, to, format);
+        return rows;
+    }
+
+    private String toJson(AppointmentExportDTO appointment) throws IOException {
+        return objectMapper.writeValueAsString(appointment);
+    }
+
+    private static String toCsv(AppointmentExportDTO appointment) {
+        return Stream.of(appointment.getId(), appointment.getScheduledDate(), appointment.getScheduledTime(),
+                        appointment.getDoctorId(), appointment.getDoctorName(), appointment.getDoctorSurname(),
+                        appointment.getCustomerId(), appointment.getCustomerName(), appointment.getCustomerSurname(),
+                        appointment.getVisitPrice(), appointment.getNote())
+                .map(AppointmentsExportService::escapeCsv)
+                .collect(Collectors.joining(","));
+    }
+
+    private static String escapeCsv(Object value) {
+        String text = Objects.toString(value, "");
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
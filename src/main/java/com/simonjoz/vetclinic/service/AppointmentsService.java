@@ -1,38 +1,80 @@
 package com.simonjoz.vetclinic.service;
 
+import com.simonjoz.vetclinic.cache.CustomerAppointmentsCache;
+import com.simonjoz.vetclinic.cache.DoctorAppointmentsPageIndex;
+import com.simonjoz.vetclinic.cache.DoctorDaySchedules;
+import com.simonjoz.vetclinic.cache.DoctorWeekSchedules;
 import com.simonjoz.vetclinic.domain.Appointment;
 import com.simonjoz.vetclinic.domain.AppointmentRequest;
+import com.simonjoz.vetclinic.domain.AppointmentsCursor;
+import com.simonjoz.vetclinic.domain.Customer;
+import com.simonjoz.vetclinic.dto.AppointmentBatchResultDTO;
 import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.dto.BookedSlotDTO;
+import com.simonjoz.vetclinic.dto.CancellationResultDTO;
+import com.simonjoz.vetclinic.dto.CursorPageDTO;
+import com.simonjoz.vetclinic.dto.CustomerDTO;
+import com.simonjoz.vetclinic.dto.DayScheduleDTO;
+import com.simonjoz.vetclinic.dto.DoctorTimingDetailsDTO;
 import com.simonjoz.vetclinic.dto.PageDTO;
+import com.simonjoz.vetclinic.dto.SliceDTO;
 import com.simonjoz.vetclinic.dto.TimingDetailsDTO;
 import com.simonjoz.vetclinic.exceptions.RemovalFailureException;
+import com.simonjoz.vetclinic.exceptions.ResourceNotFoundException;
 import com.simonjoz.vetclinic.exceptions.UnavailableDateException;
-import com.simonjoz.vetclinic.mappers.CustomerAppointmentMapper;
+import com.simonjoz.vetclinic.jfr.AvailabilityCheckEvent;
 import com.simonjoz.vetclinic.mappers.PagesMapper;
+import com.simonjoz.vetclinic.mappers.SlicesMapper;
 import com.simonjoz.vetclinic.repository.AppointmentsRepo;
+import com.simonjoz.vetclinic.repository.CustomersRepo;
+import com.simonjoz.vetclinic.repository.DoctorsRepo;
+import com.simonjoz.vetclinic.utils.PageReqUtils;
+import com.simonjoz.vetclinic.utils.RequestTimings;
+import com.simonjoz.vetclinic.utils.TransactionUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.util.Lazy;
 import org.springframework.stereotype.Service;
 
+import javax.transaction.Transactional;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AppointmentsService {
 
+    public static final int MAX_SCHEDULE_DAYS = 42;
+
     private final AppointmentsRepo appointmentsRepo;
     private final VisitDetailsService visitDetailsService;
-    private final CustomerAppointmentMapper customerAppointmentsMapper;
     private final PagesMapper<AppointmentDTO> pageMapper;
+    private final SlicesMapper<AppointmentDTO> sliceMapper;
+    private final AppointmentSlotsIndex slotsIndex;
+    private final CustomersRepo customersRepo;
+    private final DoctorsRepo doctorsRepo;
+    private final DoctorAppointmentsPageIndex pageIndex;
+    private final DoctorDaySchedules daySchedules;
+    private final DoctorWeekSchedules weekSchedules;
+    private final CustomerAppointmentsCache customerAppointmentsCache;
 
+    /**
+     * Page is sliced from cached day schedule, unless it is sorted by property which is not supported there.
+     */
     public PageDTO<AppointmentDTO> getAppointmentsPageByDoctorIdForDate(PageRequest pageRequest, Long doctorId, LocalDate date) {
-        Page<AppointmentDTO> appointmentsPage = appointmentsRepo.getDoctorAppointmentsPage(doctorId, date, pageRequest);
+        Page<AppointmentDTO> appointmentsPage = daySchedules.isSortable(pageRequest.getSort())
+                ? daySchedules.getPage(doctorId, date, pageRequest)
+                : appointmentsRepo.getDoctorAppointmentsPage(doctorId, date, pageRequest);
         return pageMapper.map(appointmentsPage);
     }
 
@@ -41,48 +83,314 @@ public class AppointmentsService {
         return pageMapper.map(appointmentsPage);
     }
 
-    @CacheEvict(value = "doctorAppointmentsPage", allEntries = true)
-    public AppointmentDTO addAppointment(Appointment appointment) {
-        Appointment savedAppointment = appointmentsRepo.save(appointment);
-        return customerAppointmentsMapper.map(savedAppointment);
+    /**
+     * Slice of a day is taken from cached day schedule, the same as page.
+     */
+    public SliceDTO<AppointmentDTO> getAppointmentsSliceByDoctorIdForDate(PageRequest pageRequest, Long doctorId, LocalDate date) {
+        Slice<AppointmentDTO> appointmentsSlice = daySchedules.isSortable(pageRequest.getSort())
+                ? daySchedules.getPage(doctorId, date, pageRequest)
+                : appointmentsRepo.getDoctorAppointmentsSlice(doctorId, date, pageRequest);
+        return sliceMapper.map(appointmentsSlice);
     }
 
-    public void checkDateAvailabilityForDoctor(AppointmentRequest appointmentReq) {
-        TimingDetailsDTO timingDetails = visitDetailsService.getTimingDetails(appointmentReq.getDoctorId());
-        final int appointmentDuration = timingDetails.getVisitDurationInMinutes();
-        final LocalTime reqTime = appointmentReq.getTime();
+    public SliceDTO<AppointmentDTO> getAppointmentsSliceByDoctorId(PageRequest pageRequest, Long doctorId) {
+        Slice<AppointmentDTO> appointmentsSlice = appointmentsRepo.getDoctorAppointmentsSlice(doctorId, pageRequest);
+        return sliceMapper.map(appointmentsSlice);
+    }
 
-        checkIsOpen(timingDetails, reqTime);
+    /**
+     * Doctor appointments from first to last date inclusive, grouped by day. Days without appointments are included.
+     */
+    public List<DayScheduleDTO> getScheduleByDoctorId(Long doctorId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Date 'from' must not be after date 'to'.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_SCHEDULE_DAYS) {
+            throw new IllegalArgumentException(
+                    String.format("Schedule may cover up to %d days.", MAX_SCHEDULE_DAYS));
+        }
+        Map<LocalDate, List<AppointmentDTO>> appointmentsByDate = weekSchedules.getAppointments(doctorId, from, to).stream()
+                .collect(Collectors.groupingBy(AppointmentDTO::getScheduledDate));
+        return from.datesUntil(to.plusDays(1))
+                .map(date -> new DayScheduleDTO(date, appointmentsByDate.getOrDefault(date, List.of())))
+                .collect(Collectors.toList());
+    }
 
-        final LocalTime startTime = reqTime.minusMinutes(appointmentDuration);
-        final LocalTime endTime = reqTime.plusMinutes(appointmentDuration);
+    public List<AppointmentDTO> getAppointmentsByCustomerId(Long customerId) {
+        return appointmentsRepo.getCustomerAppointments(customerId);
+    }
 
-        LocalDateTime startTimestamp = LocalDateTime.of(appointmentReq.getDate(), startTime);
-        LocalDateTime endTimestamp = LocalDateTime.of(appointmentReq.getDate(), endTime);
-        LocalDateTime appointmentTimestamp = LocalDateTime.of(appointmentReq.getDate(), reqTime);
+    /**
+     * One row more than requested is fetched to tell whether the page is the last one.
+     * NOTE: Page size is capped the same as for offset pages.
+     */
+    public CursorPageDTO<AppointmentDTO> getAppointmentsCursorPageByDoctorId(Long doctorId, int requestedPageSize,
+                                                                             boolean desc, String cursor) {
+        if (requestedPageSize < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one!");
+        }
+        final int pageSize = Math.min(requestedPageSize, PageReqUtils.MAX_SIZE);
+        final AppointmentsCursor after = cursor == null ? null : AppointmentsCursor.decode(cursor);
+        final boolean descending = after == null ? desc : after.isDescending();
+        final PageRequest limit = PageRequest.of(0, pageSize + 1);
 
-        //  NOTE: In case of midnight ranges e.g(23:50 - 00:50) validation would fail due to checking the same date
-        if (endTime.getHour() == 0) {
-            endTimestamp = LocalDateTime.of(appointmentReq.getDate().plusDays(1), endTime);
+        List<AppointmentDTO> appointments;
+        if (after == null) {
+            appointments = descending
+                    ? appointmentsRepo.getDoctorAppointmentsLast(doctorId, limit)
+                    : appointmentsRepo.getDoctorAppointmentsFirst(doctorId, limit);
+        } else {
+            appointments = descending
+                    ? appointmentsRepo.getDoctorAppointmentsBefore(doctorId, after.getTimestamp(), after.getId(), limit)
+                    : appointmentsRepo.getDoctorAppointmentsAfter(doctorId, after.getTimestamp(), after.getId(), limit);
         }
 
-        boolean isAvailable = appointmentsRepo.isDateAndTimeAvailableForDoctorWithId(appointmentReq.getDoctorId(),
-                startTimestamp, endTimestamp, appointmentTimestamp);
+        if (appointments.size() <= pageSize) {
+            return new CursorPageDTO<>(appointments, null, true);
+        }
+        List<AppointmentDTO> content = appointments.subList(0, pageSize);
+        String nextCursor = AppointmentsCursor.after(content.get(pageSize - 1), descending).encode();
+        return new CursorPageDTO<>(content, nextCursor, false);
+    }
 
-        String formattedTimestamp = appointmentTimestamp.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
-        throwExceptionIfDateNotAvailability(isAvailable, formattedTimestamp);
+    /**
+     * Books appointment with single conditional insert. Customer and doctor are not loaded, response is built
+     * from request and cached doctor details. Empty result means that customer was not found, pin did not match
+     * or the date has been taken in the meantime.
+     * NOTE: Slots index is kept per application node and may be stale, so the insert is tried even if the index
+     * reports the date as taken. Only the conditional insert decides.
+     * Booking lock of the doctor must be held by the caller, the insert alone does not prevent concurrent overlaps.
+     */
+    public Optional<AppointmentDTO> tryAddAppointment(AppointmentRequest appointmentReq, Long customerId) {
+        long phaseStart = RequestTimings.start();
+        DoctorTimingDetailsDTO doctor = visitDetailsService.getDoctorTimingDetails(appointmentReq.getDoctorId());
+        phaseStart = RequestTimings.record("timing", phaseStart);
+        final int appointmentDuration = doctor.getVisitDurationInMinutes();
+        LocalDateTime appointmentTimestamp = LocalDateTime.of(appointmentReq.getDate(), appointmentReq.getTime());
+        checkDateAvailability(appointmentReq, doctor.getTimingDetails());
+        phaseStart = RequestTimings.record("availability", phaseStart);
+
+        Optional<Long> appointmentId;
+        try {
+            // Customer lookup and pin check are conditions of the insert.
+            appointmentId = appointmentsRepo.insertIfAvailable(customerId, appointmentReq.getCustomerPin(),
+                    appointmentReq.getDoctorId(), appointmentReq.getNote(), appointmentTimestamp, appointmentDuration);
+        } catch (DataIntegrityViolationException ex) {
+            // Doctor is already booked at exactly the same time (doctor_id, timestamp unique constraint).
+            throw getDateTakenException(appointmentTimestamp);
+        }
+        appointmentId.ifPresent(id -> {
+            slotsIndex.book(appointmentReq.getDoctorId(), appointmentTimestamp);
+            pageIndex.evict(appointmentReq.getDoctorId(), appointmentReq.getDate());
+            weekSchedules.evict(appointmentReq.getDoctorId(), List.of(appointmentReq.getDate()));
+            daySchedules.add(appointmentReq.getDoctorId(), appointmentReq.getDate(),
+                    () -> appointmentsRepo.getDoctorAppointment(id));
+        });
+        phaseStart = RequestTimings.record("insert", phaseStart);
+        Optional<AppointmentDTO> appointment = appointmentId.map(id -> new AppointmentDTO(id, appointmentReq.getNote(),
+                appointmentReq.getDate(), appointmentReq.getTime(), doctor.getName(), doctor.getSurname()));
+        RequestTimings.record("mapping", phaseStart);
+        return appointment;
+    }
+
+    /**
+     * All requests are validated against opening hours and appointments accepted earlier in the batch,
+     * slots index is not consulted as it may be stale. Accepted appointments are inserted in single transaction with one JDBC batch of conditional
+     * inserts, so appointments overlapping with the already booked ones are reported as conflicts.
+     * NOTE: Booking locks of all requested doctors must be held by the caller.
+     */
+    @Transactional
+    public List<AppointmentBatchResultDTO> addAppointments(List<AppointmentRequest> appointmentReqs, Long customerId) {
+        final LocalDateTime now = LocalDateTime.now();
+        final Customer customer = customersRepo.getOne(customerId);
+        final Map<Long, DoctorTimingDetailsDTO> doctors = new HashMap<>();
+        final Map<Long, List<LocalDateTime>> acceptedTimestamps = new HashMap<>();
+        // Customer is referenced only, name shown in doctor's schedule is fetched once, if any booked day is cached.
+        final Lazy<Optional<CustomerDTO>> customerDetails = Lazy.of(() -> customersRepo.getCustomerById(customerId));
+
+        AppointmentBatchResultDTO[] results = new AppointmentBatchResultDTO[appointmentReqs.size()];
+        Map<Integer, Appointment> accepted = new LinkedHashMap<>();
+        Map<Integer, DoctorTimingDetailsDTO> acceptedDoctors = new HashMap<>();
+
+        for (int i = 0; i < appointmentReqs.size(); i++) {
+            AppointmentRequest appointmentReq = appointmentReqs.get(i);
+            LocalDateTime appointmentTimestamp = LocalDateTime.of(appointmentReq.getDate(), appointmentReq.getTime());
+            if (appointmentTimestamp.isBefore(now)) {
+                results[i] = getRejectedResult(i, String.format(
+                        "Appointment time must not be in past. Request time: '%s'.", appointmentReq.getTime()));
+                continue;
+            }
+
+            DoctorTimingDetailsDTO doctor;
+            try {
+                doctor = doctors.computeIfAbsent(appointmentReq.getDoctorId(), visitDetailsService::getDoctorTimingDetails);
+                checkIsOpen(doctor.getTimingDetails(), appointmentReq.getTime());
+            } catch (ResourceNotFoundException | UnavailableDateException ex) {
+                results[i] = getRejectedResult(i, ex.getMessage());
+                continue;
+            }
+
+            final int appointmentDuration = doctor.getVisitDurationInMinutes();
+            List<LocalDateTime> doctorTimestamps =
+                    acceptedTimestamps.computeIfAbsent(doctor.getDoctorId(), id -> new ArrayList<>());
+            // Slots index may be stale, dates booked before the batch are checked by the conditional inserts.
+            boolean isAvailable = doctorTimestamps.stream().noneMatch(timestamp ->
+                    Math.abs(Duration.between(timestamp, appointmentTimestamp).toMinutes()) < appointmentDuration);
+            if (!isAvailable) {
+                results[i] = new AppointmentBatchResultDTO(i, AppointmentBatchResultDTO.Status.CONFLICT, null,
+                        getDateTakenException(appointmentTimestamp).getMessage());
+                continue;
+            }
+
+            doctorTimestamps.add(appointmentTimestamp);
+            acceptedDoctors.put(i, doctor);
+            accepted.put(i, Appointment.builder()
+                    .customer(customer)
+                    .doctor(doctorsRepo.getOne(doctor.getDoctorId()))
+                    .note(appointmentReq.getNote())
+                    .scheduledDate(appointmentReq.getDate())
+                    .scheduledTime(appointmentReq.getTime())
+                    .timestamp(appointmentTimestamp)
+                    .build());
+        }
+
+        List<Integer> indexes = new ArrayList<>(accepted.keySet());
+        boolean[] inserted = insertAllIfAvailable(new ArrayList<>(accepted.values()), doctors);
+        Map<Long, Set<LocalDate>> bookedDates = new HashMap<>();
+        List<Appointment> booked = new ArrayList<>();
+        for (int j = 0; j < indexes.size(); j++) {
+            int i = indexes.get(j);
+            Appointment appointment = accepted.get(i);
+            DoctorTimingDetailsDTO doctor = acceptedDoctors.get(i);
+            if (!inserted[j]) {
+                // Overlapping appointment has been booked before the batch.
+                results[i] = new AppointmentBatchResultDTO(i, AppointmentBatchResultDTO.Status.CONFLICT, null,
+                        getDateTakenException(appointment.getTimestamp()).getMessage());
+                continue;
+            }
+            booked.add(appointment);
+            bookedDates.computeIfAbsent(doctor.getDoctorId(), id -> new HashSet<>()).add(appointment.getScheduledDate());
+            daySchedules.add(doctor.getDoctorId(), appointment.getScheduledDate(),
+                    () -> customerDetails.get().map(details -> new AppointmentDTO(appointment.getId(),
+                            appointment.getNote(), appointment.getScheduledDate(), appointment.getScheduledTime(),
+                            details.getName(), details.getSurname())));
+            results[i] = new AppointmentBatchResultDTO(i, AppointmentBatchResultDTO.Status.BOOKED,
+                    new AppointmentDTO(appointment.getId(), appointment.getNote(), appointment.getScheduledDate(),
+                            appointment.getScheduledTime(), doctor.getName(), doctor.getSurname()), null);
+        }
+
+        bookedDates.forEach((doctorId, dates) -> {
+            pageIndex.evict(doctorId, dates);
+            weekSchedules.evict(doctorId, dates);
+        });
+        // Slots are marked as booked only once the appointments are committed, nothing to undo on rollback.
+        TransactionUtils.runAfterCommit(() -> booked.forEach(appointment ->
+                slotsIndex.book(appointment.getDoctor().getId(), appointment.getTimestamp())));
+        return Arrays.asList(results);
     }
 
-    @CacheEvict(value = "doctorAppointmentsPage", allEntries = true)
     public void deleteAppointment(Long customerId, LocalDateTime appointmentTimestamp) {
+        List<Long> doctorIds = appointmentsRepo.getDoctorIdsByCustomerIdAndTimestamp(customerId, appointmentTimestamp);
         appointmentsRepo.deleteByCustomerIdAndTimestamp(customerId, appointmentTimestamp);
 
         boolean exist = appointmentsRepo.existsByCustomerIdAndTimestamp(customerId, appointmentTimestamp);
         if (exist) {
             throw new RemovalFailureException("Appointment cancellation has failed !");
         }
+        doctorIds.forEach(doctorId -> {
+            // Slot is released only once the removal is committed, so rolled back one does not leave it free.
+            TransactionUtils.runAfterCommit(() -> slotsIndex.release(doctorId, appointmentTimestamp));
+            pageIndex.evict(doctorId, appointmentTimestamp.toLocalDate());
+            weekSchedules.evict(doctorId, List.of(appointmentTimestamp.toLocalDate()));
+            daySchedules.remove(doctorId, appointmentTimestamp);
+        });
+    }
+
+    /**
+     * Appointments are removed with single statement, removed count is taken from affected rows.
+     */
+    @Transactional
+    public CancellationResultDTO deleteAppointments(Long customerId, Collection<LocalDateTime> appointmentTimestamps) {
+        Set<LocalDateTime> timestamps = new HashSet<>(appointmentTimestamps);
+        List<BookedSlotDTO> bookedSlots = appointmentsRepo.getBookedSlotsByCustomerIdAndTimestampIn(customerId, timestamps);
+        int cancelled = appointmentsRepo.deleteByCustomerIdAndTimestampIn(customerId, timestamps);
+
+        Set<LocalDateTime> found = new HashSet<>();
+        bookedSlots.forEach(slot -> {
+            daySchedules.remove(slot.getDoctorId(), slot.getTimestamp());
+            found.add(slot.getTimestamp());
+        });
+        TransactionUtils.runAfterCommit(() -> bookedSlots.forEach(slot ->
+                slotsIndex.release(slot.getDoctorId(), slot.getTimestamp())));
+        bookedSlots.stream()
+                .collect(Collectors.groupingBy(BookedSlotDTO::getDoctorId,
+                        Collectors.mapping(slot -> slot.getTimestamp().toLocalDate(), Collectors.toSet())))
+                .forEach((doctorId, dates) -> {
+                    pageIndex.evict(doctorId, dates);
+                    weekSchedules.evict(doctorId, dates);
+                });
+        List<LocalDateTime> notFound = timestamps.stream()
+                .filter(timestamp -> !found.contains(timestamp))
+                .sorted()
+                .collect(Collectors.toList());
+        return new CancellationResultDTO(cancelled, notFound);
     }
 
+    /**
+     * NOTE: Booking lock of the doctor must be held by the caller, so no appointment is added to the day meanwhile.
+     */
+    @Transactional
+    public CancellationResultDTO deleteDoctorAppointments(Long doctorId, LocalDate date) {
+        List<Long> customerIds = appointmentsRepo.getCustomerIdsByDoctorIdAndScheduledDate(doctorId, date);
+        int cancelled = appointmentsRepo.deleteByDoctorIdAndScheduledDate(doctorId, date);
+        pageIndex.evict(doctorId, date);
+        weekSchedules.evict(doctorId, List.of(date));
+        TransactionUtils.runAfterCommit(() -> slotsIndex.releaseDay(doctorId, date));
+        daySchedules.clear(doctorId, date);
+        customerAppointmentsCache.evict(customerIds);
+        return new CancellationResultDTO(cancelled, List.of());
+    }
+
+
+    /**
+     * Throws if the time is out of opening hours, otherwise returns answer of slots index.
+     */
+    private boolean checkDateAvailability(AppointmentRequest appointmentReq, TimingDetailsDTO timingDetails) {
+        final int appointmentDuration = timingDetails.getVisitDurationInMinutes();
+        final LocalTime reqTime = appointmentReq.getTime();
+        LocalDateTime appointmentTimestamp = LocalDateTime.of(appointmentReq.getDate(), reqTime);
+        AvailabilityCheckEvent event = new AvailabilityCheckEvent();
+        event.begin();
+
+        try {
+            checkIsOpen(timingDetails, reqTime);
+        } catch (UnavailableDateException ex) {
+            event.commit(appointmentReq.getDoctorId(), appointmentTimestamp, AvailabilityCheckEvent.CLOSED);
+            throw ex;
+        }
+
+        boolean isAvailable = slotsIndex.isAvailable(appointmentReq.getDoctorId(),
+                appointmentTimestamp, appointmentDuration);
+        event.commit(appointmentReq.getDoctorId(), appointmentTimestamp,
+                isAvailable ? AvailabilityCheckEvent.AVAILABLE : AvailabilityCheckEvent.TAKEN);
+        return isAvailable;
+    }
+
+    private boolean[] insertAllIfAvailable(List<Appointment> appointments, Map<Long, DoctorTimingDetailsDTO> doctors) {
+        Map<Long, Integer> visitDurations = doctors.values().stream().collect(Collectors.toMap(
+                DoctorTimingDetailsDTO::getDoctorId, DoctorTimingDetailsDTO::getVisitDurationInMinutes));
+        try {
+            return appointmentsRepo.insertAllIfAvailable(appointments, visitDurations);
+        } catch (DataIntegrityViolationException ex) {
+            // Doctor is already booked at exactly the same time (doctor_id, timestamp unique constraint).
+            throw new UnavailableDateException(
+                    "Some of requested dates have been taken meanwhile. None of the appointments has been scheduled.");
+        }
+    }
+
+    private AppointmentBatchResultDTO getRejectedResult(int index, String message) {
+        return new AppointmentBatchResultDTO(index, AppointmentBatchResultDTO.Status.REJECTED, null, message);
+    }
 
     private void checkIsOpen(TimingDetailsDTO timingDetails, LocalTime reqAppointmentTime) {
         final LocalTime openingAt = timingDetails.getOpeningAt();
@@ -97,11 +405,10 @@ public class AppointmentsService {
         }
     }
 
-    private void throwExceptionIfDateNotAvailability(boolean isAvailable, String appointmentTimestamp) {
-        if (!isAvailable) {
-            String errMsg = String.format("Date '%s' is already taken. Please try schedule appointment at different time.", appointmentTimestamp);
-            throw new UnavailableDateException(errMsg);
-        }
+    UnavailableDateException getDateTakenException(LocalDateTime appointmentTimestamp) {
+        String formattedTimestamp = appointmentTimestamp.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+        String errMsg = String.format("Date '%s' is already taken. Please try schedule appointment at different time.", formattedTimestamp);
+        return new UnavailableDateException(errMsg);
     }
 
 
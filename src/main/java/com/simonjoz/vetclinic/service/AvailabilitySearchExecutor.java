@@ -0,0 +1,65 @@
+package com.simonjoz.vetclinic.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Bounded pool running availability searches in parallel within fixed latency budget.
+ * NOTE: It is not exposed as an Executor bean, so default Spring task executor stays untouched.
+ */
+@Slf4j
+@Component
+public class AvailabilitySearchExecutor {
+
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final long timeoutInMillis;
+
+    public AvailabilitySearchExecutor(
+            @Value("${spring.application.availability-search.parallelism:4}") int parallelism,
+            @Value("${spring.application.availability-search.timeout-ms:500}") long timeoutInMillis) {
+        this.parallelism = parallelism;
+        this.timeoutInMillis = timeoutInMillis;
+        this.executor = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("availability-search-"));
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Runs all tasks and waits for them until latency budget is exceeded.
+     *
+     * @return false if budget has been exceeded and remaining tasks were cancelled
+     */
+    public boolean invokeAll(List<Runnable> tasks) {
+        CompletableFuture<?>[] futures = tasks.stream()
+                .map(task -> CompletableFuture.runAsync(task, executor))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(futures).get(timeoutInMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException ex) {
+            log.debug("Availability search exceeded {} ms budget.", timeoutInMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Availability search has failed.", ex.getCause());
+        }
+        for (CompletableFuture<?> future : futures) {
+            future.cancel(true);
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,192 @@
+package com.simonjoz.vetclinic.service;
+
+import com.simonjoz.vetclinic.dto.DayAvailabilityDTO;
+import com.simonjoz.vetclinic.dto.DoctorTimingDetailsDTO;
+import com.simonjoz.vetclinic.dto.FirstAvailableSlotDTO;
+import com.simonjoz.vetclinic.dto.TimingDetailsDTO;
+import com.simonjoz.vetclinic.exceptions.ResourceNotFoundException;
+import com.simonjoz.vetclinic.exceptions.SearchTimeoutException;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BinaryOperator;
+
+import static com.simonjoz.vetclinic.service.DaySlots.MINUTES_PER_DAY;
+
+@Service
+@RequiredArgsConstructor
+public class AvailabilityService {
+
+    static final int MAX_RANGE_DAYS = 31;
+    static final int SEARCH_HORIZON_DAYS = 30;
+
+    private static final BinaryOperator<Candidate> EARLIER_CANDIDATE = BinaryOperator.minBy(
+            Comparator.comparing(Candidate::getTimestamp).thenComparing(candidate -> candidate.getDoctor().getDoctorId()));
+
+    private static final BinaryOperator<Candidate> BEST_CANDIDATE =
+            (best, candidate) -> best == null ? candidate : EARLIER_CANDIDATE.apply(best, candidate);
+
+    private final VisitDetailsService visitDetailsService;
+    private final AppointmentSlotsIndex slotsIndex;
+    private final AvailabilitySearchExecutor searchExecutor;
+
+    /**
+     * Free slots are laid out from the opening time every visit duration. Appointments may be booked at any time
+     * within opening hours, so time right after each booked appointment is a candidate too, otherwise gap left
+     * by appointment booked off the grid would not be listed. Taken and past slots are skipped.
+     * NOTE: Taken slots come from slots index of this application node, which may be stale.
+     * Listed slot can still be rejected on booking, as it is checked by the database.
+     */
+    public List<DayAvailabilityDTO> getFreeSlots(Long doctorId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        TimingDetailsDTO timingDetails = visitDetailsService.getTimingDetails(doctorId);
+        final int visitDuration = timingDetails.getVisitDurationInMinutes();
+        final List<LocalTime> slotTimes = getSlotTimes(timingDetails);
+        final LocalDateTime now = LocalDateTime.now();
+
+        List<DayAvailabilityDTO> availability = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            List<LocalTime> freeSlots = new ArrayList<>();
+            for (LocalTime slotTime : getCandidateTimes(doctorId, date, timingDetails, slotTimes)) {
+                LocalDateTime slot = LocalDateTime.of(date, slotTime);
+                if (slot.isAfter(now) && slotsIndex.isAvailable(doctorId, slot, visitDuration)) {
+                    freeSlots.add(slotTime);
+                }
+            }
+            availability.add(new DayAvailabilityDTO(date, freeSlots));
+        }
+        return availability;
+    }
+
+    /**
+     * Doctors are split between search executor threads. Each thread walks its doctors day by day and stops
+     * as soon as it cannot beat the best slot found so far. Result found within latency budget is returned,
+     * marked as not complete if the budget has been exceeded.
+     *
+     * @throws SearchTimeoutException if no slot has been found within latency budget
+     */
+    public FirstAvailableSlotDTO findFirstAvailable(LocalDateTime after) {
+        final LocalDateTime now = LocalDateTime.now();
+        final LocalDateTime searchStart = after == null || after.isBefore(now) ? now : after;
+        final LocalDate searchEnd = searchStart.toLocalDate().plusDays(SEARCH_HORIZON_DAYS);
+        final List<DoctorTimingDetailsDTO> doctors = visitDetailsService.getDoctorsTimingDetails();
+        final AtomicReference<Candidate> best = new AtomicReference<>();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+
+        final int parallelism = searchExecutor.getParallelism();
+        List<Runnable> tasks = new ArrayList<>(parallelism);
+        for (int taskNo = 0; taskNo < parallelism; taskNo++) {
+            final int firstDoctor = taskNo;
+            tasks.add(() -> {
+                for (int i = firstDoctor; i < doctors.size() && !cancelled.get(); i += parallelism) {
+                    findFirstAvailable(doctors.get(i), searchStart, searchEnd, best, cancelled);
+                }
+            });
+        }
+        final boolean complete = searchExecutor.invokeAll(tasks);
+        cancelled.set(true);
+
+        Candidate found = best.get();
+        if (found == null && !complete) {
+            throw new SearchTimeoutException("Search of free appointment slot has timed out. Please try again.");
+        }
+        if (found == null) {
+            throw new ResourceNotFoundException(String.format(
+                    "No free appointment slot found within %d days after '%s'.", SEARCH_HORIZON_DAYS, searchStart));
+        }
+        DoctorTimingDetailsDTO doctor = found.getDoctor();
+        return new FirstAvailableSlotDTO(doctor.getDoctorId(), doctor.getTitle(), doctor.getName(),
+                doctor.getSurname(), found.getTimestamp().toLocalDate(), found.getTimestamp().toLocalTime(), complete);
+    }
+
+    private void findFirstAvailable(DoctorTimingDetailsDTO doctor, LocalDateTime searchStart, LocalDate searchEnd,
+                                    AtomicReference<Candidate> best, AtomicBoolean cancelled) {
+        final int visitDuration = doctor.getVisitDurationInMinutes();
+        final List<LocalTime> slotTimes = getSlotTimes(doctor.getTimingDetails());
+
+        for (LocalDate date = searchStart.toLocalDate(); !date.isAfter(searchEnd); date = date.plusDays(1)) {
+            Candidate currentBest = best.get();
+            if (cancelled.get() || currentBest != null && currentBest.getTimestamp().toLocalDate().isBefore(date)) {
+                return;
+            }
+            for (LocalTime slotTime : getCandidateTimes(doctor.getDoctorId(), date, doctor.getTimingDetails(),
+                    slotTimes)) {
+                LocalDateTime slot = LocalDateTime.of(date, slotTime);
+                if (slot.isAfter(searchStart) && slotsIndex.isAvailable(doctor.getDoctorId(), slot, visitDuration)) {
+                    best.accumulateAndGet(new Candidate(doctor, slot), BEST_CANDIDATE);
+                    return;
+                }
+            }
+        }
+    }
+
+    static List<LocalTime> getSlotTimes(TimingDetailsDTO timingDetails) {
+        final int visitDuration = timingDetails.getVisitDurationInMinutes();
+        final int openingMinute = timingDetails.getOpeningAt().toSecondOfDay() / 60;
+        final int closingMinute = getClosingMinute(timingDetails);
+
+        List<LocalTime> slotTimes = new ArrayList<>();
+        for (int minute = openingMinute; minute + visitDuration <= closingMinute; minute += visitDuration) {
+            slotTimes.add(LocalTime.MIN.plusMinutes(minute));
+        }
+        return slotTimes;
+    }
+
+    /**
+     * Grid slot times of the day merged with end times of booked appointments which are off the grid.
+     */
+    private List<LocalTime> getCandidateTimes(Long doctorId, LocalDate date, TimingDetailsDTO timingDetails,
+                                              List<LocalTime> slotTimes) {
+        final int visitDuration = timingDetails.getVisitDurationInMinutes();
+        final int openingMinute = timingDetails.getOpeningAt().toSecondOfDay() / 60;
+        final int closingMinute = getClosingMinute(timingDetails);
+
+        SortedSet<LocalTime> candidateTimes = null;
+        for (LocalTime bookedTime : slotsIndex.getBookedTimes(doctorId, date)) {
+            int minute = bookedTime.toSecondOfDay() / 60 + visitDuration;
+            boolean isOffGrid = (minute - openingMinute) % visitDuration != 0;
+            if (isOffGrid && minute > openingMinute && minute + visitDuration <= closingMinute) {
+                if (candidateTimes == null) {
+                    candidateTimes = new TreeSet<>(slotTimes);
+                }
+                candidateTimes.add(LocalTime.MIN.plusMinutes(minute));
+            }
+        }
+        return candidateTimes == null ? slotTimes : new ArrayList<>(candidateTimes);
+    }
+
+    private static int getClosingMinute(TimingDetailsDTO timingDetails) {
+        //  NOTE: Closing at midnight (00:00) ends the working day.
+        int closingMinute = timingDetails.getClosingAt().toSecondOfDay() / 60;
+        return closingMinute == 0 ? MINUTES_PER_DAY : closingMinute;
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException(
+                    String.format("Range end '%s' must not be before range start '%s'.", to, from));
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException(
+                    String.format("Range must not be longer than %d days.", MAX_RANGE_DAYS));
+        }
+    }
+
+    @Value
+    private static class Candidate {
+        DoctorTimingDetailsDTO doctor;
+        LocalDateTime timestamp;
+    }
+}
@@ -0,0 +1,299 @@
+package com.simonjoz.vetclinic.service;
+
+import com.simonjoz.vetclinic.domain.Customer;
+import com.simonjoz.vetclinic.domain.Doctor;
+import com.simonjoz.vetclinic.domain.VisitDetails;
+import com.simonjoz.vetclinic.dto.ImportReportDTO;
+import com.simonjoz.vetclinic.repository.ImportCheckpointsRepo;
+import com.simonjoz.vetclinic.utils.CsvReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports customers and doctors with their visit details from CSV files. Records are read one by one,
+ * validated in parallel against entities constraints and written in chunks of bounded size.
+ * Checkpoint of every committed chunk is kept, so import of the same file resumes after the last committed chunk.
+ * Page caches of imported kind are evicted after every committed chunk, as rows are written bypassing them.
+ * NOTE: Checkpoint is keyed by content hash of the file, not its name, so other file of the same name is imported
+ * from the start. File is read once more to compute the hash.
+ */
+@Slf4j
+@Service
+public class BulkImportService {
+
+    static final List<String> CUSTOMER_COLUMNS = List.of("name", "surname", "pin");
+    static final List<String> DOCTOR_COLUMNS = List.of("title", "name", "surname");
+    // Optional, doctor is imported without visit details when all of them are empty.
+    static final List<String> VISIT_DETAILS_COLUMNS = List.of("visit_price", "visit_duration_in_minutes",
+            "opening_at", "closing_at");
+
+    private final Validator validator;
+    private final ImportChunkWriter chunkWriter;
+    private final ImportCheckpointsRepo checkpointsRepo;
+    private final VisitDetailsService visitDetailsService;
+    private final CustomersService customersService;
+    private final DoctorsService doctorsService;
+    private final int chunkSize;
+    private final int parallelism;
+
+    public BulkImportService(Validator validator, ImportChunkWriter chunkWriter, ImportCheckpointsRepo checkpointsRepo,
+                             VisitDetailsService visitDetailsService, CustomersService customersService,
+                             DoctorsService doctorsService,
+                             @Value("${spring.application.import.chunk-size:1000}") int chunkSize,
+                             @Value("${spring.application.import.parallelism:4}") int parallelism) {
+        this.validator = validator;
+        this.chunkWriter = chunkWriter;
+        this.checkpointsRepo = checkpointsRepo;
+        this.visitDetailsService = visitDetailsService;
+        this.customersService = customersService;
+        this.doctorsService = doctorsService;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Expects header with name, surname and pin columns.
+     */
+    public ImportReportDTO importCustomers(Path file) throws IOException {
+        return importFile("customers", file, CUSTOMER_COLUMNS, this::toCustomer, chunkWriter::writeCustomers,
+                customersService::evictPages);
+    }
+
+    /**
+     * Expects header with title, name and surname columns, visit details columns are optional.
+     * Imported doctors are searched for free slots right after import, also if it fails after some chunks.
+     */
+    public ImportReportDTO importDoctors(Path file) throws IOException {
+        try {
+            return importFile("doctors", file, DOCTOR_COLUMNS, this::toDoctor, chunkWriter::writeDoctors,
+                    doctorsService::evictPages);
+        } finally {
+            visitDetailsService.evictDoctorsTimingDetails();
+        }
+    }
+
+    private <T> ImportReportDTO importFile(String kind, Path file, List<String> requiredColumns,
+                                           Function<CsvRow, T> mapper, ChunkWriter<T> writer,
+                                           Runnable evictPages) throws IOException {
+        final String source = kind + ":" + file.getFileName();
+        final String checkpoint = kind + ":" + getContentHash(file);
+        final long skipped = checkpointsRepo.getCommittedRows(checkpoint);
+        final long start = System.nanoTime();
+        long read = 0;
+        long imported = 0;
+        long rejected = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                new CustomizableThreadFactory("import-validation-"));
+        try (CsvReader csvReader = new CsvReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = readHeader(csvReader, requiredColumns, source);
+            List<CsvRow> chunk = new ArrayList<>(chunkSize);
+            while (true) {
+                long lineNumber = csvReader.getLineNumber();
+                List<String> values = csvReader.readRecord();
+                boolean endOfFile = values == null;
+                if (!endOfFile && !isBlank(values) && ++read > skipped) {
+                    chunk.add(new CsvRow(lineNumber, values, columns));
+                }
+                if (chunk.size() == chunkSize || (endOfFile && !chunk.isEmpty())) {
+                    List<T> valid = validate(chunk, mapper, executor, source);
+                    writer.write(valid, checkpoint, read);
+                    evictPages.run();
+                    imported += valid.size();
+                    rejected += chunk.size() - valid.size();
+                    chunk.clear();
+                    log.debug("Committed {} records of {}, {} rows/sec.", read, source,
+                            getRowsPerSecond(imported, start));
+                }
+                if (endOfFile) {
+                    break;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final long durationInMillis = (System.nanoTime() - start) / 1_000_000;
+        final double rowsPerSecond = getRowsPerSecond(imported, start);
+        log.info("Imported {} rows from {} in {} ms ({} rows/sec), rejected {}, skipped {} already committed.",
+                imported, source, durationInMillis, rowsPerSecond, rejected, skipped);
+        return new ImportReportDTO(source, Math.min(skipped, read), imported, rejected, durationInMillis,
+                rowsPerSecond);
+    }
+
+    /**
+     * Chunk is split into contiguous slices validated by separate threads, order of records is kept.
+     */
+    private <T> List<T> validate(List<CsvRow> chunk, Function<CsvRow, T> mapper, ExecutorService executor,
+                                 String source) {
+        final int sliceSize = (chunk.size() + parallelism - 1) / parallelism;
+        List<CompletableFuture<List<T>>> slices = new ArrayList<>(parallelism);
+        for (int from = 0; from < chunk.size(); from += sliceSize) {
+            List<CsvRow> slice = chunk.subList(from, Math.min(from + sliceSize, chunk.size()));
+            slices.add(CompletableFuture.supplyAsync(() -> slice.stream()
+                    .map(row -> tryMap(row, mapper, source))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList()), executor));
+        }
+        return slices.stream()
+                .map(CompletableFuture::join)
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    private static <T> T tryMap(CsvRow row, Function<CsvRow, T> mapper, String source) {
+        try {
+            return mapper.apply(row);
+        } catch (IllegalArgumentException ex) {
+            log.warn("Rejected record at line {} of {}: {}", row.getLineNumber(), source, ex.getMessage());
+            return null;
+        }
+    }
+
+    private Customer toCustomer(CsvRow row) {
+        Customer customer = new Customer();
+        customer.setName(row.get("name"));
+        customer.setSurname(row.get("surname"));
+        Integer pin = row.get("pin", Integer::valueOf);
+        customer.setPin(pin == null ? 0 : pin);
+        checkConstraints(customer);
+        return customer;
+    }
+
+    private Doctor toDoctor(CsvRow row) {
+        Doctor doctor = Doctor.builder()
+                .title(row.get("title"))
+                .name(row.get("name"))
+                .surname(row.get("surname"))
+                .build();
+        checkConstraints(doctor);
+
+        if (VISIT_DETAILS_COLUMNS.stream().anyMatch(column -> row.get(column) != null)) {
+            Integer visitDuration = row.get("visit_duration_in_minutes", Integer::valueOf);
+            VisitDetails visitDetails = VisitDetails.builder()
+                    .doctor(doctor)
+                    .visitPrice(row.get("visit_price", BigDecimal::new))
+                    .visitDurationInMinutes(visitDuration == null ? 0 : visitDuration)
+                    .openingAt(row.get("opening_at", LocalTime::parse))
+                    .closingAt(row.get("closing_at", LocalTime::parse))
+                    .build();
+            checkConstraints(visitDetails);
+            doctor.setVisitDetails(visitDetails);
+        }
+        return doctor;
+    }
+
+    private void checkConstraints(Object entity) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(entity);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(" ")));
+        }
+    }
+
+    private static Map<String, Integer> readHeader(CsvReader csvReader, List<String> requiredColumns,
+                                                   String source) throws IOException {
+        List<String> header = csvReader.readRecord();
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; header != null && i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missingColumns = requiredColumns.stream()
+                .filter(column -> !columns.containsKey(column))
+                .collect(Collectors.toList());
+        if (!missingColumns.isEmpty()) {
+            throw new IllegalArgumentException(String.format("Header of %s misses required columns: %s.",
+                    source, missingColumns));
+        }
+        return columns;
+    }
+
+    private static String getContentHash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return String.format("%064x", new BigInteger(1, digest.digest()));
+    }
+
+    private static boolean isBlank(List<String> values) {
+        return values.size() == 1 && values.get(0).isBlank();
+    }
+
+    private static double getRowsPerSecond(long rows, long start) {
+        final long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+        return Math.round(rows * 1e10 / elapsedNanos) / 10.0;
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        void write(List<T> rows, String source, long committedRows);
+    }
+
+    private static class CsvRow {
+        private final long lineNumber;
+        private final List<String> values;
+        private final Map<String, Integer> columns;
+
+        CsvRow(long lineNumber, List<String> values, Map<String, Integer> columns) {
+            this.lineNumber = lineNumber;
+            this.values = values;
+            this.columns = columns;
+        }
+
+        long getLineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         * @return trimmed value or null, if it is empty or missing
+         */
+        String get(String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= values.size() || values.get(index).isBlank()) {
+                return null;
+            }
+            return values.get(index).trim();
+        }
+
+        <V> V get(String column, Function<String, V> parser) {
+            String value = get(column);
+            try {
+                return value == null ? null : parser.apply(value);
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException(String.format("Value '%s' of column '%s' is invalid.",
+                        value, column));
+            }
+        }
+    }
+}
@@ -1,28 +1,41 @@
 package com.simonjoz.vetclinic.service;
 
-import com.simonjoz.vetclinic.domain.Appointment;
+import com.simonjoz.vetclinic.cache.CustomerAppointmentsCache;
+import com.simonjoz.vetclinic.cache.PageRequestKeyGenerator;
+import com.simonjoz.vetclinic.domain.AppointmentBatchRequest;
 import com.simonjoz.vetclinic.domain.AppointmentRequest;
+import com.simonjoz.vetclinic.domain.AppointmentsCancelRequest;
 import com.simonjoz.vetclinic.domain.Customer;
-import com.simonjoz.vetclinic.domain.Doctor;
+import com.simonjoz.vetclinic.dto.AppointmentBatchResultDTO;
 import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.dto.CancellationResultDTO;
 import com.simonjoz.vetclinic.dto.CustomerDTO;
 import com.simonjoz.vetclinic.dto.PageDTO;
+import com.simonjoz.vetclinic.dto.SliceDTO;
 import com.simonjoz.vetclinic.exceptions.InvalidPinException;
 import com.simonjoz.vetclinic.exceptions.ResourceNotFoundException;
 import com.simonjoz.vetclinic.exceptions.UnavailableDateException;
+import com.simonjoz.vetclinic.jfr.BookingEvent;
 import com.simonjoz.vetclinic.mappers.PagesMapper;
+import com.simonjoz.vetclinic.mappers.SlicesMapper;
 import com.simonjoz.vetclinic.repository.CustomersRepo;
+import com.simonjoz.vetclinic.utils.RequestTimings;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -30,8 +43,9 @@ public class CustomersService {
 
     private final CustomersRepo customersRepo;
     private final PagesMapper<CustomerDTO> pagesMapper;
+    private final SlicesMapper<CustomerDTO> slicesMapper;
     private final AppointmentsService appointmentsService;
-    private final DoctorsService doctorsService;
+    private final DoctorBookingLocks bookingLocks;
 
     @Cacheable("customer")
     public Customer getCustomer(Long customerId) {
@@ -39,34 +53,74 @@ public class CustomersService {
                 .orElseThrow(getNotFoundExceptionSupplier(customerId));
     }
 
-    @Cacheable("customersPage")
+    @Cacheable(value = "customersPage", keyGenerator = PageRequestKeyGenerator.NAME)
     public PageDTO<CustomerDTO> getPage(PageRequest pageRequest) {
         Page<CustomerDTO> doctorsPage = customersRepo.getCustomersPage(pageRequest);
         return pagesMapper.map(doctorsPage);
     }
 
-    public AppointmentDTO makeAppointment(AppointmentRequest appointmentReq, Long customerId) {
-        validateIsAppointmentTimeInPast(appointmentReq.getDate(), appointmentReq.getTime());
-
-        Customer customer = getCustomer(customerId);
-        validateCustomerPin(customer.getPin(), appointmentReq.getCustomerPin());
+    @Cacheable(value = "customersSlice", keyGenerator = PageRequestKeyGenerator.NAME)
+    public SliceDTO<CustomerDTO> getSlice(PageRequest pageRequest) {
+        Slice<CustomerDTO> customersSlice = customersRepo.getCustomersSlice(pageRequest);
+        return slicesMapper.map(customersSlice);
+    }
 
-        appointmentsService.checkDateAvailabilityForDoctor(appointmentReq);
-        Doctor doctor = doctorsService.getDoctor(appointmentReq.getDoctorId());
+    /**
+     * Must be called when customers are added bypassing this service, e.g. by import.
+     */
+    @CacheEvict(value = {"customersPage", "customersSlice"}, allEntries = true)
+    public void evictPages() {
+    }
 
-        Appointment appointment = Appointment.builder()
-                .customer(customer)
-                .doctor(doctor)
-                .note(appointmentReq.getNote())
-                .scheduledDate(appointmentReq.getDate())
-                .scheduledTime(appointmentReq.getTime())
-                .timestamp(LocalDateTime.of(appointmentReq.getDate(), appointmentReq.getTime()))
-                .build();
+    /**
+     * Entry is evicted by booking and cancellation methods of the customer.
+     */
+    @Cacheable(value = CustomerAppointmentsCache.CACHE_NAME, key = "#customerId")
+    public List<AppointmentDTO> getAppointments(Long customerId) {
+        if (!customersRepo.existsById(customerId)) {
+            throw getNotFoundExceptionSupplier(customerId).get();
+        }
+        return appointmentsService.getAppointmentsByCustomerId(customerId);
+    }
 
-        return appointmentsService.addAppointment(appointment);
+    @CacheEvict(value = CustomerAppointmentsCache.CACHE_NAME, key = "#customerId")
+    public AppointmentDTO makeAppointment(AppointmentRequest appointmentReq, Long customerId) {
+        BookingEvent event = new BookingEvent();
+        event.begin();
+        String result = BookingEvent.BOOKED;
+        try {
+            validateIsAppointmentTimeInPast(appointmentReq.getDate(), appointmentReq.getTime());
+
+            // Check and insert must not interleave with other booking of the same doctor.
+            final long lockStart = System.nanoTime();
+            return bookingLocks.callWithLock(appointmentReq.getDoctorId(), () -> {
+                event.setLockWait(System.nanoTime() - lockStart);
+                return appointmentsService.tryAddAppointment(appointmentReq, customerId)
+                        .orElseThrow(() -> getBookingFailureException(appointmentReq, customerId));
+            });
+        } catch (RuntimeException ex) {
+            result = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            event.commit(customerId, appointmentReq.getDoctorId(), appointmentReq.getDate(), appointmentReq.getTime(),
+                    result);
+        }
     }
 
+    @CacheEvict(value = CustomerAppointmentsCache.CACHE_NAME, key = "#customerId")
+    public List<AppointmentBatchResultDTO> makeAppointments(AppointmentBatchRequest batchReq, Long customerId) {
+        List<AppointmentRequest> appointmentReqs = batchReq.getAppointments();
+        int customerValidPin = getCustomerPinById(customerId);
+        appointmentReqs.forEach(appointmentReq -> validateCustomerPin(customerValidPin, appointmentReq.getCustomerPin()));
 
+        Set<Long> doctorIds = appointmentReqs.stream()
+                .map(AppointmentRequest::getDoctorId)
+                .collect(Collectors.toSet());
+        return bookingLocks.callWithLocks(doctorIds,
+                () -> appointmentsService.addAppointments(appointmentReqs, customerId));
+    }
+
+    @CacheEvict(value = CustomerAppointmentsCache.CACHE_NAME, key = "#customerId")
     public void cancelAppointment(AppointmentRequest appointmentReq, Long customerId) {
         int customerValidPin = getCustomerPinById(customerId);
         validateCustomerPin(customerValidPin, appointmentReq.getCustomerPin());
@@ -74,15 +128,38 @@ public class CustomersService {
         appointmentsService.deleteAppointment(customerId, appointmentTimestamp);
     }
 
+    @CacheEvict(value = CustomerAppointmentsCache.CACHE_NAME, key = "#customerId")
+    public CancellationResultDTO cancelAppointments(AppointmentsCancelRequest cancelReq, Long customerId) {
+        int customerValidPin = getCustomerPinById(customerId);
+        validateCustomerPin(customerValidPin, cancelReq.getCustomerPin());
+        return appointmentsService.deleteAppointments(customerId, cancelReq.getTimestamps());
+    }
+
     private void validateCustomerPin(int validPin, int pin) {
         if (validPin != pin) {
             throw new InvalidPinException(String.format("Given pin '%d' is invalid", pin));
         }
     }
 
+    /**
+     * Conditional insert does not tell why nothing has been inserted, so customer and pin are verified afterwards.
+     * If both are valid, the date has been taken.
+     */
+    private RuntimeException getBookingFailureException(AppointmentRequest appointmentReq, Long customerId) {
+        int customerValidPin = getCustomerPinById(customerId);
+        final long phaseStart = RequestTimings.start();
+        validateCustomerPin(customerValidPin, appointmentReq.getCustomerPin());
+        RequestTimings.record("pin", phaseStart);
+        LocalDateTime appointmentTimestamp = LocalDateTime.of(appointmentReq.getDate(), appointmentReq.getTime());
+        return appointmentsService.getDateTakenException(appointmentTimestamp);
+    }
+
     private int getCustomerPinById(Long customerId) {
-        return customersRepo.getCustomerPinById(customerId)
+        final long phaseStart = RequestTimings.start();
+        int customerPin = customersRepo.getCustomerPinById(customerId)
                 .orElseThrow(getNotFoundExceptionSupplier(customerId));
+        RequestTimings.record("customer", phaseStart);
+        return customerPin;
     }
 
     private void validateIsAppointmentTimeInPast(LocalDate date, LocalTime time) {
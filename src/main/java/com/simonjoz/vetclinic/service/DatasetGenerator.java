@@ -0,0 +1,227 @@
+package com.simonjoz.vetclinic.service;
+
+import com.simonjoz.vetclinic.domain.DatasetSettings;
+import com.simonjoz.vetclinic.dto.TimingDetailsDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic dataset of production scale. Rows are inserted with explicit ids by JDBC batches,
+ * every batch in its own transaction, so memory use does not depend on dataset size.
+ * All values are drawn from single random generator seeded from settings, so runs are repeatable.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DatasetGenerator {
+
+    // Allocation size of entity sequences.
+    private static final int SEQUENCE_INCREMENT = 50;
+
+    private static final LocalTime[][] SHIFTS = {
+            {LocalTime.of(8, 0), LocalTime.of(16, 0)},
+            {LocalTime.of(9, 0), LocalTime.of(17, 0)},
+            {LocalTime.of(10, 0), LocalTime.of(18, 0)},
+            {LocalTime.of(12, 0), LocalTime.of(20, 0)}};
+    // Repeated values are drawn more often.
+    private static final int[] VISIT_DURATIONS = {15, 20, 30, 30, 30, 45, 60};
+    private static final String[] TITLES = {"Dr", "Dr", "Dr", "Prof"};
+    private static final String[] NAMES = {"Anna", "Maria", "Katarzyna", "Julia", "Zofia", "Olivia", "Emma", "Alice",
+            "Jan", "Piotr", "Tomasz", "Jakub", "Adam", "Noah", "Liam", "James", "Lucas", "Ethan", "Mia", "Sophia"};
+    private static final String[] SURNAMES = {"Nowak", "Kowalski", "Wisniewski", "Wojcik", "Kaminski", "Lewandowski",
+            "Zielinski", "Szymanski", "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis",
+            "Wilson", "Moore", "Taylor", "Anderson", "Thomas", "Jackson", "White", "Harris", "Martin", "Thompson"};
+    private static final String[] NOTES = {"Vaccination", "Check-up", "Follow-up visit", "Dental cleaning",
+            "Skin allergy", "Post-surgery control"};
+
+    private static final String INSERT_DOCTOR = "INSERT INTO doctors (id, title, name, surname) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_VISIT_DETAILS = "INSERT INTO visit_details (doctor_id, visit_price, " +
+            "visit_duration_in_minutes, opening_at, closing_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_CUSTOMER = "INSERT INTO customers (id, pin, name, surname) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_APPOINTMENT = "INSERT INTO appointments (id, note, scheduled_date, " +
+            "scheduled_time, timestamp, customer_id, doctor_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final VisitDetailsService visitDetailsService;
+
+    public boolean isPopulated() {
+        Integer doctors = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM doctors", Integer.class);
+        return doctors != null && doctors > 0;
+    }
+
+    /**
+     * Expects empty tables, generated ids start from one.
+     *
+     * @return number of generated appointments
+     */
+    public long generate(DatasetSettings settings) {
+        checkSettings(settings);
+        final SplittableRandom random = new SplittableRandom(settings.getSeed());
+        final long start = System.nanoTime();
+
+        List<TimingDetailsDTO> doctorsTimings = generateDoctors(settings, random);
+        visitDetailsService.evictDoctorsTimingDetails();
+        generateCustomers(settings, random);
+        final long appointments = generateAppointments(settings, doctorsTimings, random);
+
+        restartSequence("doctors_seq", settings.getDoctors());
+        restartSequence("customers_seq", settings.getCustomers());
+        restartSequence("appointments_seq", appointments);
+
+        final long durationInMillis = Math.max((System.nanoTime() - start) / 1_000_000, 1);
+        final long rows = settings.getDoctors() * 2L + settings.getCustomers() + appointments;
+        log.info("Generated {} doctors, {} customers and {} appointments from seed {} in {} ms ({} rows/sec).",
+                settings.getDoctors(), settings.getCustomers(), appointments, settings.getSeed(), durationInMillis,
+                rows * 1000 / durationInMillis);
+        return appointments;
+    }
+
+    /**
+     * @return timing details of each doctor, indexed by id - 1
+     */
+    private List<TimingDetailsDTO> generateDoctors(DatasetSettings settings, SplittableRandom random) {
+        List<TimingDetailsDTO> doctorsTimings = new ArrayList<>(settings.getDoctors());
+        BatchInserter doctors = new BatchInserter(INSERT_DOCTOR, settings.getBatchSize());
+        BatchInserter visitDetails = new BatchInserter(INSERT_VISIT_DETAILS, settings.getBatchSize());
+        for (long id = 1; id <= settings.getDoctors(); id++) {
+            LocalTime[] shift = pick(SHIFTS, random);
+            int visitDuration = VISIT_DURATIONS[random.nextInt(VISIT_DURATIONS.length)];
+            BigDecimal visitPrice = BigDecimal.valueOf(80 + 10L * random.nextInt(23));
+            doctors.add(id, pick(TITLES, random), pick(NAMES, random), pick(SURNAMES, random));
+            visitDetails.add(id, visitPrice, visitDuration, Time.valueOf(shift[0]), Time.valueOf(shift[1]));
+            doctorsTimings.add(new TimingDetailsDTO(visitDuration, shift[0], shift[1]));
+        }
+        // Doctors must be committed before their visit details.
+        doctors.flush();
+        visitDetails.flush();
+        return doctorsTimings;
+    }
+
+    private void generateCustomers(DatasetSettings settings, SplittableRandom random) {
+        BatchInserter customers = new BatchInserter(INSERT_CUSTOMER, settings.getBatchSize());
+        for (long id = 1; id <= settings.getCustomers(); id++) {
+            customers.add(id, 1000 + random.nextInt(9000), pick(NAMES, random), pick(SURNAMES, random));
+        }
+        customers.flush();
+    }
+
+    /**
+     * Appointments of each doctor fill the grid of visit slots within opening hours, so they never overlap.
+     * Doctor's slots are booked with occupancy probability, day by day back from the last date, Sundays are skipped.
+     * Customers are skewed towards lower ids, so there are few regular and many occasional customers.
+     */
+    private long generateAppointments(DatasetSettings settings, List<TimingDetailsDTO> doctorsTimings,
+                                      SplittableRandom random) {
+        BatchInserter appointments = new BatchInserter(INSERT_APPOINTMENT, settings.getBatchSize());
+        final long perDoctor = settings.getAppointments() / settings.getDoctors();
+        final long remainder = settings.getAppointments() % settings.getDoctors();
+        long id = 0;
+        for (int doctorNo = 0; doctorNo < settings.getDoctors(); doctorNo++) {
+            final long doctorId = doctorNo + 1L;
+            final TimingDetailsDTO timings = doctorsTimings.get(doctorNo);
+            final int visitDuration = timings.getVisitDurationInMinutes();
+            final long quota = perDoctor + (doctorNo < remainder ? 1 : 0);
+            long booked = 0;
+            for (LocalDate date = settings.getLastDate(); booked < quota; date = date.minusDays(1)) {
+                if (date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                    continue;
+                }
+                for (LocalTime time = timings.getOpeningAt();
+                     !time.plusMinutes(visitDuration).isAfter(timings.getClosingAt()) && booked < quota;
+                     time = time.plusMinutes(visitDuration)) {
+                    if (random.nextDouble() >= settings.getOccupancy()) {
+                        continue;
+                    }
+                    double skew = random.nextDouble();
+                    long customerId = 1 + (long) (settings.getCustomers() * skew * skew);
+                    String note = random.nextInt(5) == 0 ? pick(NOTES, random) : null;
+                    appointments.add(++id, note, Date.valueOf(date), Time.valueOf(time),
+                            Timestamp.valueOf(LocalDateTime.of(date, time)), customerId, doctorId);
+                    booked++;
+                }
+            }
+        }
+        appointments.flush();
+        return id;
+    }
+
+    private static void checkSettings(DatasetSettings settings) {
+        if (settings.getDoctors() < 1 || settings.getCustomers() < 1 || settings.getBatchSize() < 1) {
+            throw new IllegalArgumentException("Number of doctors, customers and batch size must be positive.");
+        }
+        if (settings.getOccupancy() <= 0 || settings.getOccupancy() > 1) {
+            throw new IllegalArgumentException("Occupancy must be greater than 0 and not greater than 1.");
+        }
+    }
+
+    /**
+     * Pooled generators hand out ids from value taken from sequence minus increment,
+     * so the next value must exceed the last generated id by the increment.
+     */
+    private void restartSequence(String sequence, long lastId) {
+        final long nextValue = lastId + SEQUENCE_INCREMENT;
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if ("MySQL".equalsIgnoreCase(product)) {
+            // Sequences are emulated with tables by MySQL dialect.
+            jdbcTemplate.update(String.format("UPDATE %s SET next_val = %d", sequence, nextValue));
+        } else {
+            jdbcTemplate.execute(String.format("ALTER SEQUENCE %s RESTART WITH %d", sequence, nextValue));
+        }
+    }
+
+    private static <T> T pick(T[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private class BatchInserter {
+        private final String sql;
+        private final int batchSize;
+        private final List<Object[]> rows;
+        private long inserted;
+        private final long start = System.nanoTime();
+
+        BatchInserter(String sql, int batchSize) {
+            this.sql = sql;
+            this.batchSize = batchSize;
+            this.rows = new ArrayList<>(batchSize);
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() == batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, rows));
+            inserted += rows.size();
+            rows.clear();
+            if (inserted % (batchSize * 100L) == 0) {
+                log.debug("Inserted {} rows with '{}', {} rows/sec.", inserted, sql.substring(0, sql.indexOf('(')),
+                        inserted * 1_000_000_000L / Math.max(System.nanoTime() - start, 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.simonjoz.vetclinic.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bitmap of appointment start minutes within a single day (bit n = minute n after midnight).
+ * Reads and writes are lock free, range checks touch at most 23 words.
+ */
+class DaySlots {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final int WORDS = (MINUTES_PER_DAY + Long.SIZE - 1) / Long.SIZE;
+
+    private final AtomicLongArray words = new AtomicLongArray(WORDS);
+
+    void book(int minute) {
+        words.getAndAccumulate(minute >>> 6, 1L << minute, (value, bit) -> value | bit);
+    }
+
+    void release(int minute) {
+        words.getAndAccumulate(minute >>> 6, ~(1L << minute), (value, mask) -> value & mask);
+    }
+
+    boolean isBooked(int minute) {
+        return (words.get(minute >>> 6) & (1L << minute)) != 0;
+    }
+
+    /**
+     * @return first booked minute not before the given one, -1 if there is none
+     */
+    int nextBooked(int fromMinute) {
+        for (int word = fromMinute >>> 6; word < WORDS; word++) {
+            long bits = words.get(word);
+            if (word == fromMinute >>> 6) {
+                bits &= -1L << fromMinute;
+            }
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param fromMinute first minute of the range (inclusive)
+     * @param toMinute   last minute of the range (inclusive)
+     */
+    boolean anyBooked(int fromMinute, int toMinute) {
+        final int fromWord = fromMinute >>> 6;
+        final int toWord = toMinute >>> 6;
+        for (int word = fromWord; word <= toWord; word++) {
+            long mask = -1L;
+            if (word == fromWord) {
+                mask &= -1L << fromMinute;
+            }
+            if (word == toWord) {
+                mask &= -1L >>> (63 - (toMinute & 63));
+            }
+            if ((words.get(word) & mask) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
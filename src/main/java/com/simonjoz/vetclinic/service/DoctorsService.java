@@ -1,20 +1,34 @@
 package com.simonjoz.vetclinic.service;
 
+import com.simonjoz.vetclinic.cache.DoctorAppointmentsPageKeyGenerator;
+import com.simonjoz.vetclinic.cache.DoctorDaySchedules;
+import com.simonjoz.vetclinic.cache.PageRequestKeyGenerator;
 import com.simonjoz.vetclinic.domain.Doctor;
+import com.simonjoz.vetclinic.domain.DoctorAppointmentsCancelRequest;
 import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.dto.CancellationResultDTO;
+import com.simonjoz.vetclinic.dto.CursorPageDTO;
+import com.simonjoz.vetclinic.dto.DayScheduleDTO;
 import com.simonjoz.vetclinic.dto.DoctorDTO;
 import com.simonjoz.vetclinic.dto.PageDTO;
+import com.simonjoz.vetclinic.dto.SliceDTO;
+import com.simonjoz.vetclinic.exceptions.InvalidPinException;
 import com.simonjoz.vetclinic.exceptions.ResourceNotFoundException;
 import com.simonjoz.vetclinic.mappers.PagesMapper;
+import com.simonjoz.vetclinic.mappers.SlicesMapper;
 import com.simonjoz.vetclinic.repository.DoctorsRepo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.function.Supplier;
 
 @Service
@@ -22,29 +36,97 @@ import java.util.function.Supplier;
 public class DoctorsService {
 
     private final PagesMapper<DoctorDTO> pagesMapper;
+    private final SlicesMapper<DoctorDTO> slicesMapper;
     private final DoctorsRepo doctorsRepo;
     private final AppointmentsService appointmentsService;
+    private final DoctorBookingLocks bookingLocks;
+    private final DoctorDaySchedules daySchedules;
+
+    // Pin of clinic staff, cancellation of doctor appointments is disabled when not set.
+    @Value("${spring.application.admin-pin:#{null}}")
+    private Integer adminPin;
 
     @Cacheable("doctor")
     public Doctor getDoctor(Long doctorId) {
         return doctorsRepo.findById(doctorId).orElseThrow(getDoctorNotFoundException(doctorId));
     }
 
-    @Cacheable("doctorsPage")
+    @Cacheable(value = "doctorsPage", keyGenerator = PageRequestKeyGenerator.NAME)
     public PageDTO<DoctorDTO> getPage(PageRequest pageRequest) {
         Page<DoctorDTO> doctorsPage = doctorsRepo.getDoctorsPage(pageRequest);
         return pagesMapper.map(doctorsPage);
     }
 
-    @Cacheable("doctorAppointmentsPage")
+    @Cacheable(value = "doctorsSlice", keyGenerator = PageRequestKeyGenerator.NAME)
+    public SliceDTO<DoctorDTO> getSlice(PageRequest pageRequest) {
+        Slice<DoctorDTO> doctorsSlice = doctorsRepo.getDoctorsSlice(pageRequest);
+        return slicesMapper.map(doctorsSlice);
+    }
+
+    /**
+     * Must be called when doctors are added bypassing this service, e.g. by import.
+     */
+    @CacheEvict(value = {"doctorsPage", "doctorsSlice"}, allEntries = true)
+    public void evictPages() {
+    }
+
+    /**
+     * Pages of a day are not cached, they are sliced from cached day schedule. Loaded schedule means that
+     * the doctor exists.
+     */
+    @Cacheable(value = "doctorAppointmentsPage", keyGenerator = DoctorAppointmentsPageKeyGenerator.NAME,
+            condition = "#date == null")
     public PageDTO<AppointmentDTO> getAppointmentsPageById(PageRequest pageRequest, Long doctorId, LocalDate date) {
-        throwExceptionIfNotExist(doctorId);
         if (date == null) {
+            throwExceptionIfNotExist(doctorId);
             return appointmentsService.getAppointmentsPageByDoctorId(pageRequest, doctorId);
         }
+        if (!daySchedules.isLoaded(doctorId, date)) {
+            throwExceptionIfNotExist(doctorId);
+        }
         return appointmentsService.getAppointmentsPageByDoctorIdForDate(pageRequest, doctorId, date);
     }
 
+    @Cacheable(value = "doctorAppointmentsSlice", keyGenerator = DoctorAppointmentsPageKeyGenerator.NAME,
+            condition = "#date == null")
+    public SliceDTO<AppointmentDTO> getAppointmentsSliceById(PageRequest pageRequest, Long doctorId, LocalDate date) {
+        if (date == null) {
+            throwExceptionIfNotExist(doctorId);
+            return appointmentsService.getAppointmentsSliceByDoctorId(pageRequest, doctorId);
+        }
+        if (!daySchedules.isLoaded(doctorId, date)) {
+            throwExceptionIfNotExist(doctorId);
+        }
+        return appointmentsService.getAppointmentsSliceByDoctorIdForDate(pageRequest, doctorId, date);
+    }
+
+    public List<DayScheduleDTO> getScheduleById(Long doctorId, LocalDate from, LocalDate to) {
+        throwExceptionIfNotExist(doctorId);
+        return appointmentsService.getScheduleByDoctorId(doctorId, from, to);
+    }
+
+    public CursorPageDTO<AppointmentDTO> getAppointmentsCursorPageById(Long doctorId, int pageSize,
+                                                                       boolean desc, String cursor) {
+        throwExceptionIfNotExist(doctorId);
+        return appointmentsService.getAppointmentsCursorPageByDoctorId(doctorId, pageSize, desc, cursor);
+    }
+
+    /**
+     * NOTE: Cancellation is rejected unless admin pin is configured and matches the given one.
+     */
+    public CancellationResultDTO cancelAppointments(DoctorAppointmentsCancelRequest cancelReq, Long doctorId) {
+        validateAdminPin(cancelReq.getAdminPin());
+        throwExceptionIfNotExist(doctorId);
+        final LocalDate date = cancelReq.getDate();
+        return bookingLocks.callWithLock(doctorId, () -> appointmentsService.deleteDoctorAppointments(doctorId, date));
+    }
+
+    private void validateAdminPin(Integer pin) {
+        if (adminPin == null || !adminPin.equals(pin)) {
+            throw new InvalidPinException(String.format("Given admin pin '%d' is invalid", pin));
+        }
+    }
+
     private void throwExceptionIfNotExist(Long doctorId) {
         if (!doctorsRepo.existsById(doctorId)) {
             throw getDoctorNotFoundException(doctorId).get();
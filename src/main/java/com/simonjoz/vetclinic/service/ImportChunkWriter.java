@@ -0,0 +1,94 @@
+package com.simonjoz.vetclinic.service;
+
+import com.simonjoz.vetclinic.domain.Customer;
+import com.simonjoz.vetclinic.domain.Doctor;
+import com.simonjoz.vetclinic.repository.ImportCheckpointsRepo;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.sql.Time;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Writes validated chunks of bulk import with JDBC batches. Checkpoint is saved in the same transaction,
+ * so either whole chunk and its checkpoint are committed or none of them.
+ * Checkpoint is saved even if all records of the chunk were rejected.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportChunkWriter {
+
+    private static final String INSERT_CUSTOMER = "INSERT INTO customers (id, pin, name, surname) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_DOCTOR = "INSERT INTO doctors (id, title, name, surname) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_VISIT_DETAILS = "INSERT INTO visit_details (doctor_id, visit_price, " +
+            "visit_duration_in_minutes, opening_at, closing_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final ImportCheckpointsRepo checkpointsRepo;
+
+    @Transactional
+    public void writeCustomers(List<Customer> customers, String source, long committedRows) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        IdentifierGenerator generator = getIdentifierGenerator(session, Customer.class);
+        List<Object[]> rows = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            customer.setId((Long) generator.generate(session, null));
+            rows.add(new Object[]{customer.getId(), customer.getPin(), customer.getName(), customer.getSurname()});
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_CUSTOMER, rows);
+        }
+        checkpointsRepo.saveCommittedRows(source, committedRows);
+    }
+
+    /**
+     * Visit details share id with their doctor, so they are inserted after all doctors of the chunk.
+     */
+    @Transactional
+    public void writeDoctors(List<Doctor> doctors, String source, long committedRows) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        IdentifierGenerator generator = getIdentifierGenerator(session, Doctor.class);
+        List<Object[]> rows = new ArrayList<>(doctors.size());
+        for (Doctor doctor : doctors) {
+            doctor.setId((Long) generator.generate(session, null));
+            rows.add(new Object[]{doctor.getId(), doctor.getTitle(), doctor.getName(), doctor.getSurname()});
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_DOCTOR, rows);
+        }
+
+        List<Object[]> visitDetailsRows = doctors.stream()
+                .map(Doctor::getVisitDetails)
+                .filter(Objects::nonNull)
+                .map(details -> new Object[]{details.getDoctor().getId(), details.getVisitPrice(),
+                        details.getVisitDurationInMinutes(), toTime(details.getOpeningAt()),
+                        toTime(details.getClosingAt())})
+                .collect(Collectors.toList());
+        if (!visitDetailsRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_VISIT_DETAILS, visitDetailsRows);
+        }
+        checkpointsRepo.saveCommittedRows(source, committedRows);
+    }
+
+    /**
+     * Ids are taken from the same pooled generators as for persisted entities, so one sequence call
+     * covers whole allocation size.
+     */
+    private static IdentifierGenerator getIdentifierGenerator(SessionImplementor session, Class<?> entityClass) {
+        return session.getFactory().getMetamodel().entityPersister(entityClass).getIdentifierGenerator();
+    }
+
+    private static Time toTime(LocalTime time) {
+        return time == null ? null : Time.valueOf(time);
+    }
+}
@@ -1,22 +1,52 @@
 package com.simonjoz.vetclinic.service;
 
+import com.simonjoz.vetclinic.dto.DoctorTimingDetailsDTO;
 import com.simonjoz.vetclinic.dto.TimingDetailsDTO;
 import com.simonjoz.vetclinic.exceptions.ResourceNotFoundException;
 import com.simonjoz.vetclinic.repository.VisitDetailsRepo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.function.Supplier;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class VisitDetailsService {
 
+    static final String DOCTORS_TIMING_DETAILS_CACHE = "doctorsTimeDetails";
+
     private final VisitDetailsRepo visitDetailsRepo;
 
     @Cacheable("doctorTimeDetails")
     public TimingDetailsDTO getTimingDetails(Long doctorId) {
-        return visitDetailsRepo.getTimingDetails(doctorId).orElseThrow(() -> new
-                ResourceNotFoundException(String.format("Timing details not found for doctor with id '%d'.", doctorId)));
+        return visitDetailsRepo.getTimingDetails(doctorId).orElseThrow(getNotFoundExceptionSupplier(doctorId));
+    }
+
+    @Cacheable("doctorBookingDetails")
+    public DoctorTimingDetailsDTO getDoctorTimingDetails(Long doctorId) {
+        return visitDetailsRepo.getDoctorTimingDetails(doctorId).orElseThrow(getNotFoundExceptionSupplier(doctorId));
+    }
+
+    @Cacheable(DOCTORS_TIMING_DETAILS_CACHE)
+    public List<DoctorTimingDetailsDTO> getDoctorsTimingDetails() {
+        return visitDetailsRepo.getDoctorsTimingDetails();
+    }
+
+    /**
+     * Must be called when doctors are added, e.g. by import, otherwise they are not searched until entry expires.
+     */
+    @CacheEvict(value = DOCTORS_TIMING_DETAILS_CACHE, allEntries = true)
+    public void evictDoctorsTimingDetails() {
+        log.debug("Timing details of all doctors evicted.");
+    }
+
+    private Supplier<ResourceNotFoundException> getNotFoundExceptionSupplier(Long doctorId) {
+        return () -> new ResourceNotFoundException(
+                String.format("Timing details not found for doctor with id '%d'.", doctorId));
     }
 }
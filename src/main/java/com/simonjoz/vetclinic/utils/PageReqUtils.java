@@ -3,12 +3,23 @@ package com.simonjoz.vetclinic.utils;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
 public class PageReqUtils {
 
     public final static String PAGE_ZERO = "0";
     public final static String DEFAULT_SORT_BY = "id";
     public final static String DEFAULT_SIZE = "10";
     public final static String DESC_FALSE = "false";
+    public final static int MAX_SIZE = 100;
+
+    // Sort fields accepted by endpoints (lower case) mapped to properties backed by index.
+    public final static Map<String, String> CUSTOMERS_SORT_FIELDS = Map.of("id", "id", "surname", "surname");
+    public final static Map<String, String> DOCTORS_SORT_FIELDS = Map.of("id", "id", "surname", "surname");
+    public final static Map<String, String> APPOINTMENTS_SORT_FIELDS = Map.of(
+            "id", "id", "timestamp", "timestamp", "date", "timestamp", "scheduleddate", "timestamp");
 
 
     public static PageRequest getPageRequest(int page, int size, String sortBy, boolean desc) {
@@ -22,4 +33,21 @@ public class PageReqUtils {
         }
         return pageRequest;
     }
+
+    /**
+     * Sort field is matched case insensitively against the endpoint whitelist and page size is capped,
+     * so equal requests give equal page requests and no unindexed sort nor huge page is run.
+     */
+    public static PageRequest getPageRequest(int page, int size, String sortBy, boolean desc,
+                                             Map<String, String> sortFields) {
+        String sortProperty = null;
+        if (sortBy != null && !"".equals(sortBy.trim())) {
+            sortProperty = sortFields.get(sortBy.trim().toLowerCase(Locale.ROOT));
+            if (sortProperty == null) {
+                throw new IllegalArgumentException(String.format("Sorting by '%s' is not supported. Allowed values: %s.",
+                        sortBy, new TreeSet<>(sortFields.keySet())));
+            }
+        }
+        return getPageRequest(page, Math.min(size, MAX_SIZE), sortProperty, desc);
+    }
 }
@@ -0,0 +1,133 @@
+package com.simonjoz.vetclinic.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Per request accumulator of phase durations, reported in Server-Timing header. Instrumented code takes a mark
+ * with {@link #start()} and records the phase with {@link #record(String, long)}, which returns the next mark.
+ * NOTE: Only ServerTimingFilter binds accumulator, so without it, or outside of timed request, marks are 0 and
+ * recording does nothing, so no clock is read. There is no global switch to leak between application contexts.
+ * Phases may overlap, e.g. db time is included in insert time as well.
+ */
+public class RequestTimings {
+
+    public static final String DB_PHASE = "db";
+    public static final String SERIALIZATION_PHASE = "serialization";
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+    private long serializationStart;
+
+    /**
+     * Binds new accumulator to current thread, must be followed by {@link #end()}.
+     */
+    public static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return current time mark, or 0 if request is not timed
+     */
+    public static long start() {
+        return CURRENT.get() != null ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Adds time elapsed since the mark to the phase.
+     *
+     * @return mark of the next phase, or 0 if request is not timed
+     */
+    public static long record(String phase, long start) {
+        if (start == 0L) {
+            return 0L;
+        }
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) {
+            return 0L;
+        }
+        final long now = System.nanoTime();
+        timings.add(phase, now - start);
+        return now;
+    }
+
+    /**
+     * Called before response body is written, serialization ends when request leaves the filter.
+     */
+    public static void startSerialization() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.serializationStart = System.nanoTime();
+        }
+    }
+
+    public void endSerialization() {
+        if (serializationStart != 0L) {
+            add(SERIALIZATION_PHASE, System.nanoTime() - serializationStart);
+            serializationStart = 0L;
+        }
+    }
+
+    /**
+     * @return phases in order of first occurrence followed by total, e.g. {@code db;dur=1.20;desc="3 calls", total;dur=4.51}
+     */
+    public String toHeader() {
+        StringJoiner header = new StringJoiner(", ");
+        phases.forEach((name, phase) -> {
+            String value = name + ";dur=" + formatMillis(phase.nanos);
+            header.add(phase.count > 1 ? value + ";desc=\"" + phase.count + " calls\"" : value);
+        });
+        header.add("total;dur=" + formatMillis(System.nanoTime() - startNanos));
+        return header.toString();
+    }
+
+    /**
+     * @return phases with durations in milliseconds, e.g. {@code db=1.20ms (3), total=4.51ms}
+     */
+    public String toLogLine() {
+        StringJoiner line = new StringJoiner(", ");
+        phases.forEach((name, phase) -> {
+            String value = name + "=" + formatMillis(phase.nanos) + "ms";
+            line.add(phase.count > 1 ? value + " (" + phase.count + ")" : value);
+        });
+        line.add("total=" + formatMillis(System.nanoTime() - startNanos) + "ms");
+        return line.toString();
+    }
+
+    long getNanos(String phase) {
+        Phase timed = phases.get(phase);
+        return timed == null ? 0L : timed.nanos;
+    }
+
+    int getCount(String phase) {
+        Phase timed = phases.get(phase);
+        return timed == null ? 0 : timed.count;
+    }
+
+    private void add(String name, long nanos) {
+        Phase phase = phases.computeIfAbsent(name, key -> new Phase());
+        phase.nanos += nanos;
+        phase.count++;
+    }
+
+    private static String formatMillis(long nanos) {
+        // Two decimal places without String.format, header is built for every timed request.
+        long hundredths = Math.round(nanos / 10_000.0);
+        long fraction = hundredths % 100;
+        return (hundredths / 100) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    private static class Phase {
+        private long nanos;
+        private int count;
+    }
+}
@@ -48,3 +48,8 @@ VALUES (150, 20, '08:00', '16:00', 1),
        (410, 40, '12:00', '20:00', 3),
        (510, 30, '16:00', '00:00', 4),
        (160, 50, '10:00', '18:00', 5);
+
+-- Sequences must start above explicitly inserted ids.
+ALTER SEQUENCE doctors_seq RESTART WITH 100;
+ALTER SEQUENCE customers_seq RESTART WITH 100;
+ALTER SEQUENCE appointments_seq RESTART WITH 100;
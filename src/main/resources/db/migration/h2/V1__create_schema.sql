@@ -0,0 +1,49 @@
+-- Baseline schema, as previously generated by Hibernate.
+
+CREATE SEQUENCE doctors_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE customers_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE appointments_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE doctors
+(
+    id      BIGINT NOT NULL,
+    name    VARCHAR(255),
+    surname VARCHAR(255),
+    title   VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE customers
+(
+    id      BIGINT  NOT NULL,
+    name    VARCHAR(255),
+    pin     INTEGER NOT NULL CHECK (pin >= 4),
+    surname VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE visit_details
+(
+    doctor_id                 BIGINT  NOT NULL,
+    visit_price               DECIMAL(19, 2),
+    visit_duration_in_minutes INTEGER NOT NULL,
+    opening_at                TIME,
+    closing_at                TIME,
+    PRIMARY KEY (doctor_id),
+    CONSTRAINT fk_visit_details_doctor FOREIGN KEY (doctor_id) REFERENCES doctors (id)
+);
+
+CREATE TABLE appointments
+(
+    id             BIGINT    NOT NULL,
+    note           VARCHAR(255),
+    scheduled_date DATE      NOT NULL,
+    scheduled_time TIME      NOT NULL,
+    timestamp      TIMESTAMP NOT NULL,
+    customer_id    BIGINT    NOT NULL,
+    doctor_id      BIGINT    NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_appointments_doctor_timestamp UNIQUE (doctor_id, timestamp),
+    CONSTRAINT fk_appointments_customer FOREIGN KEY (customer_id) REFERENCES customers (id),
+    CONSTRAINT fk_appointments_doctor FOREIGN KEY (doctor_id) REFERENCES doctors (id)
+);
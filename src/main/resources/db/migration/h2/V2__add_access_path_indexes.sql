@@ -0,0 +1,15 @@
+-- Indexes for access paths of repository queries. Lookups by doctor and timestamp range are served by
+-- uk_appointments_doctor_timestamp.
+
+-- Doctor day schedules and cancellation of doctor day, ordered by time.
+CREATE INDEX idx_appointments_doctor_date ON appointments (doctor_id, scheduled_date, scheduled_time);
+
+-- Customer cancellations and lookups of customer appointments.
+CREATE INDEX idx_appointments_customer_timestamp ON appointments (customer_id, timestamp);
+
+-- Booked slots of all doctors from given moment.
+CREATE INDEX idx_appointments_timestamp ON appointments (timestamp);
+
+-- Sorting of customers and doctors pages.
+CREATE INDEX idx_customers_surname ON customers (surname);
+CREATE INDEX idx_doctors_surname ON doctors (surname);
@@ -0,0 +1,63 @@
+-- Baseline schema, as previously generated by Hibernate. Sequences are emulated with tables by MySQL8Dialect.
+
+CREATE TABLE doctors_seq
+(
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO doctors_seq VALUES (1);
+
+CREATE TABLE customers_seq
+(
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO customers_seq VALUES (1);
+
+CREATE TABLE appointments_seq
+(
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO appointments_seq VALUES (1);
+
+CREATE TABLE doctors
+(
+    id      BIGINT NOT NULL,
+    name    VARCHAR(255),
+    surname VARCHAR(255),
+    title   VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE customers
+(
+    id      BIGINT  NOT NULL,
+    name    VARCHAR(255),
+    pin     INTEGER NOT NULL,
+    surname VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE visit_details
+(
+    doctor_id                 BIGINT  NOT NULL,
+    visit_price               DECIMAL(19, 2),
+    visit_duration_in_minutes INTEGER NOT NULL,
+    opening_at                TIME,
+    closing_at                TIME,
+    PRIMARY KEY (doctor_id),
+    CONSTRAINT fk_visit_details_doctor FOREIGN KEY (doctor_id) REFERENCES doctors (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE appointments
+(
+    id             BIGINT      NOT NULL,
+    note           VARCHAR(255),
+    scheduled_date DATE        NOT NULL,
+    scheduled_time TIME        NOT NULL,
+    timestamp      DATETIME(6) NOT NULL,
+    customer_id    BIGINT      NOT NULL,
+    doctor_id      BIGINT      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_appointments_doctor_timestamp UNIQUE (doctor_id, timestamp),
+    CONSTRAINT fk_appointments_customer FOREIGN KEY (customer_id) REFERENCES customers (id),
+    CONSTRAINT fk_appointments_doctor FOREIGN KEY (doctor_id) REFERENCES doctors (id)
+) ENGINE = InnoDB;
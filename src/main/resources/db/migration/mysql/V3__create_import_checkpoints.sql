@@ -0,0 +1,9 @@
+-- Progress of bulk imports. Row is updated in the same transaction as each imported chunk,
+-- so interrupted import resumes right after the last committed chunk.
+CREATE TABLE import_checkpoints
+(
+    source         VARCHAR(255) NOT NULL,
+    committed_rows BIGINT       NOT NULL,
+    updated_at     TIMESTAMP    NOT NULL,
+    PRIMARY KEY (source)
+) ENGINE = InnoDB;
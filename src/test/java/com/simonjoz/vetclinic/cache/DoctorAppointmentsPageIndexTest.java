@@ -0,0 +1,153 @@
+package com.simonjoz.vetclinic.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DoctorAppointmentsPageIndexTest {
+
+    private static final long DOCTOR_ONE_ID = 1L;
+    private static final long DOCTOR_TWO_ID = 2L;
+    private static final LocalDate DATE = LocalDate.parse("2022-01-21");
+    private static final PageRequest PAGE_REQUEST = PageRequest.of(0, 5, Sort.by("timestamp"));
+    private static final int MAX_KEYS = 3;
+
+    private Cache cache;
+    private Cache sliceCache;
+    private DoctorAppointmentsPageIndex pageIndex;
+    private DoctorAppointmentsPageKeyGenerator keyGenerator;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+                DoctorAppointmentsPageIndex.CACHE_NAMES.toArray(String[]::new));
+        cache = cacheManager.getCache("doctorAppointmentsPage");
+        sliceCache = cacheManager.getCache("doctorAppointmentsSlice");
+        pageIndex = new DoctorAppointmentsPageIndex(cacheManager, MAX_KEYS);
+        keyGenerator = new DoctorAppointmentsPageKeyGenerator(pageIndex);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testKeysOfEqualRequestsAreEqual() {
+        Object key = keyGenerator.generate(null, null, PAGE_REQUEST, DOCTOR_ONE_ID, DATE);
+        Object sameKey = keyGenerator.generate(null, null, PageRequest.of(0, 5, Sort.by("timestamp")), DOCTOR_ONE_ID, DATE);
+
+        assertEquals(new DoctorAppointmentsPageKey(DOCTOR_ONE_ID, DATE, "0:5:timestamp"), key);
+        assertEquals(key, sameKey);
+        assertEquals(1, pageIndex.getIndexedKeysCount(DOCTOR_ONE_ID));
+    }
+
+    @Test
+    void testEvictOnlyAffectedDoctorAndDate() {
+        Object allDatesKey = cachePage(DOCTOR_ONE_ID, null);
+        Object affectedKey = cachePage(DOCTOR_ONE_ID, DATE);
+        Object otherDateKey = cachePage(DOCTOR_ONE_ID, DATE.plusDays(1));
+        Object otherDoctorKey = cachePage(DOCTOR_TWO_ID, DATE);
+
+        pageIndex.evict(DOCTOR_ONE_ID, DATE);
+
+        assertNull(cache.get(allDatesKey));
+        assertNull(cache.get(affectedKey));
+        assertNotNull(cache.get(otherDateKey));
+        assertNotNull(cache.get(otherDoctorKey));
+        assertEquals(1, pageIndex.getIndexedKeysCount(DOCTOR_ONE_ID));
+    }
+
+    @Test
+    void testEvictSlices() {
+        Object key = keyGenerator.generate(null, null, PAGE_REQUEST, DOCTOR_ONE_ID, null);
+        sliceCache.put(key, "slice");
+
+        pageIndex.evict(DOCTOR_ONE_ID, DATE);
+
+        assertNull(sliceCache.get(key));
+    }
+
+    @Test
+    void testEvictMultipleDates() {
+        Object firstDateKey = cachePage(DOCTOR_ONE_ID, DATE);
+        Object secondDateKey = cachePage(DOCTOR_ONE_ID, DATE.plusDays(1));
+
+        pageIndex.evict(DOCTOR_ONE_ID, List.of(DATE, DATE.plusDays(1)));
+
+        assertNull(cache.get(firstDateKey));
+        assertNull(cache.get(secondDateKey));
+        assertEquals(0, pageIndex.getIndexedKeysCount(DOCTOR_ONE_ID));
+    }
+
+    @Test
+    void testLeastRecentlyReadKeyOverBoundIsEvicted() {
+        Object leastRecentlyReadKey = cachePage(DOCTOR_ONE_ID, DATE);
+        Object recentlyReadKey = cachePage(DOCTOR_ONE_ID, DATE.plusDays(1));
+        cachePage(DOCTOR_ONE_ID, DATE.plusDays(2));
+        keyGenerator.generate(null, null, PAGE_REQUEST, DOCTOR_ONE_ID, DATE.plusDays(1));
+
+        Object newKey = cachePage(DOCTOR_ONE_ID, DATE.plusDays(3));
+
+        assertEquals(MAX_KEYS, pageIndex.getIndexedKeysCount(DOCTOR_ONE_ID));
+        assertNull(cache.get(leastRecentlyReadKey));
+        assertNotNull(cache.get(recentlyReadKey));
+        assertNotNull(cache.get(newKey));
+    }
+
+    @Test
+    void testKeysOfAllDoctorsAreBoundedTogether() {
+        Object firstDoctorKey = cachePage(DOCTOR_ONE_ID, DATE);
+        cachePage(DOCTOR_TWO_ID, DATE);
+        cachePage(DOCTOR_TWO_ID, DATE.plusDays(1));
+
+        Object newKey = cachePage(DOCTOR_TWO_ID, DATE.plusDays(2));
+
+        assertEquals(MAX_KEYS, pageIndex.getIndexedKeysCount());
+        assertNull(cache.get(firstDoctorKey));
+        assertNotNull(cache.get(newKey));
+        // Doctor whose last key has been evicted is not indexed anymore.
+        assertEquals(1, pageIndex.getIndexedDoctorsCount());
+    }
+
+    @Test
+    void testDoctorWithoutKeysIsRemoved() {
+        cachePage(DOCTOR_ONE_ID, DATE);
+        cachePage(DOCTOR_TWO_ID, DATE);
+
+        pageIndex.evict(DOCTOR_ONE_ID, DATE);
+
+        assertEquals(1, pageIndex.getIndexedDoctorsCount());
+    }
+
+    @Test
+    void testEvictIsDeferredUntilCommit() {
+        Object key = cachePage(DOCTOR_ONE_ID, DATE);
+        TransactionSynchronizationManager.initSynchronization();
+
+        pageIndex.evict(DOCTOR_ONE_ID, DATE);
+        assertNotNull(cache.get(key));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNull(cache.get(key));
+    }
+
+    private Object cachePage(Long doctorId, LocalDate date) {
+        Object key = keyGenerator.generate(null, null, PAGE_REQUEST, doctorId, date);
+        cache.put(key, "page");
+        return key;
+    }
+}
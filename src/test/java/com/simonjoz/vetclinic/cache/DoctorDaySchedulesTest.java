@@ -0,0 +1,140 @@
+package com.simonjoz.vetclinic.cache;
+
+import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.repository.AppointmentsRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DoctorDaySchedulesTest {
+
+    private static final long DOCTOR_ONE_ID = 1L;
+    private static final LocalDate DATE = LocalDate.now().plusDays(1);
+
+    private static final AppointmentDTO AT_NINE = appointment(3L, "B", LocalTime.of(9, 0));
+    private static final AppointmentDTO AT_TEN = appointment(1L, "C", LocalTime.of(10, 0));
+    private static final AppointmentDTO AT_ELEVEN = appointment(2L, "A", LocalTime.of(11, 0));
+
+    private AppointmentsRepo appointmentsRepo;
+    private DoctorDaySchedules daySchedules;
+
+    @BeforeEach
+    void setUp() {
+        appointmentsRepo = Mockito.mock(AppointmentsRepo.class);
+        daySchedules = new DoctorDaySchedules(appointmentsRepo, 10);
+        Mockito.doReturn(List.of(AT_NINE, AT_TEN, AT_ELEVEN)).when(appointmentsRepo).getDoctorDaySchedule(DOCTOR_ONE_ID, DATE);
+    }
+
+    @Test
+    void testScheduleIsLoadedOnce() {
+        assertFalse(daySchedules.isLoaded(DOCTOR_ONE_ID, DATE));
+        assertEquals(List.of(AT_NINE, AT_TEN, AT_ELEVEN), daySchedules.getSchedule(DOCTOR_ONE_ID, DATE));
+        assertEquals(List.of(AT_NINE, AT_TEN, AT_ELEVEN), daySchedules.getSchedule(DOCTOR_ONE_ID, DATE));
+
+        assertTrue(daySchedules.isLoaded(DOCTOR_ONE_ID, DATE));
+        Mockito.verify(appointmentsRepo).getDoctorDaySchedule(DOCTOR_ONE_ID, DATE);
+    }
+
+    @Test
+    void testGetPage() {
+        Page<AppointmentDTO> firstPage = daySchedules.getPage(DOCTOR_ONE_ID, DATE, PageRequest.of(0, 2));
+        Page<AppointmentDTO> lastPage = daySchedules.getPage(DOCTOR_ONE_ID, DATE, PageRequest.of(1, 2));
+        Page<AppointmentDTO> outOfRangePage = daySchedules.getPage(DOCTOR_ONE_ID, DATE, PageRequest.of(5, 2));
+
+        assertEquals(List.of(AT_NINE, AT_TEN), firstPage.getContent());
+        assertEquals(3, firstPage.getTotalElements());
+        assertEquals(2, firstPage.getTotalPages());
+        assertEquals(List.of(AT_ELEVEN), lastPage.getContent());
+        assertTrue(lastPage.isLast());
+        assertTrue(outOfRangePage.isEmpty());
+    }
+
+    @Test
+    void testGetSortedPage() {
+        assertEquals(List.of(AT_TEN, AT_ELEVEN), daySchedules.getPage(DOCTOR_ONE_ID, DATE,
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "id"))).getContent());
+        assertEquals(List.of(AT_TEN, AT_NINE), daySchedules.getPage(DOCTOR_ONE_ID, DATE,
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "note"))).getContent());
+    }
+
+    @Test
+    void testIsSortable() {
+        assertTrue(daySchedules.isSortable(Sort.unsorted()));
+        assertTrue(daySchedules.isSortable(Sort.by("id", "scheduledTime")));
+        assertFalse(daySchedules.isSortable(Sort.by("id", "customer.name")));
+    }
+
+    @Test
+    void testAddAndRemovePatchLoadedSchedule() {
+        AppointmentDTO atHalfPastNine = appointment(4L, "D", LocalTime.of(9, 30));
+        daySchedules.getSchedule(DOCTOR_ONE_ID, DATE);
+
+        daySchedules.add(DOCTOR_ONE_ID, DATE, () -> Optional.of(atHalfPastNine));
+        daySchedules.add(DOCTOR_ONE_ID, DATE, () -> Optional.of(atHalfPastNine));
+        assertEquals(List.of(AT_NINE, atHalfPastNine, AT_TEN, AT_ELEVEN), daySchedules.getSchedule(DOCTOR_ONE_ID, DATE));
+
+        daySchedules.remove(DOCTOR_ONE_ID, LocalDateTime.of(DATE, LocalTime.of(10, 0)));
+        assertEquals(List.of(AT_NINE, atHalfPastNine, AT_ELEVEN), daySchedules.getSchedule(DOCTOR_ONE_ID, DATE));
+
+        daySchedules.clear(DOCTOR_ONE_ID, DATE);
+        assertTrue(daySchedules.getSchedule(DOCTOR_ONE_ID, DATE).isEmpty());
+
+        Mockito.verify(appointmentsRepo).getDoctorDaySchedule(DOCTOR_ONE_ID, DATE);
+    }
+
+    @Test
+    void testAddToNotLoadedDayDoesNotFetchAppointment() {
+        daySchedules.add(DOCTOR_ONE_ID, DATE, () -> fail("Appointment should not be fetched."));
+
+        assertFalse(daySchedules.isLoaded(DOCTOR_ONE_ID, DATE));
+    }
+
+    @Test
+    void testPatchDuringLoadCancelsLease() {
+        Mockito.doAnswer(invocation -> {
+            // Cancellation committed while the day was being read.
+            daySchedules.remove(DOCTOR_ONE_ID, LocalDateTime.of(DATE, LocalTime.of(10, 0)));
+            return List.of(AT_NINE, AT_TEN, AT_ELEVEN);
+        }).when(appointmentsRepo).getDoctorDaySchedule(DOCTOR_ONE_ID, DATE);
+
+        assertEquals(3, daySchedules.getSchedule(DOCTOR_ONE_ID, DATE).size());
+        assertFalse(daySchedules.isLoaded(DOCTOR_ONE_ID, DATE));
+    }
+
+    @Test
+    void testScheduleIsNotCachedWhenFull() {
+        daySchedules = new DoctorDaySchedules(appointmentsRepo, 1);
+        daySchedules.getSchedule(2L, DATE.plusDays(1));
+
+        daySchedules.getSchedule(DOCTOR_ONE_ID, DATE);
+
+        assertFalse(daySchedules.isLoaded(DOCTOR_ONE_ID, DATE));
+        assertTrue(daySchedules.isLoaded(2L, DATE.plusDays(1)));
+    }
+
+    @Test
+    void testPurgePastDays() {
+        daySchedules.getSchedule(2L, LocalDate.now().minusDays(1));
+        daySchedules.getSchedule(2L, LocalDate.now());
+
+        daySchedules.purgePastDays();
+
+        assertFalse(daySchedules.isLoaded(2L, LocalDate.now().minusDays(1)));
+        assertTrue(daySchedules.isLoaded(2L, LocalDate.now()));
+    }
+
+    private static AppointmentDTO appointment(Long id, String note, LocalTime time) {
+        return new AppointmentDTO(id, note, DATE, time, "CUSTOMER" + id, "SURNAME" + id);
+    }
+}
@@ -0,0 +1,133 @@
+package com.simonjoz.vetclinic.cache;
+
+import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.repository.AppointmentsRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+class DoctorWeekSchedulesTest {
+
+    private static final long DOCTOR_ONE_ID = 1L;
+    // Friday, Sunday and Monday of the following week.
+    private static final LocalDate FRIDAY = LocalDate.parse("2022-01-21");
+    private static final LocalDate SUNDAY = LocalDate.parse("2022-01-23");
+    private static final LocalDate MONDAY = LocalDate.parse("2022-01-24");
+    private static final LocalDate FIRST_WEEK_START = LocalDate.parse("2022-01-17");
+    private static final LocalDate SECOND_WEEK_START = LocalDate.parse("2022-01-24");
+
+    private static final AppointmentDTO FRIDAY_APPOINTMENT = appointment(1L, FRIDAY);
+    private static final AppointmentDTO SUNDAY_APPOINTMENT = appointment(3L, SUNDAY);
+    private static final AppointmentDTO MONDAY_APPOINTMENT = appointment(5L, MONDAY);
+
+    private AppointmentsRepo appointmentsRepo;
+    private Cache cache;
+    private DoctorWeekSchedules weekSchedules;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(DoctorWeekSchedules.CACHE_NAME);
+        cache = cacheManager.getCache(DoctorWeekSchedules.CACHE_NAME);
+        appointmentsRepo = Mockito.mock(AppointmentsRepo.class);
+        weekSchedules = new DoctorWeekSchedules(appointmentsRepo, cacheManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testWeekKeyStartsOnMonday() {
+        assertEquals(FIRST_WEEK_START, DoctorWeekKey.of(DOCTOR_ONE_ID, SUNDAY).getWeekStart());
+        assertEquals(SECOND_WEEK_START, DoctorWeekKey.of(DOCTOR_ONE_ID, MONDAY).getWeekStart());
+        assertEquals(SUNDAY, DoctorWeekKey.of(DOCTOR_ONE_ID, FRIDAY).getWeekEnd());
+    }
+
+    @Test
+    void testMissingWeeksAreLoadedWithSingleQuery() {
+        mockRangeQuery(FIRST_WEEK_START, SECOND_WEEK_START.plusWeeks(1),
+                List.of(FRIDAY_APPOINTMENT, SUNDAY_APPOINTMENT, MONDAY_APPOINTMENT));
+
+        List<AppointmentDTO> appointments = weekSchedules.getAppointments(DOCTOR_ONE_ID, SUNDAY, MONDAY);
+
+        assertEquals(List.of(SUNDAY_APPOINTMENT, MONDAY_APPOINTMENT), appointments);
+        assertEquals(List.of(FRIDAY_APPOINTMENT, SUNDAY_APPOINTMENT),
+                cache.get(new DoctorWeekKey(DOCTOR_ONE_ID, FIRST_WEEK_START), List.class));
+        assertEquals(List.of(MONDAY_APPOINTMENT),
+                cache.get(new DoctorWeekKey(DOCTOR_ONE_ID, SECOND_WEEK_START), List.class));
+        Mockito.verify(appointmentsRepo, Mockito.times(1))
+                .getDoctorAppointmentsBetween(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testCachedWeeksAreNotQueried() {
+        cache.put(new DoctorWeekKey(DOCTOR_ONE_ID, FIRST_WEEK_START), List.of(FRIDAY_APPOINTMENT));
+        mockRangeQuery(SECOND_WEEK_START, SECOND_WEEK_START.plusWeeks(1), List.of(MONDAY_APPOINTMENT));
+
+        List<AppointmentDTO> appointments = weekSchedules.getAppointments(DOCTOR_ONE_ID, FRIDAY, MONDAY);
+        List<AppointmentDTO> cachedAppointments = weekSchedules.getAppointments(DOCTOR_ONE_ID, FRIDAY, MONDAY);
+
+        assertEquals(List.of(FRIDAY_APPOINTMENT, MONDAY_APPOINTMENT), appointments);
+        assertEquals(appointments, cachedAppointments);
+        Mockito.verify(appointmentsRepo, Mockito.times(1)).getDoctorAppointmentsBetween(DOCTOR_ONE_ID,
+                SECOND_WEEK_START.atStartOfDay(), SECOND_WEEK_START.plusWeeks(1).atStartOfDay());
+    }
+
+    @Test
+    void testWeekWithoutAppointmentsIsCached() {
+        mockRangeQuery(FIRST_WEEK_START, SECOND_WEEK_START, List.of());
+
+        assertTrue(weekSchedules.getAppointments(DOCTOR_ONE_ID, FRIDAY, SUNDAY).isEmpty());
+
+        assertEquals(List.of(), cache.get(new DoctorWeekKey(DOCTOR_ONE_ID, FIRST_WEEK_START), List.class));
+    }
+
+    @Test
+    void testEvictOnlyWeeksOfGivenDates() {
+        cache.put(new DoctorWeekKey(DOCTOR_ONE_ID, FIRST_WEEK_START), List.of(FRIDAY_APPOINTMENT));
+        cache.put(new DoctorWeekKey(DOCTOR_ONE_ID, SECOND_WEEK_START), List.of(MONDAY_APPOINTMENT));
+
+        weekSchedules.evict(DOCTOR_ONE_ID, List.of(SUNDAY));
+
+        assertNull(cache.get(new DoctorWeekKey(DOCTOR_ONE_ID, FIRST_WEEK_START)));
+        assertNotNull(cache.get(new DoctorWeekKey(DOCTOR_ONE_ID, SECOND_WEEK_START)));
+    }
+
+    @Test
+    void testEvictIsDeferredUntilCommit() {
+        cache.put(new DoctorWeekKey(DOCTOR_ONE_ID, FIRST_WEEK_START), List.of(FRIDAY_APPOINTMENT));
+        TransactionSynchronizationManager.initSynchronization();
+
+        weekSchedules.evict(DOCTOR_ONE_ID, List.of(FRIDAY));
+        assertNotNull(cache.get(new DoctorWeekKey(DOCTOR_ONE_ID, FIRST_WEEK_START)));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNull(cache.get(new DoctorWeekKey(DOCTOR_ONE_ID, FIRST_WEEK_START)));
+    }
+
+    private void mockRangeQuery(LocalDate start, LocalDate end, List<AppointmentDTO> appointments) {
+        Mockito.doReturn(appointments).when(appointmentsRepo)
+                .getDoctorAppointmentsBetween(DOCTOR_ONE_ID, start.atStartOfDay(), end.atStartOfDay());
+    }
+
+    private static AppointmentDTO appointment(Long id, LocalDate date) {
+        return new AppointmentDTO(id, "note", date, LocalTime.of(12, 0), "CUSTOMER1", "SURNAME1");
+    }
+}
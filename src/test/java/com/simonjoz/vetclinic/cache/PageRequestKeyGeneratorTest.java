@@ -0,0 +1,29 @@
+package com.simonjoz.vetclinic.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PageRequestKeyGeneratorTest {
+
+    private final PageRequestKeyGenerator keyGenerator = new PageRequestKeyGenerator();
+
+    @Test
+    void testKeyOfUnsortedRequest() {
+        assertEquals("0:10:", PageRequestKeyGenerator.toKey(PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void testKeyOfSortedRequest() {
+        PageRequest pageRequest = PageRequest.of(2, 10, Sort.by(Sort.Order.desc("surname"), Sort.Order.asc("id")));
+        assertEquals("2:10:-surname,id", keyGenerator.generate(null, null, pageRequest));
+    }
+
+    @Test
+    void testEqualRequestsGiveEqualKeys() {
+        assertEquals(PageRequestKeyGenerator.toKey(PageRequest.of(1, 5, Sort.Direction.ASC, "id")),
+                PageRequestKeyGenerator.toKey(PageRequest.of(1, 5, Sort.by("id"))));
+    }
+}
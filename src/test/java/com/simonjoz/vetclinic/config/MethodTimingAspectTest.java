@@ -0,0 +1,80 @@
+package com.simonjoz.vetclinic.config;
+
+import com.simonjoz.vetclinic.exceptions.ResourceNotFoundException;
+import com.simonjoz.vetclinic.service.DoctorsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@Sql(scripts = "classpath:test.sql")
+class MethodTimingAspectTest {
+
+    @Autowired
+    private DoctorsService doctorsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testServiceMethodAndRepositoryQueryAreTimed() {
+        long serviceCalls = getCount(MethodTimingAspect.SERVICE_METRIC, "class", "DoctorsService", "getDoctor", "none");
+        long queries = getCount(MethodTimingAspect.REPOSITORY_METRIC, "repository", "DoctorsRepo", "findById", "none");
+
+        doctorsService.getDoctor(1L);
+
+        assertEquals(serviceCalls + 1,
+                getCount(MethodTimingAspect.SERVICE_METRIC, "class", "DoctorsService", "getDoctor", "none"));
+        assertEquals(queries + 1,
+                getCount(MethodTimingAspect.REPOSITORY_METRIC, "repository", "DoctorsRepo", "findById", "none"));
+    }
+
+    @Test
+    void testExceptionIsTagged() {
+        long failures = getCount(MethodTimingAspect.SERVICE_METRIC, "class", "DoctorsService", "getDoctor",
+                "ResourceNotFoundException");
+
+        assertThrows(ResourceNotFoundException.class, () -> doctorsService.getDoctor(-1L));
+
+        assertEquals(failures + 1, getCount(MethodTimingAspect.SERVICE_METRIC, "class", "DoctorsService",
+                "getDoctor", "ResourceNotFoundException"));
+    }
+
+    @Test
+    void testTimersArePublishedWithHistogramInPrometheusFormat() throws Exception {
+        doctorsService.getDoctor(1L);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("service_method_seconds_bucket{")))
+                .andExpect(content().string(containsString("repository_query_seconds_bucket{")));
+    }
+
+    private long getCount(String metric, String typeTag, String typeName, String method, String exception) {
+        Timer timer = meterRegistry.find(metric)
+                .tag(typeTag, typeName)
+                .tag("method", method)
+                .tag("exception", exception)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
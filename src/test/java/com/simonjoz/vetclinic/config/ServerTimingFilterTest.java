@@ -0,0 +1,78 @@
+package com.simonjoz.vetclinic.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simonjoz.vetclinic.domain.AppointmentRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Transactional
+@SpringBootTest(properties = "spring.application.server-timing.enabled=true")
+@AutoConfigureMockMvc
+@Sql(scripts = "classpath:test.sql")
+class ServerTimingFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testBookingPhasesAreReported() throws Exception {
+        AppointmentRequest appointmentReq = new AppointmentRequest(1234, 1L, "SERVER TIMING",
+                LocalDate.now().plusDays(7), LocalTime.of(10, 0));
+
+        mockMvc.perform(post("/api/v1/customers/1/appointments/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(appointmentReq)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.note").value("SERVER TIMING"))
+                .andExpect(header().string(ServerTimingFilter.HEADER, allOf(
+                        containsString("lock;dur="),
+                        containsString("timing;dur="),
+                        containsString("availability;dur="),
+                        containsString("insert;dur="),
+                        containsString("mapping;dur="),
+                        containsString("db;dur="),
+                        containsString("serialization;dur="),
+                        containsString("total;dur="))));
+    }
+
+    @Test
+    void testPinCheckOfFailedBookingIsReported() throws Exception {
+        AppointmentRequest appointmentReq = new AppointmentRequest(4321, 1L, "SERVER TIMING",
+                LocalDate.now().plusDays(7), LocalTime.of(11, 0));
+
+        mockMvc.perform(post("/api/v1/customers/1/appointments/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(appointmentReq)))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string(ServerTimingFilter.HEADER, allOf(
+                        containsString("insert;dur="),
+                        containsString("customer;dur="),
+                        containsString("serialization;dur="))));
+    }
+
+    @Test
+    void testStreamedExportIsNotBuffered() throws Exception {
+        mockMvc.perform(get("/api/v1/appointments/export")
+                .param("from", "2022-01-21")
+                .param("to", "2022-01-24"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().doesNotExist(ServerTimingFilter.HEADER));
+    }
+}
@@ -0,0 +1,83 @@
+package com.simonjoz.vetclinic.config;
+
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fails a test when an action sends more JDBC statements than allowed, e.g. after a change fetching entities
+ * with eager associations one by one (n + 1 selects). Statements are counted by data source proxy, so JPA and
+ * JdbcTemplate queries are counted alike.
+ * NOTE: Test must import {@link Config}. Caches are disabled in tests, so cached lookups are counted as well.
+ */
+public class StatementCountGuard {
+
+    private static final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+    private static volatile boolean recording;
+
+    /**
+     * @return number of statements sent by the action
+     */
+    public static int assertMaxStatements(int maxStatements, Action action) throws Exception {
+        List<String> executed = record(action);
+        assertTrue(executed.size() <= maxStatements, () -> String.format(
+                "Expected at most %d statements, but %d were executed:%n%s", maxStatements, executed.size(),
+                String.join(System.lineSeparator(), executed)));
+        return executed.size();
+    }
+
+    public static List<String> record(Action action) throws Exception {
+        statements.clear();
+        recording = true;
+        try {
+            action.run();
+        } finally {
+            recording = false;
+        }
+        synchronized (statements) {
+            return new ArrayList<>(statements);
+        }
+    }
+
+    private static void capture(List<QueryInfo> queries) {
+        if (recording) {
+            statements.addAll(queries.stream()
+                    .map(QueryInfo::getQuery)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource) {
+                        return ProxyDataSourceBuilder.create((DataSource) bean)
+                                .afterQuery((execInfo, queries) -> capture(queries))
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.simonjoz.vetclinic.controllers;
+
+import com.simonjoz.vetclinic.domain.ExportFormat;
+import com.simonjoz.vetclinic.service.AppointmentsExportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AppointmentsController.class)
+class AppointmentsControllerTest {
+
+    private static final String EXPORT_MAPPING = "/api/v1/appointments/export";
+    private static final LocalDate FROM = LocalDate.parse("2022-01-01");
+    private static final LocalDate TO = LocalDate.parse("2022-01-31");
+
+    @MockBean
+    private AppointmentsExportService exportService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void reset() {
+        Mockito.reset(exportService);
+    }
+
+    @Test
+    void testExportCsv() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            invocation.getArgument(3, OutputStream.class).write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(exportService).export(eq(FROM), eq(TO), eq(ExportFormat.CSV), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get(EXPORT_MAPPING)
+                .param("from", "2022-01-01")
+                .param("to", "2022-01-31")
+                .param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"appointments_2022-01-01_2022-01-31.csv\""))
+                .andExpect(content().string("id\n1\n"));
+    }
+
+    @Test
+    void testExportDefaultsToNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get(EXPORT_MAPPING)
+                .param("from", "2022-01-01")
+                .param("to", "2022-01-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"));
+        Mockito.verify(exportService).export(eq(FROM), eq(TO), eq(ExportFormat.NDJSON), any(OutputStream.class));
+    }
+
+    @Test
+    void testExportUnsupportedFormat() throws Exception {
+        mockMvc.perform(get(EXPORT_MAPPING)
+                .param("from", "2022-01-01")
+                .param("to", "2022-01-31")
+                .param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Export format 'xml' is not supported. Allowed values: [ndjson, csv]."));
+
+        Mockito.verifyNoInteractions(exportService);
+    }
+
+    @Test
+    void testExportInvalidRange() throws Exception {
+        mockMvc.perform(get(EXPORT_MAPPING)
+                .param("from", "2022-01-31")
+                .param("to", "2022-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Date 'from' must not be after date 'to'."));
+
+        Mockito.verifyNoInteractions(exportService);
+    }
+}
@@ -1,9 +1,15 @@
 package com.simonjoz.vetclinic.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simonjoz.vetclinic.domain.AppointmentBatchRequest;
 import com.simonjoz.vetclinic.domain.AppointmentRequest;
+import com.simonjoz.vetclinic.domain.AppointmentsCancelRequest;
+import com.simonjoz.vetclinic.dto.AppointmentBatchResultDTO;
+import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.dto.CancellationResultDTO;
 import com.simonjoz.vetclinic.dto.CustomerDTO;
 import com.simonjoz.vetclinic.dto.PageDTO;
+import com.simonjoz.vetclinic.dto.SliceDTO;
 import com.simonjoz.vetclinic.exceptions.InvalidPinException;
 import com.simonjoz.vetclinic.service.CustomersService;
 import org.junit.jupiter.api.AfterEach;
@@ -13,10 +19,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 
@@ -65,6 +73,53 @@ class CustomersControllerTest {
         Mockito.verify(customersService).getPage(any(PageRequest.class));
     }
 
+    @Test
+    void testGetCustomersPageNormalizesRequest() throws Exception {
+        Mockito.doReturn(new PageDTO<>(1, 1, true, true, true, List.of()))
+                .when(customersService).getPage(any(PageRequest.class));
+
+        mockMvc.perform(get(CUSTOMERS_MAPPING).param("sortBy", " SurName ").param("pageSize", "5000"))
+                .andExpect(status().isOk());
+
+        Mockito.verify(customersService).getPage(PageRequest.of(0, 100, Sort.Direction.ASC, "surname"));
+    }
+
+    @Test
+    void testGetCustomersPageUnsupportedSort() throws Exception {
+        mockMvc.perform(get(CUSTOMERS_MAPPING).param("sortBy", "address"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(customersService, Mockito.never()).getPage(any(PageRequest.class));
+    }
+
+    @Test
+    void testGetCustomersSlice() throws Exception {
+        SliceDTO<CustomerDTO> expectedSlice = new SliceDTO<>(true, true, false,
+                List.of(new CustomerDTO(1L, 1234, "CUSTOMER1", "SURNAME1")));
+
+        Mockito.doReturn(expectedSlice).when(customersService).getSlice(any(PageRequest.class));
+
+        mockMvc.perform(get(CUSTOMERS_MAPPING).param("slice", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(expectedSlice)));
+
+        Mockito.verify(customersService).getSlice(any(PageRequest.class));
+        Mockito.verify(customersService, Mockito.never()).getPage(any(PageRequest.class));
+    }
+
+    @Test
+    void testGetAppointmentsByCustomerId() throws Exception {
+        List<AppointmentDTO> expectedAppointments = List.of(new AppointmentDTO(1L, "note",
+                LocalDate.parse("2022-10-10"), LocalTime.of(10, 0), "DOCTOR1", "SURNAME1"));
+        Mockito.doReturn(expectedAppointments).when(customersService).getAppointments(1L);
+
+        mockMvc.perform(get(CUSTOMERS_MAPPING + "/1/appointments"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(expectedAppointments)));
+
+        Mockito.verify(customersService).getAppointments(1L);
+    }
+
     @Test
     void testMakeAppointment() throws Exception {
         String requestBody = objectMapper.writeValueAsString(APPOINTMENT_REQUEST);
@@ -93,6 +148,52 @@ class CustomersControllerTest {
         Mockito.verify(customersService).makeAppointment(any(AppointmentRequest.class), anyLong());
     }
 
+    @Test
+    void testMakeAppointments() throws Exception {
+        var batchRequest = new AppointmentBatchRequest(List.of(APPOINTMENT_REQUEST, APPOINTMENT_REQUEST));
+        var expectedResults = List.of(
+                new AppointmentBatchResultDTO(0, AppointmentBatchResultDTO.Status.BOOKED,
+                        new AppointmentDTO(1L, "some note here", LocalDate.now(), LocalTime.of(10, 0), "DOCTOR1", "SURNAME1"), null),
+                new AppointmentBatchResultDTO(1, AppointmentBatchResultDTO.Status.CONFLICT, null, "Date is taken."));
+
+        Mockito.doReturn(expectedResults).when(customersService)
+                .makeAppointments(any(AppointmentBatchRequest.class), anyLong());
+
+        mockMvc.perform(post(CUSTOMERS_MAPPING + "/1/appointments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(expectedResults)));
+
+        Mockito.verify(customersService).makeAppointments(any(AppointmentBatchRequest.class), anyLong());
+    }
+
+    @Test
+    void testMakeAppointmentsEmptyBatch() throws Exception {
+        String requestBody = objectMapper.writeValueAsString(new AppointmentBatchRequest(List.of()));
+
+        mockMvc.perform(post(CUSTOMERS_MAPPING + "/1/appointments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(customersService);
+    }
+
+    @Test
+    void testMakeAppointmentsInvalidItem() throws Exception {
+        var invalidRequest = new AppointmentRequest(1234, null, "some note here", LocalDate.now(), LocalTime.now());
+        String requestBody = objectMapper.writeValueAsString(
+                new AppointmentBatchRequest(List.of(APPOINTMENT_REQUEST, invalidRequest)));
+
+        mockMvc.perform(post(CUSTOMERS_MAPPING + "/1/appointments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(customersService);
+    }
+
     @Test
     void testCancelAppointment() throws Exception {
 
@@ -122,4 +223,35 @@ class CustomersControllerTest {
 
         Mockito.verify(customersService).cancelAppointment(any(AppointmentRequest.class), anyLong());
     }
+
+    @Test
+    void testCancelAppointments() throws Exception {
+        CancellationResultDTO expectedResult = new CancellationResultDTO(1,
+                List.of(LocalDateTime.parse("2022-10-10T12:00")));
+        Mockito.doReturn(expectedResult).when(customersService)
+                .cancelAppointments(any(AppointmentsCancelRequest.class), anyLong());
+
+        String requestBody = objectMapper.writeValueAsString(new AppointmentsCancelRequest(1234,
+                List.of(LocalDateTime.parse("2022-10-10T11:00"), LocalDateTime.parse("2022-10-10T12:00"))));
+
+        mockMvc.perform(delete(CUSTOMERS_MAPPING + "/1/appointments/cancel/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(expectedResult)));
+
+        Mockito.verify(customersService).cancelAppointments(any(AppointmentsCancelRequest.class), anyLong());
+    }
+
+    @Test
+    void testCancelAppointmentsEmptyBatch() throws Exception {
+        String requestBody = objectMapper.writeValueAsString(new AppointmentsCancelRequest(1234, List.of()));
+
+        mockMvc.perform(delete(CUSTOMERS_MAPPING + "/1/appointments/cancel/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(customersService);
+    }
 }
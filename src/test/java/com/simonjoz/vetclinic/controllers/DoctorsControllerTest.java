@@ -1,9 +1,17 @@
 package com.simonjoz.vetclinic.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simonjoz.vetclinic.domain.DoctorAppointmentsCancelRequest;
 import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.dto.CancellationResultDTO;
+import com.simonjoz.vetclinic.dto.CursorPageDTO;
+import com.simonjoz.vetclinic.dto.DayAvailabilityDTO;
+import com.simonjoz.vetclinic.dto.DayScheduleDTO;
 import com.simonjoz.vetclinic.dto.DoctorDTO;
+import com.simonjoz.vetclinic.dto.FirstAvailableSlotDTO;
 import com.simonjoz.vetclinic.dto.PageDTO;
+import com.simonjoz.vetclinic.dto.SliceDTO;
+import com.simonjoz.vetclinic.service.AvailabilityService;
 import com.simonjoz.vetclinic.service.DoctorsService;
 import com.simonjoz.vetclinic.utils.PageReqUtils;
 import org.junit.jupiter.api.AfterEach;
@@ -15,13 +23,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -35,6 +47,9 @@ class DoctorsControllerTest {
     @MockBean
     private DoctorsService doctorsService;
 
+    @MockBean
+    private AvailabilityService availabilityService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -43,7 +58,7 @@ class DoctorsControllerTest {
 
     @AfterEach
     void reset() {
-        Mockito.reset(doctorsService);
+        Mockito.reset(doctorsService, availabilityService);
     }
 
     @Test
@@ -62,6 +77,38 @@ class DoctorsControllerTest {
         Mockito.verify(doctorsService).getPage(any(PageRequest.class));
     }
 
+    @Test
+    void testGetDoctorsSlice() throws Exception {
+        SliceDTO<DoctorDTO> expectedSlice = new SliceDTO<>(true, false, false,
+                List.of(new DoctorDTO(1L, "DR", "DOCTOR1", "SURNAME1")));
+
+        Mockito.doReturn(expectedSlice).when(doctorsService).getSlice(any(PageRequest.class));
+
+        mockMvc.perform(get(DOCTORS_MAPPING).param("slice", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(expectedSlice)));
+
+        Mockito.verify(doctorsService).getSlice(any(PageRequest.class));
+        Mockito.verify(doctorsService, Mockito.never()).getPage(any(PageRequest.class));
+    }
+
+    @Test
+    void testGetAppointmentsSliceByDoctorId() throws Exception {
+        SliceDTO<AppointmentDTO> expectedSlice = new SliceDTO<>(true, true, true, List.of());
+        PageRequest expectedRequest = PageReqUtils.getPageRequest(0, 10, "id", false);
+
+        Mockito.doReturn(expectedSlice).when(doctorsService)
+                .getAppointmentsSliceById(expectedRequest, 1L, LocalDate.parse("2022-10-10"));
+
+        mockMvc.perform(get(DOCTORS_MAPPING + "/1/appointments")
+                .param("slice", "true")
+                .param("date", "2022-10-10"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(expectedSlice)));
+
+        Mockito.verify(doctorsService).getAppointmentsSliceById(expectedRequest, 1L, LocalDate.parse("2022-10-10"));
+    }
+
     @Test
     void testGetAppointmentsPageByDoctorIdSuccess() throws Exception {
 
@@ -119,4 +166,129 @@ class DoctorsControllerTest {
                 .andExpect(content().string("Page size must not be less than one!"));
     }
 
+    @Test
+    void testGetAvailabilityByDoctorId() throws Exception {
+        LocalDate from = LocalDate.parse("2022-10-10");
+        LocalDate to = LocalDate.parse("2022-10-11");
+        List<DayAvailabilityDTO> expectedAvailability = List.of(
+                new DayAvailabilityDTO(from, List.of(LocalTime.of(8, 0), LocalTime.of(8, 30))),
+                new DayAvailabilityDTO(to, List.of()));
+
+        Mockito.when(availabilityService.getFreeSlots(1L, from, to)).thenReturn(expectedAvailability);
+
+        mockMvc.perform(get(DOCTORS_MAPPING + "/1/availability")
+                .param("from", "2022-10-10")
+                .param("to", "2022-10-11"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(expectedAvailability)));
+
+        Mockito.verify(availabilityService).getFreeSlots(1L, from, to);
+    }
+
+    @Test
+    void testGetAvailabilityByDoctorIdInvalidRange() throws Exception {
+        Mockito.when(availabilityService.getFreeSlots(any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("Range must not be longer than 31 days."));
+
+        mockMvc.perform(get(DOCTORS_MAPPING + "/1/availability")
+                .param("from", "2022-10-10")
+                .param("to", "2022-12-10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Range must not be longer than 31 days."));
+    }
+
+    @Test
+    void testGetFirstAvailableSlot() throws Exception {
+        LocalDateTime after = LocalDateTime.parse("2022-10-10T10:00");
+        FirstAvailableSlotDTO expectedSlot = new FirstAvailableSlotDTO(2L, "DR", "DOCTOR2", "SURNAME2",
+                LocalDate.parse("2022-10-10"), LocalTime.of(10, 30), true);
+
+        Mockito.when(availabilityService.findFirstAvailable(after)).thenReturn(expectedSlot);
+
+        mockMvc.perform(get(DOCTORS_MAPPING + "/availability/first")
+                .param("after", "2022-10-10T10:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(expectedSlot)));
+
+        Mockito.verify(availabilityService).findFirstAvailable(after);
+    }
+
+    @Test
+    void testCancelAppointmentsByDoctorId() throws Exception {
+        CancellationResultDTO expectedResult = new CancellationResultDTO(2, List.of());
+        DoctorAppointmentsCancelRequest cancelReq =
+                new DoctorAppointmentsCancelRequest(9876, LocalDate.parse("2022-10-10"));
+        Mockito.when(doctorsService.cancelAppointments(cancelReq, 1L)).thenReturn(expectedResult);
+
+        mockMvc.perform(delete(DOCTORS_MAPPING + "/1/appointments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(cancelReq)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(expectedResult)));
+
+        Mockito.verify(doctorsService).cancelAppointments(cancelReq, 1L);
+    }
+
+    @Test
+    void testCancelAppointmentsByDoctorIdMissingDate() throws Exception {
+        mockMvc.perform(delete(DOCTORS_MAPPING + "/1/appointments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new DoctorAppointmentsCancelRequest(9876, null))))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(doctorsService);
+    }
+
+    @Test
+    void testCancelAppointmentsByDoctorIdMissingPin() throws Exception {
+        mockMvc.perform(delete(DOCTORS_MAPPING + "/1/appointments")
+                .param("date", "2022-10-10"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(doctorsService);
+    }
+
+    @Test
+    void testGetAppointmentsCursorPageByDoctorId() throws Exception {
+        CursorPageDTO<AppointmentDTO> expectedPage = new CursorPageDTO<>(List.of(new AppointmentDTO(1L, "note",
+                LocalDate.parse("2022-10-10"), LocalTime.of(10, 0), "CUSTOMER1", "SURNAME1")), "abc", false);
+        Mockito.when(doctorsService.getAppointmentsCursorPageById(1L, 1, false, "xyz")).thenReturn(expectedPage);
+
+        mockMvc.perform(get(DOCTORS_MAPPING + "/1/appointments/cursor")
+                .param("pageSize", "1")
+                .param("cursor", "xyz"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(expectedPage)));
+
+        Mockito.verify(doctorsService).getAppointmentsCursorPageById(1L, 1, false, "xyz");
+    }
+
+    @Test
+    void testGetScheduleByDoctorId() throws Exception {
+        LocalDate date = LocalDate.parse("2022-10-10");
+        List<DayScheduleDTO> expectedSchedule = List.of(new DayScheduleDTO(date, List.of(new AppointmentDTO(1L,
+                "note", date, LocalTime.of(10, 0), "CUSTOMER1", "SURNAME1"))));
+        Mockito.when(doctorsService.getScheduleById(1L, date, date)).thenReturn(expectedSchedule);
+
+        mockMvc.perform(get(DOCTORS_MAPPING + "/1/appointments")
+                .param("from", "2022-10-10")
+                .param("to", "2022-10-10"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(expectedSchedule)));
+
+        Mockito.verify(doctorsService).getScheduleById(1L, date, date);
+        Mockito.verify(doctorsService, Mockito.never()).getAppointmentsPageById(any(PageRequest.class), anyLong(), any());
+    }
+
+    @Test
+    void testGetAppointmentsCursorPageByDoctorIdInvalidCursor() throws Exception {
+        Mockito.when(doctorsService.getAppointmentsCursorPageById(1L, 10, false, "xyz"))
+                .thenThrow(new IllegalArgumentException("Cursor 'xyz' is invalid."));
+
+        mockMvc.perform(get(DOCTORS_MAPPING + "/1/appointments/cursor")
+                .param("cursor", "xyz"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Cursor 'xyz' is invalid."));
+    }
+
 }
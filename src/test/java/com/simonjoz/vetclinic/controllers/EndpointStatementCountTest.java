@@ -0,0 +1,118 @@
+package com.simonjoz.vetclinic.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simonjoz.vetclinic.config.StatementCountGuard;
+import com.simonjoz.vetclinic.domain.AppointmentBatchRequest;
+import com.simonjoz.vetclinic.domain.AppointmentRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static com.simonjoz.vetclinic.config.StatementCountGuard.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statements sent per request of each endpoint. Budgets are the current counts, so a change which adds queries
+ * per request (e.g. n + 1 selects of eager appointment associations) fails here and must raise the budget on purpose.
+ */
+@Slf4j
+@Transactional
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@Import(StatementCountGuard.Config.class)
+@Sql(scripts = "classpath:test.sql")
+class EndpointStatementCountTest {
+
+    private static final LocalDate BOOKING_DATE = LocalDate.now().plusDays(14);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @ParameterizedTest(name = "{0} - at most {1}")
+    @CsvSource({
+            "/api/v1/customers?page=0&pageSize=10, 1",
+            "/api/v1/customers?slice=true, 1",
+            "/api/v1/customers/1/appointments, 2",
+            "/api/v1/doctors?page=0&pageSize=10, 1",
+            "/api/v1/doctors?slice=true, 1",
+            "/api/v1/doctors/1/appointments, 2",
+            "/api/v1/doctors/1/appointments?slice=true, 2",
+            "/api/v1/doctors/1/appointments?from=2022-01-17&to=2022-01-23, 2",
+            "/api/v1/doctors/1/appointments/cursor, 2",
+            "/api/v1/doctors/1/availability?from=2022-01-17&to=2022-01-23, 1"})
+    void testReadEndpointsStayWithinStatementBudget(String uri, int maxStatements) throws Exception {
+        int statements = assertMaxStatements(maxStatements, () -> mockMvc.perform(get(uri))
+                .andExpect(status().isOk()));
+        log.info("Statements of GET {}: {}.", uri, statements);
+    }
+
+    @Test
+    void testBookingStaysWithinStatementBudget() throws Exception {
+        // Doctor details lookup and conditional insert.
+        AppointmentRequest appointmentReq = new AppointmentRequest(1234, 1L, "STATEMENTS",
+                BOOKING_DATE, LocalTime.of(9, 0));
+
+        int statements = assertMaxStatements(2, () -> mockMvc.perform(post("/api/v1/customers/1/appointments/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(appointmentReq)))
+                .andExpect(status().isCreated()));
+        log.info("Statements of booking: {}.", statements);
+    }
+
+    @Test
+    void testBatchBookingStaysWithinStatementBudget() throws Exception {
+        // Pin, details of each doctor, sequence and one JDBC batch of inserts.
+        List<AppointmentRequest> appointmentReqs = List.of(
+                new AppointmentRequest(1234, 1L, "STATEMENTS", BOOKING_DATE.plusDays(1), LocalTime.of(9, 0)),
+                new AppointmentRequest(1234, 1L, "STATEMENTS", BOOKING_DATE.plusDays(1), LocalTime.of(10, 0)),
+                new AppointmentRequest(1234, 2L, "STATEMENTS", BOOKING_DATE.plusDays(1), LocalTime.of(17, 0)),
+                new AppointmentRequest(1234, 2L, "STATEMENTS", BOOKING_DATE.plusDays(1), LocalTime.of(18, 0)));
+
+        int statements = assertMaxStatements(5, () -> mockMvc.perform(post("/api/v1/customers/1/appointments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AppointmentBatchRequest(appointmentReqs))))
+                .andExpect(status().isOk()));
+        log.info("Statements of batch booking: {}.", statements);
+    }
+
+    @Test
+    void testHibernateStatisticsArePublished() throws Exception {
+        double queries = getHibernateCount("hibernate.query.executions");
+
+        mockMvc.perform(get("/api/v1/customers/1/appointments")).andExpect(status().isOk());
+
+        assertTrue(getHibernateCount("hibernate.query.executions") > queries);
+        assertNotNull(meterRegistry.find("hibernate.statements").functionCounter());
+        assertNotNull(meterRegistry.find("hibernate.entities.loads").functionCounter());
+    }
+
+    private double getHibernateCount(String metric) {
+        return meterRegistry.get(metric).functionCounter().count();
+    }
+}
@@ -0,0 +1,108 @@
+package com.simonjoz.vetclinic.jfr;
+
+import com.simonjoz.vetclinic.cache.RecordingCache;
+import com.simonjoz.vetclinic.domain.AppointmentRequest;
+import com.simonjoz.vetclinic.exceptions.UnavailableDateException;
+import com.simonjoz.vetclinic.service.CustomersService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+@Sql(scripts = "classpath:test.sql")
+class FlightRecorderEventsTest {
+
+    private static final LocalDate BOOKING_DATE = LocalDate.now().plusDays(21);
+
+    @Autowired
+    private CustomersService customersService;
+
+    @Test
+    void testBookingAndAvailabilityEventsAreRecorded() throws IOException {
+        AppointmentRequest appointmentReq = new AppointmentRequest(1234, 1L, "JFR", BOOKING_DATE, LocalTime.of(15, 0));
+        AppointmentRequest closedReq = new AppointmentRequest(1234, 1L, "JFR", BOOKING_DATE, LocalTime.of(7, 0));
+
+        List<RecordedEvent> events = record(() -> {
+            customersService.makeAppointment(appointmentReq, 1L);
+            assertThrows(UnavailableDateException.class, () -> customersService.makeAppointment(appointmentReq, 1L));
+            assertThrows(UnavailableDateException.class, () -> customersService.makeAppointment(closedReq, 1L));
+        });
+
+        List<RecordedEvent> bookings = getEvents(events, "com.simonjoz.vetclinic.Booking");
+        assertEquals(List.of(BookingEvent.BOOKED, "UnavailableDateException", "UnavailableDateException"),
+                bookings.stream().map(event -> event.getString("result")).collect(Collectors.toList()));
+        assertEquals(1L, bookings.get(0).getLong("customerId"));
+        assertEquals(1L, bookings.get(0).getLong("doctorId"));
+        assertEquals(BOOKING_DATE + "T15:00", bookings.get(0).getString("slot"));
+        assertFalse(bookings.get(0).getDuration("lockWait").isNegative());
+
+        List<RecordedEvent> checks = getEvents(events, "com.simonjoz.vetclinic.AvailabilityCheck");
+        assertEquals(List.of(AvailabilityCheckEvent.AVAILABLE, AvailabilityCheckEvent.TAKEN,
+                AvailabilityCheckEvent.CLOSED),
+                checks.stream().map(event -> event.getString("result")).collect(Collectors.toList()));
+        assertEquals(BOOKING_DATE + "T07:00", checks.get(2).getString("slot"));
+
+        // Caches are disabled in tests, so every lookup of cached doctor details is a miss.
+        assertTrue(getEvents(events, "com.simonjoz.vetclinic.CacheLookup").stream()
+                .anyMatch(event -> "doctorBookingDetails".equals(event.getString("cache"))
+                        && !event.getBoolean("hit")));
+    }
+
+    @Test
+    void testCacheHitAndMissAreRecorded() throws IOException {
+        RecordingCache cache = new RecordingCache(new ConcurrentMapCache("test"));
+
+        List<RecordedEvent> events = record(() -> {
+            cache.get(1L);
+            cache.put(1L, "VALUE");
+            cache.get(1L, String.class);
+            cache.get(2L, () -> "LOADED");
+            cache.get(2L, () -> "LOADED");
+        });
+
+        assertEquals(List.of(false, true, false, true), getEvents(events, "com.simonjoz.vetclinic.CacheLookup").stream()
+                .filter(event -> "test".equals(event.getString("cache")))
+                .map(event -> event.getBoolean("hit"))
+                .collect(Collectors.toList()));
+    }
+
+    private static List<RecordedEvent> record(Runnable action) throws IOException {
+        Path file = Files.createTempFile("vet-clinic-", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(BookingEvent.class);
+            recording.enable(AvailabilityCheckEvent.class);
+            recording.enable(CacheLookupEvent.class);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> getEvents(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> name.equals(event.getEventType().getName()))
+                .sorted((first, second) -> first.getStartTime().compareTo(second.getStartTime()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,86 @@
+package com.simonjoz.vetclinic.mappers;
+
+import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.dto.CustomerDTO;
+import com.simonjoz.vetclinic.dto.DoctorDTO;
+import com.simonjoz.vetclinic.dto.SliceDTO;
+import com.simonjoz.vetclinic.repository.AppointmentsRepo;
+import com.simonjoz.vetclinic.repository.CustomersRepo;
+import com.simonjoz.vetclinic.repository.DoctorsRepo;
+import com.simonjoz.vetclinic.utils.PageReqUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@SqlGroup({
+        @Sql(scripts = "classpath:test.sql"),
+        @Sql(scripts = "classpath:clean-up.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+})
+class SlicesMapperTest {
+
+    private static final long ID_ONE = 1L;
+    private static final int SIZE_ONE = 1;
+
+    @Autowired
+    private DoctorsRepo doctorsRepo;
+
+    @Autowired
+    private CustomersRepo customersRepo;
+
+    @Autowired
+    private AppointmentsRepo appointmentsRepo;
+
+    @Autowired
+    private SlicesMapper<DoctorDTO> doctorsSliceMapper;
+
+    @Autowired
+    private SlicesMapper<CustomerDTO> customersSliceMapper;
+
+    @Autowired
+    private SlicesMapper<AppointmentDTO> appointmentsSliceMapper;
+
+    @Test
+    void testMapDoctorsSuccess() {
+        final SliceDTO<DoctorDTO> expectedSlice = new SliceDTO<>(true, false, false,
+                List.of(new DoctorDTO(ID_ONE, "DR", "DOCTOR1", "SURNAME1")));
+
+        PageRequest pageRequest = PageReqUtils.getPageRequest(0, SIZE_ONE, null, false);
+        Slice<DoctorDTO> doctorsSlice = doctorsRepo.getDoctorsSlice(pageRequest);
+
+        assertEquals(expectedSlice, doctorsSliceMapper.map(doctorsSlice));
+    }
+
+    @Test
+    void testMapCustomersLastSlice() {
+        final SliceDTO<CustomerDTO> expectedSlice = new SliceDTO<>(false, true, false,
+                List.of(new CustomerDTO(2L, 1234, "CUSTOMER2", "SURNAME2")));
+
+        PageRequest pageRequest = PageReqUtils.getPageRequest(1, SIZE_ONE, "id", false);
+        Slice<CustomerDTO> customersSlice = customersRepo.getCustomersSlice(pageRequest);
+
+        assertEquals(expectedSlice, customersSliceMapper.map(customersSlice));
+    }
+
+    @Test
+    void testMapAppointmentsSuccess() {
+        final SliceDTO<AppointmentDTO> expectedSlice = new SliceDTO<>(true, false, false,
+                List.of(new AppointmentDTO(ID_ONE, "APPOINTMENT1", LocalDate.parse("2022-01-21"),
+                        LocalTime.of(12, 0), "CUSTOMER1", "SURNAME1")));
+
+        PageRequest pageRequest = PageReqUtils.getPageRequest(0, SIZE_ONE, "id", false);
+        Slice<AppointmentDTO> appointmentsSlice = appointmentsRepo.getDoctorAppointmentsSlice(ID_ONE, pageRequest);
+
+        assertEquals(expectedSlice, appointmentsSliceMapper.map(appointmentsSlice));
+    }
+}
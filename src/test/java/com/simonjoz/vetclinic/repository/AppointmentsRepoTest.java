@@ -1,18 +1,29 @@
 package com.simonjoz.vetclinic.repository;
 
+import com.simonjoz.vetclinic.domain.Appointment;
+import com.simonjoz.vetclinic.domain.Customer;
+import com.simonjoz.vetclinic.domain.Doctor;
 import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.dto.BookedSlotDTO;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,11 +35,15 @@ class AppointmentsRepoTest {
 
     private static final long ID_ONE = 1L;
     private static final long NONE_EXISTING_ID = 100L;
+    private static final int VALID_PIN = 1234;
     private static final PageRequest PAGE_REQUEST = PageRequest.of(0, 1);
 
     @Autowired
     private AppointmentsRepo appointmentsRepo;
 
+    @Autowired
+    private TestEntityManager testEntityManager;
+
     @Test
     void testGetDoctorAppointmentsPageForSpecifiedDate() {
         LocalDate expectedDate = LocalDate.parse("2022-01-23");
@@ -176,4 +191,229 @@ class AppointmentsRepoTest {
                 Arguments.of(LocalDateTime.parse("2022-01-21T12:01"), LocalDateTime.parse("2022-01-21T13:01")));
     }
 
+    @Test
+    void testGetDoctorIdsByCustomerIdAndTimestamp() {
+        assertEquals(List.of(2L), appointmentsRepo.getDoctorIdsByCustomerIdAndTimestamp(
+                1L, LocalDateTime.parse("2022-01-22T12:00:00")));
+        assertTrue(appointmentsRepo.getDoctorIdsByCustomerIdAndTimestamp(
+                NONE_EXISTING_ID, LocalDateTime.parse("2022-01-22T12:00:00")).isEmpty());
+    }
+
+    @Test
+    void testGetBookedSlotsFrom() {
+        List<BookedSlotDTO> bookedSlots = appointmentsRepo.getBookedSlotsFrom(LocalDateTime.parse("2022-01-23T00:00"));
+
+        assertEquals(2, bookedSlots.size());
+        assertTrue(bookedSlots.contains(new BookedSlotDTO(ID_ONE, LocalDateTime.parse("2022-01-23T12:00"))));
+        assertTrue(bookedSlots.contains(new BookedSlotDTO(2L, LocalDateTime.parse("2022-01-24T12:00"))));
+    }
+
+    @Test
+    void testGetBookedSlotsByCustomerIdAndTimestampIn() {
+        List<BookedSlotDTO> bookedSlots = appointmentsRepo.getBookedSlotsByCustomerIdAndTimestampIn(ID_ONE,
+                List.of(LocalDateTime.parse("2022-01-22T12:00"), LocalDateTime.parse("2022-01-23T12:00")));
+
+        assertEquals(List.of(new BookedSlotDTO(2L, LocalDateTime.parse("2022-01-22T12:00"))), bookedSlots);
+    }
+
+    @Test
+    void testDeleteByCustomerIdAndTimestampIn() {
+        int deleted = appointmentsRepo.deleteByCustomerIdAndTimestampIn(ID_ONE, List.of(
+                LocalDateTime.parse("2022-01-21T12:00"),
+                LocalDateTime.parse("2022-01-22T12:00"),
+                LocalDateTime.parse("2022-01-23T12:00")));
+
+        assertEquals(2, deleted);
+        assertEquals(2, appointmentsRepo.count());
+        assertTrue(appointmentsRepo.existsByCustomerIdAndTimestamp(2L, LocalDateTime.parse("2022-01-23T12:00")));
+    }
+
+    @Test
+    void testDeleteByDoctorIdAndScheduledDate() {
+        assertEquals(1, appointmentsRepo.deleteByDoctorIdAndScheduledDate(ID_ONE, LocalDate.parse("2022-01-23")));
+        assertEquals(0, appointmentsRepo.deleteByDoctorIdAndScheduledDate(ID_ONE, LocalDate.parse("2022-01-24")));
+        assertEquals(3, appointmentsRepo.count());
+    }
+
+    @Test
+    void testGetDoctorAppointmentsWithKeyset() {
+        PageRequest limit = PageRequest.of(0, 1);
+
+        List<AppointmentDTO> first = appointmentsRepo.getDoctorAppointmentsFirst(ID_ONE, limit);
+        List<AppointmentDTO> next = appointmentsRepo.getDoctorAppointmentsAfter(ID_ONE,
+                LocalDateTime.parse("2022-01-21T12:00"), 1L, limit);
+        List<AppointmentDTO> end = appointmentsRepo.getDoctorAppointmentsAfter(ID_ONE,
+                LocalDateTime.parse("2022-01-23T12:00"), 3L, limit);
+
+        assertEquals(1L, first.get(0).getId());
+        assertEquals(3L, next.get(0).getId());
+        assertTrue(end.isEmpty());
+    }
+
+    @Test
+    void testGetDoctorAppointmentsWithKeysetDescending() {
+        PageRequest limit = PageRequest.of(0, 1);
+
+        List<AppointmentDTO> last = appointmentsRepo.getDoctorAppointmentsLast(ID_ONE, limit);
+        List<AppointmentDTO> previous = appointmentsRepo.getDoctorAppointmentsBefore(ID_ONE,
+                LocalDateTime.parse("2022-01-23T12:00"), 3L, limit);
+        List<AppointmentDTO> end = appointmentsRepo.getDoctorAppointmentsBefore(ID_ONE,
+                LocalDateTime.parse("2022-01-21T12:00"), 1L, limit);
+
+        assertEquals(3L, last.get(0).getId());
+        assertEquals(1L, previous.get(0).getId());
+        assertTrue(end.isEmpty());
+    }
+
+    @Test
+    void testGetDoctorDaySchedule() {
+        testEntityManager.getEntityManager().createNativeQuery("INSERT INTO appointments " +
+                "(id, note, scheduled_date, scheduled_time, timestamp, customer_id, doctor_id) VALUES " +
+                "(5, 'APPOINTMENT5', '2022-01-23', '09:00:00', '2022-01-23 09:00:00', 1, 1)").executeUpdate();
+
+        List<AppointmentDTO> schedule = appointmentsRepo.getDoctorDaySchedule(ID_ONE, LocalDate.parse("2022-01-23"));
+
+        assertEquals(List.of(5L, 3L), schedule.stream().map(AppointmentDTO::getId).collect(Collectors.toList()));
+        assertEquals("CUSTOMER2", schedule.get(1).getPersonName());
+        assertTrue(appointmentsRepo.getDoctorDaySchedule(ID_ONE, LocalDate.parse("2022-01-24")).isEmpty());
+    }
+
+    @Test
+    void testGetDoctorAppointmentsBetween() {
+        List<AppointmentDTO> appointments = appointmentsRepo.getDoctorAppointmentsBetween(ID_ONE,
+                LocalDateTime.parse("2022-01-21T12:00"), LocalDateTime.parse("2022-01-24T00:00"));
+
+        assertEquals(List.of(1L, 3L), appointments.stream().map(AppointmentDTO::getId).collect(Collectors.toList()));
+        assertTrue(appointmentsRepo.getDoctorAppointmentsBetween(ID_ONE,
+                LocalDateTime.parse("2022-01-21T12:01"), LocalDateTime.parse("2022-01-23T12:00")).isEmpty());
+    }
+
+    @Test
+    void testGetCustomerAppointments() {
+        List<AppointmentDTO> appointments = appointmentsRepo.getCustomerAppointments(2L);
+
+        assertEquals(List.of(3L, 4L), appointments.stream().map(AppointmentDTO::getId).collect(Collectors.toList()));
+        assertEquals("DOCTOR1", appointments.get(0).getPersonName());
+        assertEquals("DOCTOR2", appointments.get(1).getPersonName());
+        assertTrue(appointmentsRepo.getCustomerAppointments(NONE_EXISTING_ID).isEmpty());
+    }
+
+    @Test
+    void testGetCustomerIdsByDoctorIdAndScheduledDate() {
+        assertEquals(List.of(2L), appointmentsRepo.getCustomerIdsByDoctorIdAndScheduledDate(ID_ONE,
+                LocalDate.parse("2022-01-23")));
+        assertTrue(appointmentsRepo.getCustomerIdsByDoctorIdAndScheduledDate(ID_ONE,
+                LocalDate.parse("2022-01-24")).isEmpty());
+    }
+
+    @Test
+    void testGetDoctorAppointment() {
+        Optional<AppointmentDTO> appointment = appointmentsRepo.getDoctorAppointment(3L);
+
+        assertTrue(appointment.isPresent());
+        assertEquals("CUSTOMER2", appointment.get().getPersonName());
+        assertTrue(appointmentsRepo.getDoctorAppointment(NONE_EXISTING_ID).isEmpty());
+    }
+
+    @Test
+    void testDifferentDoctorsCanBeBookedAtTheSameTime() {
+        LocalDateTime timestamp = LocalDate.now().plusDays(1).atTime(12, 0);
+        appointmentsRepo.saveAndFlush(buildAppointment(ID_ONE, ID_ONE, timestamp));
+
+        Appointment appointment = appointmentsRepo.saveAndFlush(buildAppointment(2L, 2L, timestamp));
+
+        assertNotNull(appointment.getId());
+        assertEquals(List.of(ID_ONE), appointmentsRepo.getDoctorIdsByCustomerIdAndTimestamp(ID_ONE, timestamp));
+        assertEquals(List.of(2L), appointmentsRepo.getDoctorIdsByCustomerIdAndTimestamp(2L, timestamp));
+    }
+
+    @Test
+    void testDoctorCannotBeBookedTwiceAtTheSameTime() {
+        LocalDateTime timestamp = LocalDate.now().plusDays(1).atTime(12, 0);
+        appointmentsRepo.saveAndFlush(buildAppointment(ID_ONE, ID_ONE, timestamp));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> appointmentsRepo.saveAndFlush(buildAppointment(2L, ID_ONE, timestamp)));
+    }
+
+    @Test
+    void testInsertIfAvailable() {
+        LocalDateTime timestamp = LocalDate.now().plusDays(1).atTime(12, 0);
+
+        Optional<Long> appointmentId = appointmentsRepo.insertIfAvailable(
+                ID_ONE, VALID_PIN, ID_ONE, "NEW APPOINTMENT", timestamp, 30);
+
+        assertTrue(appointmentId.isPresent());
+        Appointment appointment = testEntityManager.find(Appointment.class, appointmentId.get());
+        assertEquals("NEW APPOINTMENT", appointment.getNote());
+        assertEquals(timestamp, appointment.getTimestamp());
+        assertEquals(timestamp.toLocalDate(), appointment.getScheduledDate());
+        assertEquals(timestamp.toLocalTime(), appointment.getScheduledTime());
+        assertEquals(ID_ONE, appointment.getCustomer().getId());
+        assertEquals(ID_ONE, appointment.getDoctor().getId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-29, -1, 0, 1, 29})
+    void testInsertIfAvailableOverlappingAppointment(int offset) {
+        LocalDateTime timestamp = LocalDate.now().plusDays(1).atTime(12, 0);
+        appointmentsRepo.saveAndFlush(buildAppointment(ID_ONE, ID_ONE, timestamp));
+
+        assertTrue(appointmentsRepo.insertIfAvailable(
+                2L, VALID_PIN, ID_ONE, null, timestamp.plusMinutes(offset), 30).isEmpty());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-30, 30})
+    void testInsertIfAvailableAdjacentAppointment(int offset) {
+        LocalDateTime timestamp = LocalDate.now().plusDays(1).atTime(12, 0);
+        appointmentsRepo.saveAndFlush(buildAppointment(ID_ONE, ID_ONE, timestamp));
+
+        assertTrue(appointmentsRepo.insertIfAvailable(
+                2L, VALID_PIN, ID_ONE, null, timestamp.plusMinutes(offset), 30).isPresent());
+        assertTrue(appointmentsRepo.insertIfAvailable(
+                2L, VALID_PIN, 2L, null, timestamp, 30).isPresent());
+    }
+
+    @Test
+    void testInsertIfAvailableInvalidCustomer() {
+        LocalDateTime timestamp = LocalDate.now().plusDays(1).atTime(12, 0);
+
+        assertTrue(appointmentsRepo.insertIfAvailable(ID_ONE, 4321, ID_ONE, null, timestamp, 30).isEmpty());
+        assertTrue(appointmentsRepo.insertIfAvailable(NONE_EXISTING_ID, VALID_PIN, ID_ONE, null, timestamp, 30).isEmpty());
+        assertFalse(appointmentsRepo.existsByCustomerIdAndTimestamp(ID_ONE, timestamp));
+    }
+
+    @Test
+    void testInsertAllIfAvailable() {
+        LocalDateTime timestamp = LocalDate.now().plusDays(1).atTime(12, 0);
+        appointmentsRepo.saveAndFlush(buildAppointment(ID_ONE, ID_ONE, timestamp));
+        List<Appointment> appointments = List.of(
+                buildAppointment(2L, ID_ONE, timestamp.plusMinutes(30)),
+                buildAppointment(2L, ID_ONE, timestamp.minusMinutes(15)),
+                buildAppointment(2L, 2L, timestamp),
+                buildAppointment(2L, ID_ONE, timestamp.plusMinutes(45)));
+
+        boolean[] inserted = appointmentsRepo.insertAllIfAvailable(appointments, Map.of(ID_ONE, 30, 2L, 30));
+
+        // Last appointment overlaps the first one inserted earlier in the same batch.
+        assertArrayEquals(new boolean[]{true, false, true, false}, inserted);
+        assertTrue(appointments.stream().allMatch(appointment -> appointment.getId() != null));
+        Appointment appointment = testEntityManager.find(Appointment.class, appointments.get(0).getId());
+        assertEquals(timestamp.plusMinutes(30), appointment.getTimestamp());
+        assertEquals(2L, appointment.getCustomer().getId());
+        assertNull(testEntityManager.find(Appointment.class, appointments.get(1).getId()));
+    }
+
+    private Appointment buildAppointment(Long customerId, Long doctorId, LocalDateTime timestamp) {
+        return Appointment.builder()
+                .customer(testEntityManager.find(Customer.class, customerId))
+                .doctor(testEntityManager.find(Doctor.class, doctorId))
+                .note("NEW APPOINTMENT")
+                .scheduledDate(timestamp.toLocalDate())
+                .scheduledTime(timestamp.toLocalTime())
+                .timestamp(timestamp)
+                .build();
+    }
+
 }
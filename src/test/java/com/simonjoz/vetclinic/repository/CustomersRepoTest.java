@@ -77,4 +77,10 @@ class CustomersRepoTest {
         assertEquals(Optional.empty(), customerPinById);
     }
 
+    @Test
+    void testGetCustomerById() {
+        assertEquals(Optional.of(doctorsList.get(1)), customersRepo.getCustomerById(2L));
+        assertEquals(Optional.empty(), customersRepo.getCustomerById(5L));
+    }
+
 }
@@ -0,0 +1,249 @@
+package com.simonjoz.vetclinic.repository;
+
+import com.simonjoz.vetclinic.domain.Appointment;
+import com.simonjoz.vetclinic.domain.Customer;
+import com.simonjoz.vetclinic.domain.Doctor;
+import com.simonjoz.vetclinic.dto.AppointmentExportDTO;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every query method of the repositories, then EXPLAINs each statement sent to H2 with the same parameters.
+ * No statement may read whole table, except counts of all rows which H2 answers by direct lookup.
+ */
+@DataJpaTest
+@Sql(scripts = "classpath:test.sql")
+@Import(QueryPlansTest.StatementsCaptureConfig.class)
+class QueryPlansTest {
+
+    private static final long ID_ONE = 1L;
+    private static final LocalDate DATE = LocalDate.parse("2022-01-21");
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.parse("2022-01-21T12:00:00");
+    private static final PageRequest PAGE_REQUEST = PageRequest.of(0, 2);
+    private static final PageRequest SORTED_PAGE_REQUEST = PageRequest.of(0, 2, Sort.by("surname"));
+    private static final String TABLE_SCAN = ".tableScan";
+    private static final String DIRECT_LOOKUP = "/* direct lookup */";
+
+    private static final List<QueryInfo> capturedStatements = Collections.synchronizedList(new ArrayList<>());
+
+    @Autowired
+    private AppointmentsRepo appointmentsRepo;
+
+    @Autowired
+    private CustomersRepo customersRepo;
+
+    @Autowired
+    private DoctorsRepo doctorsRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.flush();
+        capturedStatements.clear();
+    }
+
+    @Test
+    void testEveryQueryMethodIsExplained() {
+        Set<String> explainedMethods = queryMethodCalls()
+                .map(arguments -> (String) arguments.get()[0])
+                .collect(Collectors.toSet());
+
+        Stream.of(AppointmentsRepo.class, AppointmentsRepoCustom.class, CustomersRepo.class, DoctorsRepo.class)
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods()))
+                .filter(method -> !method.isSynthetic())
+                .map(QueryPlansTest::signature)
+                .forEach(signature -> assertTrue(explainedMethods.contains(signature),
+                        "Query plan of " + signature + " is not verified."));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queryMethodCalls")
+    void testQueryDoesNotScanWholeTable(String signature, Consumer<QueryPlansTest> call) {
+        call.accept(this);
+        entityManager.flush();
+        List<QueryInfo> statements = List.copyOf(capturedStatements);
+        assertFalse(statements.isEmpty(), "No statement was sent by " + signature);
+
+        for (QueryInfo statement : statements) {
+            String plan = explain(statement);
+            assertFalse(plan.contains(TABLE_SCAN) && !plan.contains(DIRECT_LOOKUP),
+                    () -> signature + " scans whole table:\n" + plan);
+        }
+    }
+
+    static Stream<Arguments> queryMethodCalls() {
+        return Stream.of(
+                call("AppointmentsRepo.getDoctorAppointmentsPage(Long,Pageable)",
+                        test -> test.appointmentsRepo.getDoctorAppointmentsPage(ID_ONE, PAGE_REQUEST)),
+                call("AppointmentsRepo.getDoctorAppointmentsPage(Long,LocalDate,Pageable)",
+                        test -> test.appointmentsRepo.getDoctorAppointmentsPage(ID_ONE, DATE, PAGE_REQUEST)),
+                call("AppointmentsRepo.getDoctorAppointmentsSlice(Long,Pageable)",
+                        test -> test.appointmentsRepo.getDoctorAppointmentsSlice(ID_ONE, PAGE_REQUEST)),
+                call("AppointmentsRepo.getDoctorAppointmentsSlice(Long,LocalDate,Pageable)",
+                        test -> test.appointmentsRepo.getDoctorAppointmentsSlice(ID_ONE, DATE, PAGE_REQUEST)),
+                call("AppointmentsRepo.getDoctorAppointmentsFirst(Long,Pageable)",
+                        test -> test.appointmentsRepo.getDoctorAppointmentsFirst(ID_ONE, PAGE_REQUEST)),
+                call("AppointmentsRepo.getDoctorAppointmentsAfter(Long,LocalDateTime,Long,Pageable)",
+                        test -> test.appointmentsRepo.getDoctorAppointmentsAfter(ID_ONE, TIMESTAMP, ID_ONE, PAGE_REQUEST)),
+                call("AppointmentsRepo.getDoctorAppointmentsLast(Long,Pageable)",
+                        test -> test.appointmentsRepo.getDoctorAppointmentsLast(ID_ONE, PAGE_REQUEST)),
+                call("AppointmentsRepo.getDoctorAppointmentsBefore(Long,LocalDateTime,Long,Pageable)",
+                        test -> test.appointmentsRepo.getDoctorAppointmentsBefore(ID_ONE, TIMESTAMP, ID_ONE, PAGE_REQUEST)),
+                call("AppointmentsRepo.getDoctorAppointmentsBetween(Long,LocalDateTime,LocalDateTime)",
+                        test -> test.appointmentsRepo.getDoctorAppointmentsBetween(ID_ONE,
+                                DATE.atStartOfDay(), DATE.plusWeeks(1).atStartOfDay())),
+                call("AppointmentsRepo.streamAppointmentsBetween(LocalDateTime,LocalDateTime)",
+                        test -> {
+                            try (Stream<AppointmentExportDTO> appointments = test.appointmentsRepo
+                                    .streamAppointmentsBetween(DATE.atStartOfDay(), DATE.plusWeeks(1).atStartOfDay())) {
+                                appointments.forEach(appointment -> { });
+                            }
+                        }),
+                call("AppointmentsRepo.getCustomerAppointments(Long)",
+                        test -> test.appointmentsRepo.getCustomerAppointments(ID_ONE)),
+                call("AppointmentsRepo.getCustomerIdsByDoctorIdAndScheduledDate(Long,LocalDate)",
+                        test -> test.appointmentsRepo.getCustomerIdsByDoctorIdAndScheduledDate(ID_ONE, DATE)),
+                call("AppointmentsRepo.getDoctorDaySchedule(Long,LocalDate)",
+                        test -> test.appointmentsRepo.getDoctorDaySchedule(ID_ONE, DATE)),
+                call("AppointmentsRepo.getDoctorAppointment(Long)",
+                        test -> test.appointmentsRepo.getDoctorAppointment(ID_ONE)),
+                call("AppointmentsRepo.isDateAndTimeAvailableForDoctorWithId(Long,LocalDateTime,LocalDateTime,LocalDateTime)",
+                        test -> test.appointmentsRepo.isDateAndTimeAvailableForDoctorWithId(ID_ONE,
+                                TIMESTAMP.minusMinutes(30), TIMESTAMP.plusMinutes(30), TIMESTAMP)),
+                call("AppointmentsRepo.deleteByCustomerIdAndTimestamp(Long,LocalDateTime)",
+                        test -> test.appointmentsRepo.deleteByCustomerIdAndTimestamp(ID_ONE, TIMESTAMP)),
+                call("AppointmentsRepo.deleteByCustomerIdAndTimestampIn(Long,Collection)",
+                        test -> test.appointmentsRepo.deleteByCustomerIdAndTimestampIn(ID_ONE,
+                                List.of(TIMESTAMP, TIMESTAMP.plusDays(1)))),
+                call("AppointmentsRepo.deleteByDoctorIdAndScheduledDate(Long,LocalDate)",
+                        test -> test.appointmentsRepo.deleteByDoctorIdAndScheduledDate(ID_ONE, DATE)),
+                call("AppointmentsRepo.existsByCustomerIdAndTimestamp(Long,LocalDateTime)",
+                        test -> test.appointmentsRepo.existsByCustomerIdAndTimestamp(ID_ONE, TIMESTAMP)),
+                call("AppointmentsRepo.getDoctorIdsByCustomerIdAndTimestamp(Long,LocalDateTime)",
+                        test -> test.appointmentsRepo.getDoctorIdsByCustomerIdAndTimestamp(ID_ONE, TIMESTAMP)),
+                call("AppointmentsRepo.getBookedSlotsFrom(LocalDateTime)",
+                        test -> test.appointmentsRepo.getBookedSlotsFrom(TIMESTAMP.plusDays(2))),
+                call("AppointmentsRepo.getBookedSlotsByCustomerIdAndTimestampIn(Long,Collection)",
+                        test -> test.appointmentsRepo.getBookedSlotsByCustomerIdAndTimestampIn(ID_ONE,
+                                List.of(TIMESTAMP, TIMESTAMP.plusDays(1)))),
+                call("AppointmentsRepoCustom.insertIfAvailable(Long,int,Long,String,LocalDateTime,int)",
+                        test -> test.appointmentsRepo.insertIfAvailable(ID_ONE, 1234, ID_ONE, "NOTE",
+                                TIMESTAMP.plusDays(10), 30)),
+                call("AppointmentsRepoCustom.insertAllIfAvailable(List,Map)",
+                        test -> test.appointmentsRepo.insertAllIfAvailable(List.of(Appointment.builder()
+                                .customer(test.entityManager.getReference(Customer.class, ID_ONE))
+                                .doctor(test.entityManager.getReference(Doctor.class, ID_ONE))
+                                .note("NOTE")
+                                .scheduledDate(DATE.plusDays(10))
+                                .scheduledTime(TIMESTAMP.toLocalTime())
+                                .timestamp(TIMESTAMP.plusDays(10))
+                                .build()), Map.of(ID_ONE, 30))),
+                call("CustomersRepo.getCustomersPage(PageRequest)",
+                        test -> test.customersRepo.getCustomersPage(SORTED_PAGE_REQUEST)),
+                call("CustomersRepo.getCustomersSlice(PageRequest)",
+                        test -> test.customersRepo.getCustomersSlice(SORTED_PAGE_REQUEST)),
+                call("CustomersRepo.getCustomerPinById(Long)",
+                        test -> test.customersRepo.getCustomerPinById(ID_ONE)),
+                call("CustomersRepo.getCustomerById(Long)",
+                        test -> test.customersRepo.getCustomerById(ID_ONE)),
+                call("DoctorsRepo.getDoctorsPage(Pageable)",
+                        test -> test.doctorsRepo.getDoctorsPage(SORTED_PAGE_REQUEST)),
+                call("DoctorsRepo.getDoctorsSlice(Pageable)",
+                        test -> test.doctorsRepo.getDoctorsSlice(SORTED_PAGE_REQUEST)));
+    }
+
+    private static Arguments call(String signature, Consumer<QueryPlansTest> call) {
+        return Arguments.of(signature, call);
+    }
+
+    private static String signature(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    /**
+     * Statement is explained with parameters it has been sent with, so H2 picks the same plan.
+     */
+    private String explain(QueryInfo statement) {
+        return jdbcTemplate.execute("EXPLAIN " + statement.getQuery(), (PreparedStatement explainStatement) -> {
+            for (List<ParameterSetOperation> parameters : statement.getParametersList()) {
+                for (ParameterSetOperation parameter : parameters) {
+                    invoke(parameter.getMethod(), explainStatement, parameter.getArgs());
+                }
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = explainStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1));
+                }
+            }
+            return plan.toString();
+        });
+    }
+
+    private static void invoke(Method setter, PreparedStatement statement, Object[] args) {
+        try {
+            setter.invoke(statement, args);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @TestConfiguration
+    static class StatementsCaptureConfig {
+
+        @Bean
+        static BeanPostProcessor statementsCaptureDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource) {
+                        return ProxyDataSourceBuilder.create((DataSource) bean)
+                                .afterQuery((execInfo, queries) -> queries.stream()
+                                        .filter(query -> !query.getQuery().startsWith("EXPLAIN "))
+                                        .filter(query -> !query.getQuery().startsWith("call next value"))
+                                        .forEach(capturedStatements::add))
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
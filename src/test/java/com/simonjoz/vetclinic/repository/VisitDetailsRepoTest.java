@@ -1,5 +1,6 @@
 package com.simonjoz.vetclinic.repository;
 
+import com.simonjoz.vetclinic.dto.DoctorTimingDetailsDTO;
 import com.simonjoz.vetclinic.dto.TimingDetailsDTO;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -10,6 +11,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.time.LocalTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -53,4 +55,15 @@ class VisitDetailsRepoTest {
         Optional<TimingDetailsDTO> timingDetails = visitDetailsRepo.getTimingDetails(noneExistingId);
         assertTrue(timingDetails.isEmpty());
     }
+
+    @Test
+    void testGetDoctorsTimingDetails() {
+        List<DoctorTimingDetailsDTO> doctorsTimingDetails = visitDetailsRepo.getDoctorsTimingDetails();
+
+        assertEquals(2, doctorsTimingDetails.size());
+        assertTrue(doctorsTimingDetails.contains(new DoctorTimingDetailsDTO(1L, "DR", "DOCTOR1", "SURNAME1",
+                30, LocalTime.of(8, 0), LocalTime.of(16, 0))));
+        assertTrue(doctorsTimingDetails.contains(new DoctorTimingDetailsDTO(2L, "DR", "DOCTOR2", "SURNAME2",
+                60, LocalTime.of(16, 0), LocalTime.of(0, 0))));
+    }
 }
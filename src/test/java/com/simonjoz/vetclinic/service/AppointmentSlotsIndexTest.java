@@ -0,0 +1,143 @@
+package com.simonjoz.vetclinic.service;
+
+import com.simonjoz.vetclinic.dto.BookedSlotDTO;
+import com.simonjoz.vetclinic.repository.AppointmentsRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+
+class AppointmentSlotsIndexTest {
+
+    private static final long DOCTOR_ONE_ID = 1L;
+    private static final long DOCTOR_TWO_ID = 2L;
+    private static final int DURATION = 30;
+    private static final LocalDateTime BOOKED = LocalDateTime.parse("2022-01-21T12:00");
+
+    private AppointmentsRepo appointmentsRepo;
+    private AppointmentSlotsIndex slotsIndex;
+
+    @BeforeEach
+    void setUp() {
+        appointmentsRepo = Mockito.mock(AppointmentsRepo.class);
+        Mockito.doReturn(List.of(new BookedSlotDTO(DOCTOR_ONE_ID, BOOKED)))
+                .when(appointmentsRepo).getBookedSlotsFrom(any(LocalDateTime.class));
+
+        slotsIndex = new AppointmentSlotsIndex(appointmentsRepo);
+        slotsIndex.rebuild();
+    }
+
+    @Test
+    void testRebuildLoadsBookedSlots() {
+        assertTrue(slotsIndex.isBooked(DOCTOR_ONE_ID, BOOKED));
+        assertFalse(slotsIndex.isBooked(DOCTOR_TWO_ID, BOOKED));
+        Mockito.verify(appointmentsRepo).getBookedSlotsFrom(LocalDate.now().minusDays(1).atStartOfDay());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-29, -10, -1, 0, 1, 10, 29})
+    void testIsAvailableShouldReturnFalseWithinVisitDuration(int offset) {
+        assertFalse(slotsIndex.isAvailable(DOCTOR_ONE_ID, BOOKED.plusMinutes(offset), DURATION));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-120, -31, -30, 30, 31, 120})
+    void testIsAvailableShouldReturnTrueOutsideVisitDuration(int offset) {
+        assertTrue(slotsIndex.isAvailable(DOCTOR_ONE_ID, BOOKED.plusMinutes(offset), DURATION));
+    }
+
+    @Test
+    void testIsAvailableIsScopedToDoctor() {
+        assertTrue(slotsIndex.isAvailable(DOCTOR_TWO_ID, BOOKED, DURATION));
+    }
+
+    @Test
+    void testIsAvailableAcrossMidnight() {
+        LocalDateTime lateEvening = LocalDateTime.parse("2022-01-21T23:50");
+        LocalDateTime earlyMorning = LocalDateTime.parse("2022-01-22T00:10");
+
+        slotsIndex.book(DOCTOR_TWO_ID, lateEvening);
+        assertFalse(slotsIndex.isAvailable(DOCTOR_TWO_ID, earlyMorning, DURATION));
+
+        slotsIndex.release(DOCTOR_TWO_ID, lateEvening);
+        slotsIndex.book(DOCTOR_TWO_ID, earlyMorning);
+        assertFalse(slotsIndex.isAvailable(DOCTOR_TWO_ID, lateEvening, DURATION));
+        assertTrue(slotsIndex.isAvailable(DOCTOR_TWO_ID, earlyMorning.plusMinutes(DURATION), DURATION));
+    }
+
+    @Test
+    void testBookAndRelease() {
+        LocalDateTime timestamp = LocalDateTime.parse("2022-01-23T15:00");
+
+        slotsIndex.book(DOCTOR_TWO_ID, timestamp);
+        assertTrue(slotsIndex.isBooked(DOCTOR_TWO_ID, timestamp));
+        assertFalse(slotsIndex.isAvailable(DOCTOR_TWO_ID, timestamp, DURATION));
+
+        slotsIndex.release(DOCTOR_TWO_ID, timestamp);
+        assertFalse(slotsIndex.isBooked(DOCTOR_TWO_ID, timestamp));
+        assertTrue(slotsIndex.isAvailable(DOCTOR_TWO_ID, timestamp, DURATION));
+    }
+
+    @Test
+    void testIsAvailableFirstAndLastMinuteOfDay() {
+        LocalDate date = LocalDate.parse("2022-01-25");
+        slotsIndex.book(DOCTOR_TWO_ID, date.atStartOfDay());
+        slotsIndex.book(DOCTOR_TWO_ID, date.atTime(23, 59));
+
+        assertFalse(slotsIndex.isAvailable(DOCTOR_TWO_ID, date.atTime(0, 1), 2));
+        assertFalse(slotsIndex.isAvailable(DOCTOR_TWO_ID, date.atTime(23, 58), 2));
+        assertTrue(slotsIndex.isAvailable(DOCTOR_TWO_ID, date.atTime(12, 0), 60));
+    }
+
+    @Test
+    void testGetBookedTimes() {
+        LocalDate date = LocalDate.parse("2022-01-26");
+        slotsIndex.book(DOCTOR_TWO_ID, date.atTime(23, 59));
+        slotsIndex.book(DOCTOR_TWO_ID, date.atStartOfDay());
+        slotsIndex.book(DOCTOR_TWO_ID, date.atTime(1, 4));
+
+        assertEquals(List.of(LocalTime.MIN, LocalTime.of(1, 4), LocalTime.of(23, 59)),
+                slotsIndex.getBookedTimes(DOCTOR_TWO_ID, date));
+        assertEquals(List.of(), slotsIndex.getBookedTimes(DOCTOR_TWO_ID, date.plusDays(1)));
+    }
+
+    @Test
+    void testBookingDuringRebuildIsKept() throws InterruptedException {
+        LocalDateTime timestamp = LocalDateTime.parse("2022-01-24T10:00");
+        Thread[] booking = new Thread[1];
+        Mockito.doAnswer(invocation -> {
+            booking[0] = new Thread(() -> slotsIndex.book(DOCTOR_TWO_ID, timestamp));
+            booking[0].start();
+            return List.of(new BookedSlotDTO(DOCTOR_ONE_ID, BOOKED));
+        }).when(appointmentsRepo).getBookedSlotsFrom(any(LocalDateTime.class));
+
+        slotsIndex.rebuild();
+        booking[0].join();
+
+        assertTrue(slotsIndex.isBooked(DOCTOR_ONE_ID, BOOKED));
+        assertTrue(slotsIndex.isBooked(DOCTOR_TWO_ID, timestamp));
+    }
+
+    @Test
+    void testPurgeDaysBefore() {
+        LocalDateTime later = BOOKED.plusDays(1);
+        slotsIndex.book(DOCTOR_TWO_ID, later);
+
+        slotsIndex.purgeDaysBefore(later.toLocalDate());
+
+        assertFalse(slotsIndex.isBooked(DOCTOR_ONE_ID, BOOKED));
+        assertTrue(slotsIndex.isBooked(DOCTOR_TWO_ID, later));
+        assertEquals(1, slotsIndex.getIndexedDaysCount());
+    }
+}
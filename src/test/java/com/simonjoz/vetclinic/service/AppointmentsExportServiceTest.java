@@ -0,0 +1,120 @@
+package com.simonjoz.vetclinic.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simonjoz.vetclinic.domain.ExportFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+@Sql(scripts = "classpath:test.sql")
+class AppointmentsExportServiceTest {
+
+    private static final LocalDate FROM = LocalDate.parse("2022-01-21");
+    private static final LocalDate TO = LocalDate.parse("2022-01-23");
+
+    @Autowired
+    private AppointmentsExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testExportNdjson() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = exportService.export(FROM, TO, ExportFormat.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, rows);
+        assertEquals(3, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("2022-01-21", first.get("scheduledDate").asText());
+        assertEquals("12:00", first.get("scheduledTime").asText());
+        assertEquals("DOCTOR1", first.get("doctorName").asText());
+        assertEquals("CUSTOMER1", first.get("customerName").asText());
+        assertEquals(150, first.get("visitPrice").asInt());
+        assertEquals(3L, objectMapper.readTree(lines[2]).get("id").asLong());
+    }
+
+    @Test
+    void testExportCsv() throws IOException {
+        jdbcTemplate.update("UPDATE appointments SET note = ? WHERE id = 3", "Dog, \"Rex\"");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exportService.export(FROM, TO, ExportFormat.CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, lines.length);
+        assertEquals(AppointmentsExportService.CSV_HEADER, lines[0]);
+        assertEquals("1,2022-01-21,12:00,1,DOCTOR1,SURNAME1,1,CUSTOMER1,SURNAME1,150.00,APPOINTMENT1", lines[1]);
+        assertEquals("3,2022-01-23,12:00,1,DOCTOR1,SURNAME1,2,CUSTOMER2,SURNAME2,150.00,\"Dog, \"\"Rex\"\"\"", lines[3]);
+    }
+
+    @Test
+    void testExportEmptyRange() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(0, exportService.export(LocalDate.parse("2021-01-01"), LocalDate.parse("2021-12-31"),
+                ExportFormat.NDJSON, output));
+        assertEquals(0, output.size());
+    }
+
+    @Test
+    void testExportIsWrittenIncrementally() throws IOException {
+        int appointments = AppointmentsExportService.FLUSH_INTERVAL * 3;
+        List<Object[]> rows = new ArrayList<>();
+        LocalDateTime timestamp = LocalDateTime.parse("2023-01-01T08:00");
+        for (int i = 0; i < appointments; i++) {
+            LocalDateTime slot = timestamp.plusMinutes(30L * i);
+            rows.add(new Object[]{10_000 + i, "EXPORT", slot.toLocalDate(), slot.toLocalTime(), slot, 1, 1});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO appointments (id, note, scheduled_date, scheduled_time, timestamp, " +
+                "customer_id, doctor_id) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        FlushCountingOutputStream output = new FlushCountingOutputStream();
+
+        long exported = exportService.export(LocalDate.parse("2023-01-01"), LocalDate.parse("2023-12-31"),
+                ExportFormat.CSV, output);
+
+        assertEquals(appointments, exported);
+        // Rows are flushed in chunks while read, not once all have been read.
+        assertTrue(output.flushes > 3);
+        assertEquals(appointments + 1, output.toString(StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    @Test
+    void testExportInvalidRange() {
+        RuntimeException ex = assertThrows(IllegalArgumentException.class,
+                () -> exportService.export(TO, FROM, ExportFormat.CSV, new ByteArrayOutputStream()));
+        assertEquals("Date 'from' must not be after date 'to'.", ex.getMessage());
+    }
+
+    private static class FlushCountingOutputStream extends ByteArrayOutputStream {
+
+        private int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.simonjoz.vetclinic.service;
 
+import com.simonjoz.vetclinic.cache.DoctorDaySchedules;
 import com.simonjoz.vetclinic.domain.*;
+import com.simonjoz.vetclinic.dto.AppointmentBatchResultDTO;
 import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.dto.BookedSlotDTO;
+import com.simonjoz.vetclinic.dto.CancellationResultDTO;
+import com.simonjoz.vetclinic.dto.CursorPageDTO;
+import com.simonjoz.vetclinic.dto.CustomerDTO;
+import com.simonjoz.vetclinic.dto.DayScheduleDTO;
+import com.simonjoz.vetclinic.dto.DoctorTimingDetailsDTO;
 import com.simonjoz.vetclinic.dto.PageDTO;
-import com.simonjoz.vetclinic.dto.TimingDetailsDTO;
 import com.simonjoz.vetclinic.exceptions.RemovalFailureException;
 import com.simonjoz.vetclinic.exceptions.UnavailableDateException;
-import com.simonjoz.vetclinic.mappers.CustomerAppointmentMapper;
 import com.simonjoz.vetclinic.mappers.PagesMapper;
 import com.simonjoz.vetclinic.repository.AppointmentsRepo;
+import com.simonjoz.vetclinic.repository.CustomersRepo;
 import com.simonjoz.vetclinic.repository.VisitDetailsRepo;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -19,28 +26,32 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import static com.simonjoz.vetclinic.dto.AppointmentBatchResultDTO.Status.*;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.*;
 
 @SpringBootTest
 class AppointmentsServiceTest {
 
-    private static final AppointmentRequest APPOINTMENT_REQUEST = new AppointmentRequest(1234, 1L,
-            "some note here", LocalDate.now(), LocalTime.now());
+    private static final DoctorTimingDetailsDTO DOCTOR_ONE_DETAILS = new DoctorTimingDetailsDTO(1L, "DR",
+            "DOCTOR1", "SURNAME1", 30, LocalTime.of(8, 0), LocalTime.of(16, 0));
 
     @Value("${spring.application.appointment-duration}")
     private int appointmentDuration;
@@ -48,90 +59,163 @@ class AppointmentsServiceTest {
     @Autowired
     private AppointmentsService appointmentsService;
 
-    @SpyBean
-    private CustomerAppointmentMapper customerAppointmentMapper;
-
     @MockBean
     private AppointmentsRepo appointmentsRepo;
 
     @MockBean
     private VisitDetailsRepo visitDetailsRepo;
 
+    @MockBean
+    private CustomersRepo customersRepo;
+
+    @Autowired
+    private AppointmentSlotsIndex slotsIndex;
+
+    @Autowired
+    private DoctorDaySchedules daySchedules;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @AfterEach
     void reset() {
-        Mockito.reset(appointmentsRepo, customerAppointmentMapper, visitDetailsRepo);
+        Mockito.reset(appointmentsRepo, visitDetailsRepo, customersRepo);
+        slotsIndex.rebuild();
+        daySchedules.clear();
     }
 
     @Test
-    void testAddAppointmentSuccess() {
-        List<Appointment> emptyList = Collections.emptyList();
-        Customer customer = new Customer(1L, 1234, "CUSTOMER1", "SURNAME1", emptyList);
-
-        VisitDetails visitDetails = VisitDetails.builder()
-                .id(1L).doctor(null)
-                .openingAt(LocalTime.of(6, 0))
-                .closingAt(LocalTime.of(16, 0))
-                .visitDurationInMinutes(appointmentDuration)
-                .visitPrice(BigDecimal.TEN).build();
+    void testTryAddAppointmentSuccess() {
+        AppointmentRequest appointmentRequest = new AppointmentRequest(1234, 1L,
+                "some note here", LocalDate.now().plusDays(1), LocalTime.of(10, 0));
+        LocalDateTime timestamp = LocalDateTime.of(appointmentRequest.getDate(), appointmentRequest.getTime());
 
-        Doctor doctor = new Doctor(1L, "DR", "DOCTOR1", "SURNAME1", visitDetails, emptyList);
-        visitDetails.setDoctor(doctor);
+        Mockito.doReturn(Optional.of(DOCTOR_ONE_DETAILS)).when(visitDetailsRepo).getDoctorTimingDetails(1L);
+        Mockito.doReturn(Optional.of(10L)).when(appointmentsRepo)
+                .insertIfAvailable(2L, 1234, 1L, "some note here", timestamp, appointmentDuration);
 
-        Appointment appointment = new Appointment(1L, "note",
-                LocalDate.now(), LocalTime.now(), LocalDateTime.now(), customer, doctor);
+        Optional<AppointmentDTO> actualDTO = appointmentsService.tryAddAppointment(appointmentRequest, 2L);
 
+        AppointmentDTO expectedDTO = new AppointmentDTO(10L, "some note here", appointmentRequest.getDate(),
+                appointmentRequest.getTime(), "DOCTOR1", "SURNAME1");
+        assertEquals(Optional.of(expectedDTO), actualDTO);
+        assertTrue(slotsIndex.isBooked(1L, timestamp));
+    }
 
-        AppointmentDTO expectedDTO = customerAppointmentMapper.map(appointment);
-        Mockito.doReturn(appointment).when(appointmentsRepo).save(appointment);
-        AppointmentDTO actualDTO = appointmentsService.addAppointment(appointment);
+    @Test
+    void testTryAddAppointmentNothingInserted() {
+        AppointmentRequest appointmentRequest = new AppointmentRequest(1234, 1L,
+                "some note here", LocalDate.now().plusDays(1), LocalTime.of(10, 0));
 
-        assertEquals(expectedDTO, actualDTO);
-        assertEquals(expectedDTO.getId(), actualDTO.getId());
-        assertEquals(expectedDTO.getScheduledTime(), actualDTO.getScheduledTime());
-        assertEquals(expectedDTO.getScheduledDate(), actualDTO.getScheduledDate());
-        assertEquals(expectedDTO.getPersonName(), actualDTO.getPersonName());
-        assertEquals(expectedDTO.getPersonSurname(), actualDTO.getPersonSurname());
+        Mockito.doReturn(Optional.of(DOCTOR_ONE_DETAILS)).when(visitDetailsRepo).getDoctorTimingDetails(1L);
 
-        Mockito.verify(customerAppointmentMapper, Mockito.times(2)).map(appointment);
-        Mockito.verify(appointmentsRepo).save(appointment);
+        assertTrue(appointmentsService.tryAddAppointment(appointmentRequest, 2L).isEmpty());
+        assertFalse(slotsIndex.isBooked(1L, LocalDateTime.of(appointmentRequest.getDate(), appointmentRequest.getTime())));
     }
 
-
     @Test
-    void checkDateAvailabilityForDoctorDateIsUnavailable() {
+    void testTryAddAppointmentDoctorAlreadyBookedAtTheSameTime() {
+        AppointmentRequest appointmentRequest = new AppointmentRequest(1234, 1L,
+                "some note here", LocalDate.now().plusDays(1), LocalTime.of(10, 0));
 
-        Mockito.doReturn(false).when(appointmentsRepo).isDateAndTimeAvailableForDoctorWithId(
-                anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), any(LocalDateTime.class));
+        Mockito.doReturn(Optional.of(DOCTOR_ONE_DETAILS)).when(visitDetailsRepo).getDoctorTimingDetails(1L);
+        Mockito.doThrow(DataIntegrityViolationException.class).when(appointmentsRepo).insertIfAvailable(
+                anyLong(), anyInt(), anyLong(), anyString(), any(LocalDateTime.class), anyInt());
 
-        TimingDetailsDTO timingDetails = new TimingDetailsDTO(appointmentDuration,
-                LocalTime.MIN, LocalTime.MAX);
+        assertThrows(UnavailableDateException.class,
+                () -> appointmentsService.tryAddAppointment(appointmentRequest, 2L));
+    }
+
+    @Test
+    void testTryAddAppointmentDateTakenInIndexIsCheckedByInsert() {
+        AppointmentRequest appointmentRequest = new AppointmentRequest(1234, 1L,
+                "some note here", LocalDate.now().plusDays(1), LocalTime.of(10, 0));
+        LocalDateTime timestamp = LocalDateTime.of(appointmentRequest.getDate(), appointmentRequest.getTime());
+        // Stale index, appointment has been cancelled on other application node.
+        slotsIndex.book(1L, LocalDateTime.of(appointmentRequest.getDate(), LocalTime.of(9, 45)));
+
+        Mockito.doReturn(Optional.of(DOCTOR_ONE_DETAILS)).when(visitDetailsRepo).getDoctorTimingDetails(1L);
+        Mockito.doReturn(Optional.of(10L)).when(appointmentsRepo)
+                .insertIfAvailable(2L, 1234, 1L, "some note here", timestamp, appointmentDuration);
+
+        assertEquals(Optional.of(10L), appointmentsService.tryAddAppointment(appointmentRequest, 2L)
+                .map(AppointmentDTO::getId));
+        assertTrue(slotsIndex.isBooked(1L, timestamp));
+    }
 
-        Mockito.doReturn(Optional.of(timingDetails)).when(visitDetailsRepo).getTimingDetails(anyLong());
+    @Test
+    void testAddAppointmentsReportsResultForEachRequest() {
+        LocalDate nextDay = LocalDate.now().plusDays(1);
+        slotsIndex.book(1L, LocalDateTime.of(nextDay, LocalTime.of(9, 0)));
+        Mockito.doReturn(Optional.of(DOCTOR_ONE_DETAILS)).when(visitDetailsRepo).getDoctorTimingDetails(1L);
+        Mockito.doAnswer(invocation -> {
+            List<Appointment> appointments = invocation.getArgument(0);
+            boolean[] inserted = new boolean[appointments.size()];
+            for (int i = 0; i < appointments.size(); i++) {
+                appointments.get(i).setId(10L + i);
+                // Overlapping appointment has been booked before the batch.
+                inserted[i] = !appointments.get(i).getNote().startsWith("taken");
+            }
+            return inserted;
+        }).when(appointmentsRepo).insertAllIfAvailable(anyList(), anyMap());
+
+        List<AppointmentRequest> appointmentRequests = List.of(
+                new AppointmentRequest(1234, 1L, "first", nextDay, LocalTime.of(8, 0)),
+                new AppointmentRequest(1234, 1L, "taken", nextDay, LocalTime.of(9, 15)),
+                new AppointmentRequest(1234, 1L, "closed", nextDay, LocalTime.of(17, 0)),
+                new AppointmentRequest(1234, 1L, "overlaps first", nextDay, LocalTime.of(8, 20)),
+                new AppointmentRequest(1234, 100L, "unknown doctor", nextDay, LocalTime.of(8, 0)),
+                new AppointmentRequest(1234, 1L, "second", nextDay, LocalTime.of(8, 30)),
+                new AppointmentRequest(1234, 1L, "taken before", nextDay, LocalTime.of(10, 0)));
+
+        List<AppointmentBatchResultDTO> results = appointmentsService.addAppointments(appointmentRequests, 2L);
+
+        assertEquals(List.of(BOOKED, CONFLICT, REJECTED, CONFLICT, REJECTED, BOOKED, CONFLICT),
+                results.stream().map(AppointmentBatchResultDTO::getStatus).collect(Collectors.toList()));
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        assertEquals(new AppointmentDTO(10L, "first", nextDay, LocalTime.of(8, 0), "DOCTOR1", "SURNAME1"),
+                results.get(0).getAppointment());
+        assertEquals(12L, results.get(5).getAppointment().getId());
+        assertEquals("Timing details not found for doctor with id '100'.", results.get(4).getMessage());
+
+        assertTrue(slotsIndex.isBooked(1L, LocalDateTime.of(nextDay, LocalTime.of(8, 30))));
+        assertFalse(slotsIndex.isBooked(1L, LocalDateTime.of(nextDay, LocalTime.of(10, 0))));
+        assertFalse(slotsIndex.isBooked(1L, LocalDateTime.of(nextDay, LocalTime.of(9, 15))));
+        Mockito.verify(appointmentsRepo).insertAllIfAvailable(anyList(), eq(Map.of(1L, 30)));
+    }
 
-        assertThrows(UnavailableDateException.class,
-                () -> appointmentsService.checkDateAvailabilityForDoctor(APPOINTMENT_REQUEST));
+    @Test
+    void testAddAppointmentsConflictOnInsert() {
+        LocalDate nextDay = LocalDate.now().plusDays(1);
+        Mockito.doReturn(Optional.of(DOCTOR_ONE_DETAILS)).when(visitDetailsRepo).getDoctorTimingDetails(1L);
+        Mockito.doThrow(DataIntegrityViolationException.class).when(appointmentsRepo)
+                .insertAllIfAvailable(anyList(), anyMap());
 
-        Mockito.verify(appointmentsRepo).isDateAndTimeAvailableForDoctorWithId(
-                anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), any(LocalDateTime.class));
+        List<AppointmentRequest> appointmentRequests = List.of(
+                new AppointmentRequest(1234, 1L, "first", nextDay, LocalTime.of(8, 0)));
 
+        assertThrows(UnavailableDateException.class,
+                () -> appointmentsService.addAppointments(appointmentRequests, 2L));
+        assertFalse(slotsIndex.isBooked(1L, LocalDateTime.of(nextDay, LocalTime.of(8, 0))));
     }
 
     @ParameterizedTest
     @ValueSource(ints = {0, 1, 2, 3, 4, 5, 6, 7, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23})
-    void checkDateAvailabilityForDoctorDateIsUnavailableDoesNotFitInOpeningTimeRange(int hourValue) {
+    void testTryAddAppointmentDoesNotFitInOpeningTimeRange(int hourValue) {
         AppointmentRequest appointmentRequest = new AppointmentRequest(1234, 1L,
-                "some note here", LocalDate.now(), LocalTime.of(hourValue, appointmentDuration));
+                "some note here", LocalDate.now().plusDays(1), LocalTime.of(hourValue, appointmentDuration));
 
-        TimingDetailsDTO timingDetails = new TimingDetailsDTO(appointmentDuration,
-                LocalTime.of(8, 0), LocalTime.of(10, 0));
-
-        Mockito.doReturn(Optional.of(timingDetails)).when(visitDetailsRepo).getTimingDetails(anyLong());
+        DoctorTimingDetailsDTO doctorDetails = new DoctorTimingDetailsDTO(1L, "DR", "DOCTOR1", "SURNAME1",
+                appointmentDuration, LocalTime.of(8, 0), LocalTime.of(10, 0));
+        Mockito.doReturn(Optional.of(doctorDetails)).when(visitDetailsRepo).getDoctorTimingDetails(1L);
 
         assertThrows(UnavailableDateException.class,
-                () -> appointmentsService.checkDateAvailabilityForDoctor(appointmentRequest));
-
-        Mockito.verify(visitDetailsRepo).getTimingDetails(anyLong());
+                () -> appointmentsService.tryAddAppointment(appointmentRequest, 2L));
 
+        Mockito.verify(appointmentsRepo, Mockito.never()).insertIfAvailable(
+                anyLong(), anyInt(), anyLong(), anyString(), any(LocalDateTime.class), anyInt());
     }
 
 
@@ -147,6 +231,67 @@ class AppointmentsServiceTest {
         Mockito.verify(appointmentsRepo).existsByCustomerIdAndTimestamp(anyLong(), any(LocalDateTime.class));
     }
 
+    @Test
+    void testDeleteAppointmentReleasesSlot() {
+        LocalDateTime timestamp = LocalDateTime.of(LocalDate.now().plusDays(1), LocalTime.of(12, 0));
+        slotsIndex.book(1L, timestamp);
+        Mockito.doReturn(List.of(1L)).when(appointmentsRepo).getDoctorIdsByCustomerIdAndTimestamp(1L, timestamp);
+
+        appointmentsService.deleteAppointment(1L, timestamp);
+
+        assertFalse(slotsIndex.isBooked(1L, timestamp));
+        Mockito.verify(appointmentsRepo).deleteByCustomerIdAndTimestamp(1L, timestamp);
+    }
+
+    @Test
+    void testDeleteAppointmentsReleasesSlotsAndReportsNotFound() {
+        LocalDateTime booked = LocalDateTime.of(LocalDate.now().plusDays(1), LocalTime.of(12, 0));
+        LocalDateTime missing = booked.plusHours(1);
+        slotsIndex.book(1L, booked);
+        Mockito.doReturn(List.of(new BookedSlotDTO(1L, booked))).when(appointmentsRepo)
+                .getBookedSlotsByCustomerIdAndTimestampIn(eq(1L), anyCollection());
+        Mockito.doReturn(1).when(appointmentsRepo).deleteByCustomerIdAndTimestampIn(eq(1L), anyCollection());
+
+        CancellationResultDTO result = appointmentsService.deleteAppointments(1L, List.of(missing, booked, booked));
+
+        assertEquals(1, result.getCancelled());
+        assertEquals(List.of(missing), result.getNotFound());
+        assertFalse(slotsIndex.isBooked(1L, booked));
+        Mockito.verify(appointmentsRepo).deleteByCustomerIdAndTimestampIn(1L, Set.of(booked, missing));
+    }
+
+    @Test
+    void testDeleteDoctorAppointmentsReleasesDay() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        LocalDateTime cancelled = LocalDateTime.of(date, LocalTime.of(12, 0));
+        LocalDateTime nextDay = cancelled.plusDays(1);
+        slotsIndex.book(1L, cancelled);
+        slotsIndex.book(1L, nextDay);
+        Mockito.doReturn(1).when(appointmentsRepo).deleteByDoctorIdAndScheduledDate(1L, date);
+
+        CancellationResultDTO result = appointmentsService.deleteDoctorAppointments(1L, date);
+
+        assertEquals(1, result.getCancelled());
+        assertTrue(result.getNotFound().isEmpty());
+        assertFalse(slotsIndex.isBooked(1L, cancelled));
+        assertTrue(slotsIndex.isBooked(1L, nextDay));
+    }
+
+    @Test
+    void testDeleteDoctorAppointmentsRolledBackKeepsDayBooked() {
+        LocalDate date = LocalDate.now().plusDays(3);
+        LocalDateTime booked = LocalDateTime.of(date, LocalTime.of(12, 0));
+        slotsIndex.book(1L, booked);
+        Mockito.doReturn(1).when(appointmentsRepo).deleteByDoctorIdAndScheduledDate(1L, date);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            appointmentsService.deleteDoctorAppointments(1L, date);
+            status.setRollbackOnly();
+        });
+
+        assertTrue(slotsIndex.isBooked(1L, booked));
+    }
+
     @Test
     void testGetAppointmentsPageByDoctorId() {
         PageRequest pageRequest = PageRequest.of(0, 1);
@@ -180,7 +325,7 @@ class AppointmentsServiceTest {
         List<AppointmentDTO> expectedContent = List.of(appointmentDTO);
 
         Page<AppointmentDTO> page = new PageImpl<>(expectedContent, pageRequest, 1);
-        Mockito.doReturn(page).when(appointmentsRepo).getDoctorAppointmentsPage(1L, LocalDate.now(), pageRequest);
+        Mockito.doReturn(expectedContent).when(appointmentsRepo).getDoctorDaySchedule(1L, LocalDate.now());
 
         PagesMapper<AppointmentDTO> pagesMapper = new PagesMapper<>();
         PageDTO<AppointmentDTO> expectedPage = pagesMapper.map(page);
@@ -195,7 +340,167 @@ class AppointmentsServiceTest {
         assertEquals(1, actualPage.getTotalElements());
         assertEquals(1, actualPage.getTotalPages());
 
+        Mockito.verify(appointmentsRepo).getDoctorDaySchedule(1L, LocalDate.now());
+        Mockito.verify(appointmentsRepo, Mockito.never())
+                .getDoctorAppointmentsPage(anyLong(), any(LocalDate.class), any(PageRequest.class));
+    }
+
+    @Test
+    void testGetAppointmentsPageByDoctorIdForDateUnsupportedSort() {
+        PageRequest pageRequest = PageRequest.of(0, 1, Sort.by("customer.name"));
+        Page<AppointmentDTO> page = new PageImpl<>(List.of(), pageRequest, 0);
+        Mockito.doReturn(page).when(appointmentsRepo).getDoctorAppointmentsPage(1L, LocalDate.now(), pageRequest);
+
+        appointmentsService.getAppointmentsPageByDoctorIdForDate(pageRequest, 1L, LocalDate.now());
+
         Mockito.verify(appointmentsRepo).getDoctorAppointmentsPage(1L, LocalDate.now(), pageRequest);
+        Mockito.verify(appointmentsRepo, Mockito.never()).getDoctorDaySchedule(anyLong(), any(LocalDate.class));
+    }
+
+    @Test
+    void testDaySchedulePatchedAfterBookingAndCancellation() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        AppointmentRequest appointmentReq = new AppointmentRequest(1234, 1L, "note", date, LocalTime.of(12, 0));
+        AppointmentDTO scheduled = new AppointmentDTO(5L, "note", date, LocalTime.of(12, 0), "CUSTOMER1", "SURNAME1");
+        Mockito.doReturn(List.of()).when(appointmentsRepo).getDoctorDaySchedule(1L, date);
+        Mockito.doReturn(Optional.of(DOCTOR_ONE_DETAILS)).when(visitDetailsRepo).getDoctorTimingDetails(1L);
+        Mockito.doReturn(Optional.of(5L)).when(appointmentsRepo).insertIfAvailable(anyLong(), anyInt(), anyLong(),
+                any(), any(LocalDateTime.class), anyInt());
+        Mockito.doReturn(Optional.of(scheduled)).when(appointmentsRepo).getDoctorAppointment(5L);
+
+        assertTrue(getDayPage(date).isEmpty());
+        appointmentsService.tryAddAppointment(appointmentReq, 1L);
+        assertEquals(List.of(scheduled), getDayPage(date).getContent());
+
+        Mockito.doReturn(List.of(1L)).when(appointmentsRepo)
+                .getDoctorIdsByCustomerIdAndTimestamp(1L, LocalDateTime.of(date, LocalTime.of(12, 0)));
+        appointmentsService.deleteAppointment(1L, LocalDateTime.of(date, LocalTime.of(12, 0)));
+        assertTrue(getDayPage(date).isEmpty());
+
+        Mockito.verify(appointmentsRepo).getDoctorDaySchedule(1L, date);
+    }
+
+    @Test
+    void testDaySchedulePatchedAfterBatchBooking() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        Mockito.doReturn(List.of()).when(appointmentsRepo).getDoctorDaySchedule(1L, date);
+        Mockito.doReturn(Optional.of(DOCTOR_ONE_DETAILS)).when(visitDetailsRepo).getDoctorTimingDetails(1L);
+        Mockito.doReturn(Optional.of(new CustomerDTO(2L, 1234, "CUSTOMER2", "SURNAME2")))
+                .when(customersRepo).getCustomerById(2L);
+        Mockito.doAnswer(invocation -> {
+            List<Appointment> appointments = invocation.getArgument(0);
+            for (int i = 0; i < appointments.size(); i++) {
+                appointments.get(i).setId(20L + i);
+            }
+            return new boolean[]{true, true};
+        }).when(appointmentsRepo).insertAllIfAvailable(anyList(), anyMap());
+
+        assertTrue(getDayPage(date).isEmpty());
+        appointmentsService.addAppointments(List.of(
+                new AppointmentRequest(1234, 1L, "first", date, LocalTime.of(8, 0)),
+                new AppointmentRequest(1234, 1L, "second", date, LocalTime.of(8, 30))), 2L);
+
+        assertEquals(List.of(
+                        new AppointmentDTO(20L, "first", date, LocalTime.of(8, 0), "CUSTOMER2", "SURNAME2"),
+                        new AppointmentDTO(21L, "second", date, LocalTime.of(8, 30), "CUSTOMER2", "SURNAME2")),
+                getDayPage(date).getContent());
+        // Name of the customer is fetched once for whole batch.
+        Mockito.verify(customersRepo).getCustomerById(2L);
+    }
+
+    @Test
+    void testGetAppointmentsCursorPageByDoctorId() {
+        AppointmentDTO first = new AppointmentDTO(7L, "note", LocalDate.parse("2022-01-21"), LocalTime.of(12, 0),
+                "CUSTOMER1", "SURNAME1");
+        AppointmentDTO second = new AppointmentDTO(3L, "note", LocalDate.parse("2022-01-23"), LocalTime.of(12, 0),
+                "CUSTOMER1", "SURNAME1");
+        Mockito.doReturn(List.of(first, second)).when(appointmentsRepo)
+                .getDoctorAppointmentsFirst(1L, PageRequest.of(0, 2));
+        Mockito.doReturn(List.of(second)).when(appointmentsRepo)
+                .getDoctorAppointmentsAfter(1L, LocalDateTime.parse("2022-01-21T12:00"), 7L, PageRequest.of(0, 2));
+
+        CursorPageDTO<AppointmentDTO> firstPage = appointmentsService.getAppointmentsCursorPageByDoctorId(1L, 1, false, null);
+        CursorPageDTO<AppointmentDTO> lastPage = appointmentsService.getAppointmentsCursorPageByDoctorId(1L, 1,
+                true, firstPage.getNextCursor());
+
+        assertEquals(List.of(first), firstPage.getContent());
+        assertFalse(firstPage.isLast());
+        assertEquals(new AppointmentsCursor(LocalDateTime.parse("2022-01-21T12:00"), 7L, false),
+                AppointmentsCursor.decode(firstPage.getNextCursor()));
+        assertEquals(List.of(second), lastPage.getContent());
+        assertTrue(lastPage.isLast());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    void testGetScheduleByDoctorIdGroupsByDay() {
+        AppointmentDTO friday = new AppointmentDTO(1L, "note", LocalDate.parse("2022-01-21"), LocalTime.of(12, 0),
+                "CUSTOMER1", "SURNAME1");
+        AppointmentDTO sunday = new AppointmentDTO(3L, "note", LocalDate.parse("2022-01-23"), LocalTime.of(12, 0),
+                "CUSTOMER2", "SURNAME2");
+        Mockito.doReturn(List.of(friday, sunday)).when(appointmentsRepo).getDoctorAppointmentsBetween(1L,
+                LocalDateTime.parse("2022-01-17T00:00"), LocalDateTime.parse("2022-01-24T00:00"));
+
+        List<DayScheduleDTO> schedule = appointmentsService.getScheduleByDoctorId(1L,
+                LocalDate.parse("2022-01-21"), LocalDate.parse("2022-01-23"));
+
+        assertEquals(List.of(new DayScheduleDTO(LocalDate.parse("2022-01-21"), List.of(friday)),
+                new DayScheduleDTO(LocalDate.parse("2022-01-22"), List.of()),
+                new DayScheduleDTO(LocalDate.parse("2022-01-23"), List.of(sunday))), schedule);
+    }
+
+    @Test
+    void testGetScheduleByDoctorIdInvalidRange() {
+        RuntimeException ex = assertThrows(IllegalArgumentException.class, () -> appointmentsService
+                .getScheduleByDoctorId(1L, LocalDate.parse("2022-01-23"), LocalDate.parse("2022-01-21")));
+        assertEquals("Date 'from' must not be after date 'to'.", ex.getMessage());
+
+        ex = assertThrows(IllegalArgumentException.class, () -> appointmentsService
+                .getScheduleByDoctorId(1L, LocalDate.parse("2022-01-01"), LocalDate.parse("2022-03-01")));
+        assertEquals("Schedule may cover up to 42 days.", ex.getMessage());
+        Mockito.verifyNoInteractions(appointmentsRepo);
+    }
+
+    @Test
+    void testGetAppointmentsCursorPageByDoctorIdDescending() {
+        AppointmentsCursor cursor = new AppointmentsCursor(LocalDateTime.parse("2022-01-23T12:00"), 3L, true);
+        Mockito.doReturn(List.of()).when(appointmentsRepo).getDoctorAppointmentsBefore(1L,
+                cursor.getTimestamp(), cursor.getId(), PageRequest.of(0, 6));
+
+        CursorPageDTO<AppointmentDTO> page = appointmentsService.getAppointmentsCursorPageByDoctorId(1L, 5,
+                false, cursor.encode());
+
+        assertTrue(page.isLast());
+        Mockito.verify(appointmentsRepo).getDoctorAppointmentsBefore(1L,
+                cursor.getTimestamp(), cursor.getId(), PageRequest.of(0, 6));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not a cursor", "MjAyMi0wMS0yMVQxMjowMHwx", "eHx5fHo"})
+    void testGetAppointmentsCursorPageByDoctorIdInvalidCursor(String cursor) {
+        RuntimeException ex = assertThrows(IllegalArgumentException.class,
+                () -> appointmentsService.getAppointmentsCursorPageByDoctorId(1L, 5, false, cursor));
+
+        assertEquals(String.format("Cursor '%s' is invalid.", cursor), ex.getMessage());
+    }
+
+    @Test
+    void testGetAppointmentsCursorPageByDoctorIdPageSizeIsCapped() {
+        Mockito.doReturn(List.of()).when(appointmentsRepo).getDoctorAppointmentsFirst(1L, PageRequest.of(0, 101));
+
+        appointmentsService.getAppointmentsCursorPageByDoctorId(1L, 10_000, false, null);
+
+        Mockito.verify(appointmentsRepo).getDoctorAppointmentsFirst(1L, PageRequest.of(0, 101));
+    }
+
+    @Test
+    void testGetAppointmentsCursorPageByDoctorIdInvalidPageSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> appointmentsService.getAppointmentsCursorPageByDoctorId(1L, 0, false, null));
+    }
+
+    private PageDTO<AppointmentDTO> getDayPage(LocalDate date) {
+        return appointmentsService.getAppointmentsPageByDoctorIdForDate(PageRequest.of(0, 10), 1L, date);
     }
 
 }
@@ -0,0 +1,216 @@
+package com.simonjoz.vetclinic.service;
+
+import com.simonjoz.vetclinic.dto.DayAvailabilityDTO;
+import com.simonjoz.vetclinic.dto.DoctorTimingDetailsDTO;
+import com.simonjoz.vetclinic.dto.FirstAvailableSlotDTO;
+import com.simonjoz.vetclinic.dto.TimingDetailsDTO;
+import com.simonjoz.vetclinic.exceptions.ResourceNotFoundException;
+import com.simonjoz.vetclinic.exceptions.SearchTimeoutException;
+import com.simonjoz.vetclinic.repository.AppointmentsRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityServiceTest {
+
+    private static final long DOCTOR_ONE_ID = 1L;
+    private static final LocalDate TOMORROW = LocalDate.now().plusDays(1);
+    private static final TimingDetailsDTO TIMING_DETAILS =
+            new TimingDetailsDTO(60, LocalTime.of(8, 0), LocalTime.of(12, 0));
+
+    private VisitDetailsService visitDetailsService;
+    private AppointmentSlotsIndex slotsIndex;
+    private AvailabilitySearchExecutor searchExecutor;
+    private AvailabilityService availabilityService;
+
+    @BeforeEach
+    void setUp() {
+        visitDetailsService = Mockito.mock(VisitDetailsService.class);
+        slotsIndex = new AppointmentSlotsIndex(Mockito.mock(AppointmentsRepo.class));
+        searchExecutor = new AvailabilitySearchExecutor(3, 5000);
+        availabilityService = new AvailabilityService(visitDetailsService, slotsIndex, searchExecutor);
+        Mockito.doReturn(TIMING_DETAILS).when(visitDetailsService).getTimingDetails(DOCTOR_ONE_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchExecutor.shutdown();
+    }
+
+    @Test
+    void testGetFreeSlotsSkipsTakenSlots() {
+        slotsIndex.book(DOCTOR_ONE_ID, LocalDateTime.of(TOMORROW, LocalTime.of(9, 0)));
+        slotsIndex.book(DOCTOR_ONE_ID, LocalDateTime.of(TOMORROW.plusDays(1), LocalTime.of(10, 15)));
+
+        List<DayAvailabilityDTO> availability =
+                availabilityService.getFreeSlots(DOCTOR_ONE_ID, TOMORROW, TOMORROW.plusDays(2));
+
+        assertEquals(3, availability.size());
+        assertEquals(new DayAvailabilityDTO(TOMORROW,
+                List.of(LocalTime.of(8, 0), LocalTime.of(10, 0), LocalTime.of(11, 0))), availability.get(0));
+        assertEquals(new DayAvailabilityDTO(TOMORROW.plusDays(1),
+                List.of(LocalTime.of(8, 0), LocalTime.of(9, 0))), availability.get(1));
+        assertEquals(4, availability.get(2).getFreeSlots().size());
+    }
+
+    @Test
+    void testGetFreeSlotsListsTimeAfterAppointmentOffTheGrid() {
+        slotsIndex.book(DOCTOR_ONE_ID, LocalDateTime.of(TOMORROW, LocalTime.of(8, 30)));
+
+        List<DayAvailabilityDTO> availability = availabilityService.getFreeSlots(DOCTOR_ONE_ID, TOMORROW, TOMORROW);
+
+        assertEquals(List.of(LocalTime.of(9, 30), LocalTime.of(10, 0), LocalTime.of(11, 0)),
+                availability.get(0).getFreeSlots());
+    }
+
+    @Test
+    void testGetFreeSlotsSkipsPastDays() {
+        List<DayAvailabilityDTO> availability =
+                availabilityService.getFreeSlots(DOCTOR_ONE_ID, TOMORROW.minusDays(3), TOMORROW.minusDays(2));
+
+        assertEquals(2, availability.size());
+        assertTrue(availability.stream().allMatch(day -> day.getFreeSlots().isEmpty()));
+    }
+
+    @Test
+    void testGetFreeSlotsInvalidRange() {
+        RuntimeException ex = assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.getFreeSlots(DOCTOR_ONE_ID, TOMORROW, TOMORROW.minusDays(1)));
+        assertEquals(String.format("Range end '%s' must not be before range start '%s'.",
+                TOMORROW.minusDays(1), TOMORROW), ex.getMessage());
+
+        ex = assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.getFreeSlots(DOCTOR_ONE_ID, TOMORROW, TOMORROW.plusDays(31)));
+        assertEquals("Range must not be longer than 31 days.", ex.getMessage());
+
+        Mockito.verifyNoInteractions(visitDetailsService);
+    }
+
+    @Test
+    void testGetFreeSlotsNoneExistingDoctor() {
+        Mockito.doThrow(ResourceNotFoundException.class).when(visitDetailsService).getTimingDetails(100L);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> availabilityService.getFreeSlots(100L, TOMORROW, TOMORROW));
+    }
+
+    @Test
+    void testGetSlotTimesClosingAtMidnight() {
+        List<LocalTime> slotTimes = AvailabilityService.getSlotTimes(
+                new TimingDetailsDTO(60, LocalTime.of(16, 0), LocalTime.MIDNIGHT));
+
+        assertEquals(8, slotTimes.size());
+        assertEquals(LocalTime.of(16, 0), slotTimes.get(0));
+        assertEquals(LocalTime.of(23, 0), slotTimes.get(7));
+    }
+
+    @Test
+    void testGetSlotTimesLastVisitMustEndBeforeClosing() {
+        List<LocalTime> slotTimes = AvailabilityService.getSlotTimes(
+                new TimingDetailsDTO(45, LocalTime.of(8, 0), LocalTime.of(10, 0)));
+
+        assertEquals(List.of(LocalTime.of(8, 0), LocalTime.of(8, 45)), slotTimes);
+    }
+
+    @Test
+    void testFindFirstAvailableReturnsEarliestSlotOfAllDoctors() {
+        List<DoctorTimingDetailsDTO> doctors = List.of(
+                new DoctorTimingDetailsDTO(1L, "DR", "DOCTOR1", "SURNAME1", 60, LocalTime.of(8, 0), LocalTime.of(12, 0)),
+                new DoctorTimingDetailsDTO(2L, "DR", "DOCTOR2", "SURNAME2", 30, LocalTime.of(9, 0), LocalTime.of(10, 0)),
+                new DoctorTimingDetailsDTO(3L, "DR", "DOCTOR3", "SURNAME3", 20, LocalTime.of(8, 20), LocalTime.of(9, 0)),
+                new DoctorTimingDetailsDTO(4L, "DR", "DOCTOR4", "SURNAME4", 60, LocalTime.of(16, 0), LocalTime.MIDNIGHT));
+        Mockito.doReturn(doctors).when(visitDetailsService).getDoctorsTimingDetails();
+
+        slotsIndex.book(1L, LocalDateTime.of(TOMORROW, LocalTime.of(8, 0)));
+        slotsIndex.book(1L, LocalDateTime.of(TOMORROW, LocalTime.of(9, 0)));
+        slotsIndex.book(3L, LocalDateTime.of(TOMORROW, LocalTime.of(8, 20)));
+
+        FirstAvailableSlotDTO slot = availabilityService.findFirstAvailable(TOMORROW.atStartOfDay());
+
+        assertEquals(new FirstAvailableSlotDTO(3L, "DR", "DOCTOR3", "SURNAME3", TOMORROW, LocalTime.of(8, 40), true), slot);
+    }
+
+    @Test
+    void testFindFirstAvailableSkipsFullyBookedDays() {
+        List<DoctorTimingDetailsDTO> doctors = List.of(
+                new DoctorTimingDetailsDTO(1L, "DR", "DOCTOR1", "SURNAME1", 60, LocalTime.of(8, 0), LocalTime.of(10, 0)));
+        Mockito.doReturn(doctors).when(visitDetailsService).getDoctorsTimingDetails();
+
+        slotsIndex.book(1L, LocalDateTime.of(TOMORROW, LocalTime.of(8, 0)));
+        slotsIndex.book(1L, LocalDateTime.of(TOMORROW, LocalTime.of(9, 0)));
+
+        FirstAvailableSlotDTO slot = availabilityService.findFirstAvailable(TOMORROW.atStartOfDay());
+
+        assertEquals(TOMORROW.plusDays(1), slot.getDate());
+        assertEquals(LocalTime.of(8, 0), slot.getTime());
+        assertTrue(slot.isComplete());
+    }
+
+    @Test
+    void testFindFirstAvailableAfterAppointmentOffTheGrid() {
+        List<DoctorTimingDetailsDTO> doctors = List.of(
+                new DoctorTimingDetailsDTO(1L, "DR", "DOCTOR1", "SURNAME1", 60, LocalTime.of(8, 0), LocalTime.of(11, 0)));
+        Mockito.doReturn(doctors).when(visitDetailsService).getDoctorsTimingDetails();
+
+        slotsIndex.book(1L, LocalDateTime.of(TOMORROW, LocalTime.of(8, 10)));
+
+        FirstAvailableSlotDTO slot = availabilityService.findFirstAvailable(TOMORROW.atStartOfDay());
+
+        assertEquals(TOMORROW, slot.getDate());
+        assertEquals(LocalTime.of(9, 10), slot.getTime());
+    }
+
+    @Test
+    void testFindFirstAvailableOverBudgetIsNotComplete() {
+        List<DoctorTimingDetailsDTO> doctors = List.of(
+                new DoctorTimingDetailsDTO(1L, "DR", "DOCTOR1", "SURNAME1", 60, LocalTime.of(8, 0), LocalTime.of(10, 0)));
+        Mockito.doReturn(doctors).when(visitDetailsService).getDoctorsTimingDetails();
+        AvailabilityService overBudgetService = new AvailabilityService(visitDetailsService, slotsIndex,
+                getOverBudgetExecutor());
+
+        FirstAvailableSlotDTO slot = overBudgetService.findFirstAvailable(TOMORROW.atStartOfDay());
+
+        assertEquals(TOMORROW, slot.getDate());
+        assertFalse(slot.isComplete());
+    }
+
+    @Test
+    void testFindFirstAvailableOverBudgetWithoutResult() {
+        Mockito.doReturn(List.of()).when(visitDetailsService).getDoctorsTimingDetails();
+        AvailabilityService overBudgetService = new AvailabilityService(visitDetailsService, slotsIndex,
+                getOverBudgetExecutor());
+
+        assertThrows(SearchTimeoutException.class,
+                () -> overBudgetService.findFirstAvailable(TOMORROW.atStartOfDay()));
+    }
+
+    @Test
+    void testFindFirstAvailableNoDoctors() {
+        Mockito.doReturn(List.of()).when(visitDetailsService).getDoctorsTimingDetails();
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> availabilityService.findFirstAvailable(TOMORROW.atStartOfDay()));
+    }
+
+    /**
+     * Runs all tasks, but reports exceeded budget.
+     */
+    private static AvailabilitySearchExecutor getOverBudgetExecutor() {
+        return new AvailabilitySearchExecutor(1, 5000) {
+            @Override
+            public boolean invokeAll(List<Runnable> tasks) {
+                tasks.forEach(Runnable::run);
+                shutdown();
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,162 @@
+package com.simonjoz.vetclinic.service;
+
+import com.simonjoz.vetclinic.domain.Appointment;
+import com.simonjoz.vetclinic.domain.AppointmentBatchRequest;
+import com.simonjoz.vetclinic.domain.AppointmentRequest;
+import com.simonjoz.vetclinic.domain.Customer;
+import com.simonjoz.vetclinic.domain.Doctor;
+import com.simonjoz.vetclinic.dto.AppointmentBatchResultDTO;
+import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.mappers.CustomerAppointmentMapper;
+import com.simonjoz.vetclinic.repository.AppointmentsRepo;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts JDBC statements sent per booking by the former load-check-insert path, by the conditional insert path
+ * and by batch booking.
+ * NOTE: Caches are disabled in tests, so lookups which are cached in production are counted as well.
+ */
+@Slf4j
+@Transactional
+@SpringBootTest
+@Sql(scripts = "classpath:test.sql")
+class BookingRoundTripsBenchmarkTest {
+
+    private static final long CUSTOMER_ONE_ID = 1L;
+    private static final long DOCTOR_ONE_ID = 1L;
+    private static final int BOOKINGS = 8;
+    private static final LocalDate BOOKING_DATE = LocalDate.now().plusDays(2);
+
+    @Autowired
+    private CustomersService customersService;
+
+    @Autowired
+    private DoctorsService doctorsService;
+
+    @Autowired
+    private VisitDetailsService visitDetailsService;
+
+    @Autowired
+    private AppointmentsRepo appointmentsRepo;
+
+    @Autowired
+    private CustomerAppointmentMapper customerAppointmentMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testConditionalInsertNeedsFewerRoundTrips() {
+        double legacyRoundTrips = measureRoundTrips(0, this::makeAppointmentLegacy);
+        double fastRoundTrips = measureRoundTrips(BOOKINGS,
+                request -> customersService.makeAppointment(request, CUSTOMER_ONE_ID));
+
+        log.info("Round trips per booking - legacy path: {}, conditional insert path: {}.",
+                legacyRoundTrips, fastRoundTrips);
+
+        // Doctor details lookup and conditional insert.
+        assertEquals(2.0, fastRoundTrips);
+        assertTrue(fastRoundTrips < legacyRoundTrips);
+    }
+
+    @Test
+    void testBatchBookingInsertsWithJdbcBatching() {
+        List<AppointmentRequest> appointmentRequests = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            appointmentRequests.add(new AppointmentRequest(1234, DOCTOR_ONE_ID, "BATCH",
+                    BOOKING_DATE.plusDays(1), LocalTime.of(8, 0).plusMinutes(30L * i)));
+        }
+
+        QueryCountHolder.clear();
+        List<AppointmentBatchResultDTO> results = customersService.makeAppointments(
+                new AppointmentBatchRequest(appointmentRequests), CUSTOMER_ONE_ID);
+        QueryCount queryCount = QueryCountHolder.getGrandTotal();
+
+        log.info("Statements for batch of {} bookings: {}.", BOOKINGS, queryCount.getTotal());
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == AppointmentBatchResultDTO.Status.BOOKED));
+        // Pin, doctor details, sequence and one JDBC batch of inserts.
+        assertEquals(1, queryCount.getInsert());
+        assertTrue(queryCount.getTotal() <= 4);
+    }
+
+    private double measureRoundTrips(int firstSlot, Function<AppointmentRequest, AppointmentDTO> booking) {
+        long statements = 0;
+        for (int i = firstSlot; i < firstSlot + BOOKINGS; i++) {
+            AppointmentRequest request = new AppointmentRequest(1234, DOCTOR_ONE_ID, "BENCHMARK",
+                    BOOKING_DATE, LocalTime.of(8, 0).plusMinutes(30L * i));
+            entityManager.clear();
+            statements += countStatements(() -> booking.apply(request));
+        }
+        return (double) statements / BOOKINGS;
+    }
+
+    private long countStatements(Supplier<AppointmentDTO> booking) {
+        QueryCountHolder.clear();
+        assertNotNull(booking.get().getId());
+        entityManager.flush();
+        return QueryCountHolder.getGrandTotal().getTotal();
+    }
+
+    /**
+     * Booking steps as they were before conditional insert has been introduced.
+     */
+    private AppointmentDTO makeAppointmentLegacy(AppointmentRequest appointmentReq) {
+        Customer customer = customersService.getCustomer(CUSTOMER_ONE_ID);
+        visitDetailsService.getTimingDetails(appointmentReq.getDoctorId());
+
+        LocalDateTime timestamp = LocalDateTime.of(appointmentReq.getDate(), appointmentReq.getTime());
+        appointmentsRepo.isDateAndTimeAvailableForDoctorWithId(DOCTOR_ONE_ID,
+                timestamp.minusMinutes(30), timestamp.plusMinutes(30), timestamp);
+        Doctor doctor = doctorsService.getDoctor(appointmentReq.getDoctorId());
+
+        Appointment appointment = Appointment.builder()
+                .customer(customer)
+                .doctor(doctor)
+                .note(appointmentReq.getNote())
+                .scheduledDate(appointmentReq.getDate())
+                .scheduledTime(appointmentReq.getTime())
+                .timestamp(timestamp)
+                .build();
+        return customerAppointmentMapper.map(appointmentsRepo.save(appointment));
+    }
+
+    @TestConfiguration
+    static class QueryCountingConfig {
+
+        @Bean
+        static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource) {
+                        return ProxyDataSourceBuilder.create((DataSource) bean).countQuery().build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
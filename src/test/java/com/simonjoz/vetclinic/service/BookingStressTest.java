@@ -0,0 +1,200 @@
+package com.simonjoz.vetclinic.service;
+
+import com.simonjoz.vetclinic.domain.AppointmentRequest;
+import com.simonjoz.vetclinic.exceptions.UnavailableDateException;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent bookings through the service layer, committed to H2 as in production.
+ * Thread counts and attempts per thread can be changed with stress.threads (comma separated)
+ * and stress.attempts system properties.
+ * NOTE: Booked rows are committed, so test data is inserted and removed by the test itself.
+ */
+@Slf4j
+@SpringBootTest
+class BookingStressTest {
+
+    private static final long FIRST_DOCTOR_ID = 501L;
+    private static final long CUSTOMER_ID = 501L;
+    private static final int PIN = 1234;
+    private static final int VISIT_DURATION = 30;
+    private static final LocalTime OPENING_AT = LocalTime.of(8, 0);
+    private static final LocalTime CLOSING_AT = LocalTime.of(20, 0);
+    private static final int SLOTS_PER_DAY = 24;
+    private static final int ATTEMPTS = Integer.getInteger("stress.attempts", 48);
+
+    @Autowired
+    private CustomersService customersService;
+
+    @Autowired
+    private AppointmentSlotsIndex slotsIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static Stream<Integer> threadCounts() {
+        return Arrays.stream(System.getProperty("stress.threads", "1,4,8").split(","))
+                .map(String::trim)
+                .map(Integer::valueOf);
+    }
+
+    @BeforeEach
+    void setUp() {
+        int doctors = threadCounts().max(Integer::compare).orElse(1);
+        jdbcTemplate.update("INSERT INTO customers (id, pin, name, surname) VALUES (?, ?, 'STRESS', 'CUSTOMER')",
+                CUSTOMER_ID, PIN);
+        for (long doctorId = FIRST_DOCTOR_ID; doctorId < FIRST_DOCTOR_ID + doctors; doctorId++) {
+            jdbcTemplate.update("INSERT INTO doctors (id, title, name, surname) VALUES (?, 'DR', 'STRESS', 'DOCTOR')",
+                    doctorId);
+            jdbcTemplate.update("INSERT INTO visit_details (doctor_id, visit_price, visit_duration_in_minutes, " +
+                    "opening_at, closing_at) VALUES (?, 100, ?, ?, ?)", doctorId, VISIT_DURATION, OPENING_AT, CLOSING_AT);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM appointments WHERE customer_id = ?", CUSTOMER_ID);
+        jdbcTemplate.update("DELETE FROM visit_details WHERE doctor_id >= ?", FIRST_DOCTOR_ID);
+        jdbcTemplate.update("DELETE FROM doctors WHERE id >= ?", FIRST_DOCTOR_ID);
+        jdbcTemplate.update("DELETE FROM customers WHERE id = ?", CUSTOMER_ID);
+        slotsIndex.rebuild();
+    }
+
+    /**
+     * All threads compete for the same slots of one doctor, shifted by 10 minutes, so most requests overlap.
+     */
+    @ParameterizedTest(name = "{0} threads")
+    @MethodSource("threadCounts")
+    void testSameDoctorIsNeverDoubleBooked(int threads) throws Exception {
+        ScenarioResult result = runScenario(threads, (thread, attempt) ->
+                request(FIRST_DOCTOR_ID, attempt, (thread % 3) * 10));
+
+        report("same doctor", threads, result);
+        assertNoOverlappingAppointments();
+        assertTrue(result.getBooked() > 0);
+        assertEquals((long) threads * ATTEMPTS, result.getBooked() + result.getRejected());
+    }
+
+    /**
+     * Every thread books its own doctor, so bookings contend for database only.
+     */
+    @ParameterizedTest(name = "{0} threads")
+    @MethodSource("threadCounts")
+    void testDifferentDoctorsAreBookedInParallel(int threads) throws Exception {
+        ScenarioResult result = runScenario(threads, (thread, attempt) ->
+                request(FIRST_DOCTOR_ID + thread, attempt, 0));
+
+        report("different doctors", threads, result);
+        assertNoOverlappingAppointments();
+        assertEquals((long) threads * ATTEMPTS, result.getBooked());
+    }
+
+    private ScenarioResult runScenario(int threads, RequestFactory requestFactory) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong booked = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        try {
+            List<Future<long[]>> latencies = new ArrayList<>(threads);
+            for (int thread = 0; thread < threads; thread++) {
+                final int threadNo = thread;
+                latencies.add(executor.submit(() -> {
+                    long[] threadLatencies = new long[ATTEMPTS];
+                    start.await();
+                    for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+                        AppointmentRequest request = requestFactory.create(threadNo, attempt);
+                        long callStart = System.nanoTime();
+                        try {
+                            customersService.makeAppointment(request, CUSTOMER_ID);
+                            booked.incrementAndGet();
+                        } catch (UnavailableDateException ex) {
+                            rejected.incrementAndGet();
+                        }
+                        threadLatencies[attempt] = System.nanoTime() - callStart;
+                    }
+                    return threadLatencies;
+                }));
+            }
+
+            final long scenarioStart = System.nanoTime();
+            start.countDown();
+            long[] allLatencies = new long[0];
+            for (Future<long[]> future : latencies) {
+                long[] threadLatencies = future.get(2, TimeUnit.MINUTES);
+                int offset = allLatencies.length;
+                allLatencies = Arrays.copyOf(allLatencies, offset + threadLatencies.length);
+                System.arraycopy(threadLatencies, 0, allLatencies, offset, threadLatencies.length);
+            }
+            final long elapsedNanos = System.nanoTime() - scenarioStart;
+            return new ScenarioResult(booked.get(), rejected.get(), elapsedNanos, allLatencies);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static AppointmentRequest request(long doctorId, int attempt, int shiftInMinutes) {
+        LocalDate date = LocalDate.now().plusDays(10L + attempt / SLOTS_PER_DAY);
+        LocalTime time = OPENING_AT.plusMinutes((long) VISIT_DURATION * (attempt % SLOTS_PER_DAY) + shiftInMinutes);
+        return new AppointmentRequest(PIN, doctorId, "STRESS", date, time);
+    }
+
+    /**
+     * Appointments of the same doctor must start at least visit duration apart.
+     */
+    private void assertNoOverlappingAppointments() {
+        Map<Long, List<LocalDateTime>> doctorsTimestamps = new HashMap<>();
+        jdbcTemplate.query("SELECT doctor_id, timestamp FROM appointments WHERE customer_id = ? " +
+                "ORDER BY doctor_id, timestamp", rs -> {
+            doctorsTimestamps.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>())
+                    .add(rs.getObject(2, Timestamp.class).toLocalDateTime());
+        }, CUSTOMER_ID);
+
+        doctorsTimestamps.forEach((doctorId, timestamps) -> IntStream.range(1, timestamps.size()).forEach(i ->
+                assertFalse(timestamps.get(i - 1).plusMinutes(VISIT_DURATION).isAfter(timestamps.get(i)),
+                        String.format("Appointments of doctor %d at %s and %s overlap.",
+                                doctorId, timestamps.get(i - 1), timestamps.get(i)))));
+    }
+
+    private static void report(String scenario, int threads, ScenarioResult result) {
+        long[] latencies = result.getLatencies().clone();
+        Arrays.sort(latencies);
+        long p99 = latencies[Math.max((int) Math.ceil(latencies.length * 0.99) - 1, 0)];
+        log.info("Stress scenario '{}' with {} threads: {} booked, {} rejected, {} bookings/sec, " +
+                        "p50 {} ms, p99 {} ms.", scenario, threads, result.getBooked(), result.getRejected(),
+                Math.round(result.getBooked() * 1e9 / result.getElapsedNanos()),
+                String.format("%.2f", latencies[latencies.length / 2] / 1e6), String.format("%.2f", p99 / 1e6));
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        AppointmentRequest create(int thread, int attempt);
+    }
+
+    @Value
+    private static class ScenarioResult {
+        long booked;
+        long rejected;
+        long elapsedNanos;
+        long[] latencies;
+    }
+}
@@ -0,0 +1,193 @@
+package com.simonjoz.vetclinic.service;
+
+import com.simonjoz.vetclinic.dto.ImportReportDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Chunks are committed by import, so imported rows are removed after each test.
+ */
+@SpringBootTest(properties = {
+        "spring.application.import.chunk-size=2",
+        "spring.application.import.parallelism=2"})
+class BulkImportServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private VisitDetailsService visitDetailsService;
+
+    @SpyBean
+    private ImportChunkWriter chunkWriter;
+
+    @SpyBean
+    private CustomersService customersService;
+
+    @SpyBean
+    private DoctorsService doctorsService;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM visit_details");
+        jdbcTemplate.update("DELETE FROM doctors");
+        jdbcTemplate.update("DELETE FROM customers");
+        jdbcTemplate.update("DELETE FROM import_checkpoints");
+    }
+
+    @Test
+    void testImportsCustomers() throws IOException {
+        Path file = writeFile("customers.csv", "name,surname,pin", "ANNA,NOWAK,1234", "\"JAN, JR\",KOWALSKI,4321",
+                "EWA,ZIELINSKA,1111");
+
+        ImportReportDTO report = bulkImportService.importCustomers(file);
+
+        assertEquals(3, report.getImported());
+        assertEquals(0, report.getRejected());
+        assertEquals("customers:customers.csv", report.getSource());
+        assertTrue(report.getRowsPerSecond() > 0);
+        assertEquals(List.of("JAN, JR"), jdbcTemplate.queryForList(
+                "SELECT name FROM customers WHERE surname = 'KOWALSKI'", String.class));
+        // Cached pages are evicted after each of two chunks.
+        Mockito.verify(customersService, Mockito.times(2)).evictPages();
+        Mockito.verify(doctorsService, Mockito.never()).evictPages();
+    }
+
+    @Test
+    void testImportsDoctorsWithVisitDetails() throws IOException {
+        Path file = writeFile("doctors.csv",
+                "title,name,surname,visit_price,visit_duration_in_minutes,opening_at,closing_at",
+                "DR,ADAM,NOWAK,150.00,30,08:00,16:00",
+                "DR,OLGA,LIS,,,,");
+
+        ImportReportDTO report = bulkImportService.importDoctors(file);
+
+        assertEquals(2, report.getImported());
+        Map<String, Object> visitDetails = jdbcTemplate.queryForMap("SELECT d.surname, v.visit_price " +
+                "FROM visit_details v JOIN doctors d ON d.id = v.doctor_id");
+        assertEquals("NOWAK", visitDetails.get("SURNAME"));
+        assertEquals(0, new BigDecimal("150.00").compareTo((BigDecimal) visitDetails.get("VISIT_PRICE")));
+        assertEquals(2, count("doctors"));
+        // Imported doctors must be visible to first available slot search at once.
+        Mockito.verify(visitDetailsService).evictDoctorsTimingDetails();
+        Mockito.verify(doctorsService).evictPages();
+    }
+
+    @Test
+    void testInvalidRecordsAreRejected() throws IOException {
+        Path customers = writeFile("customers.csv", "name,surname,pin", "ANNA,NOWAK,1234", ",NOWAK,1234",
+                "JAN,KOWALSKI,abc", "EWA,ZIELINSKA,1");
+        Path doctors = writeFile("doctors.csv", "title,name,surname,visit_duration_in_minutes",
+                "DR,ADAM,NOWAK,0", "DR,OLGA,LIS,30");
+
+        ImportReportDTO customersReport = bulkImportService.importCustomers(customers);
+        ImportReportDTO doctorsReport = bulkImportService.importDoctors(doctors);
+
+        assertEquals(1, customersReport.getImported());
+        assertEquals(3, customersReport.getRejected());
+        assertEquals(1, doctorsReport.getImported());
+        assertEquals(1, doctorsReport.getRejected());
+        assertEquals(1, count("visit_details"));
+    }
+
+    @Test
+    void testImportResumesAfterLastCommittedChunk() throws IOException {
+        Path file = writeFile("customers.csv", "name,surname,pin", "C1,S1,1234", "C2,S2,1234", "C3,S3,1234",
+                "C4,S4,1234", "C5,S5,1234");
+        Mockito.doCallRealMethod()
+                .doThrow(new DataAccessResourceFailureException("Connection lost"))
+                .doCallRealMethod()
+                .when(chunkWriter).writeCustomers(anyList(), anyString(), anyLong());
+
+        assertThrows(DataAccessResourceFailureException.class, () -> bulkImportService.importCustomers(file));
+        assertEquals(2, count("customers"));
+
+        ImportReportDTO report = bulkImportService.importCustomers(file);
+
+        assertEquals(2, report.getSkipped());
+        assertEquals(3, report.getImported());
+        assertEquals(5, count("customers"));
+    }
+
+    @Test
+    void testFailedChunkIsRolledBack() throws IOException {
+        String tooLongName = "A".repeat(300);
+        Path file = writeFile("customers.csv", "name,surname,pin", "C1,S1,1234", "C2,S2,1234", "C3,S3,1234",
+                tooLongName + ",S4,1234", "C5,S5,1234");
+
+        assertThrows(DataIntegrityViolationException.class, () -> bulkImportService.importCustomers(file));
+        assertEquals(2, count("customers"));
+        // Only the committed chunk is shown on pages.
+        Mockito.verify(customersService).evictPages();
+    }
+
+    @Test
+    void testOtherFileOfSameNameIsImportedFromStart() throws IOException {
+        Path file = writeFile("customers.csv", "name,surname,pin", "C1,S1,1234", "C2,S2,1234");
+        bulkImportService.importCustomers(file);
+
+        writeFile("customers.csv", "name,surname,pin", "D1,S1,1234", "D2,S2,1234", "D3,S3,1234");
+        ImportReportDTO report = bulkImportService.importCustomers(file);
+
+        assertEquals(0, report.getSkipped());
+        assertEquals(3, report.getImported());
+        assertEquals(5, count("customers"));
+    }
+
+    @Test
+    void testCompletedImportIsNotRepeated() throws IOException {
+        Path file = writeFile("customers.csv", "name,surname,pin", "C1,S1,1234", "C2,S2,1234", "C3,S3,1234");
+        bulkImportService.importCustomers(file);
+
+        ImportReportDTO report = bulkImportService.importCustomers(file);
+
+        assertEquals(3, report.getSkipped());
+        assertEquals(0, report.getImported());
+        assertEquals(3, count("customers"));
+    }
+
+    @Test
+    void testMissingColumnsAreReported() throws IOException {
+        Path file = writeFile("customers.csv", "name,pin", "ANNA,1234");
+
+        RuntimeException ex = assertThrows(IllegalArgumentException.class,
+                () -> bulkImportService.importCustomers(file));
+        assertEquals("Header of customers:customers.csv misses required columns: [surname].", ex.getMessage());
+        assertEquals(0, count("customers"));
+    }
+
+    private Path writeFile(String name, String... lines) throws IOException {
+        return Files.write(tempDir.resolve(name), List.of(lines));
+    }
+
+    private int count(String table) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,128 @@
+package com.simonjoz.vetclinic.service;
+
+import com.simonjoz.vetclinic.cache.CustomerAppointmentsCache;
+import com.simonjoz.vetclinic.domain.AppointmentRequest;
+import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.repository.CustomersRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+/**
+ * Caches are disabled in other tests, here in-memory cache is used to verify which entries are evicted.
+ */
+@SpringBootTest(properties = "spring.cache.type=simple")
+class CustomerAppointmentsCachingTest {
+
+    private static final long CUSTOMER_ONE_ID = 1L;
+    private static final long CUSTOMER_TWO_ID = 2L;
+    private static final AppointmentRequest APPOINTMENT_REQUEST = new AppointmentRequest(1234, 1L,
+            "note", LocalDate.now().plusDays(1), LocalTime.of(12, 0));
+    private static final AppointmentDTO APPOINTMENT = new AppointmentDTO(1L, "note",
+            APPOINTMENT_REQUEST.getDate(), APPOINTMENT_REQUEST.getTime(), "DOCTOR1", "SURNAME1");
+
+    @Autowired
+    private CustomersService customersService;
+
+    @Autowired
+    private CustomerAppointmentsCache customerAppointmentsCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private CustomersRepo customersRepo;
+
+    @MockBean
+    private AppointmentsService appointmentsService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.doReturn(true).when(customersRepo).existsById(anyLong());
+        Mockito.doReturn(Optional.of(1234)).when(customersRepo).getCustomerPinById(anyLong());
+        Mockito.doReturn(List.of(APPOINTMENT)).when(appointmentsService).getAppointmentsByCustomerId(anyLong());
+        Mockito.doReturn(Optional.of(APPOINTMENT)).when(appointmentsService).tryAddAppointment(APPOINTMENT_REQUEST,
+                CUSTOMER_ONE_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Objects.requireNonNull(cacheManager.getCache(CustomerAppointmentsCache.CACHE_NAME)).clear();
+    }
+
+    @Test
+    void testAppointmentsAreCachedPerCustomer() {
+        customersService.getAppointments(CUSTOMER_ONE_ID);
+        customersService.getAppointments(CUSTOMER_ONE_ID);
+        customersService.getAppointments(CUSTOMER_TWO_ID);
+
+        Mockito.verify(appointmentsService, Mockito.times(1)).getAppointmentsByCustomerId(CUSTOMER_ONE_ID);
+        Mockito.verify(appointmentsService, Mockito.times(1)).getAppointmentsByCustomerId(CUSTOMER_TWO_ID);
+    }
+
+    @Test
+    void testBookingEvictsOnlyBookingCustomer() {
+        customersService.getAppointments(CUSTOMER_ONE_ID);
+        customersService.getAppointments(CUSTOMER_TWO_ID);
+
+        customersService.makeAppointment(APPOINTMENT_REQUEST, CUSTOMER_ONE_ID);
+        customersService.getAppointments(CUSTOMER_ONE_ID);
+        customersService.getAppointments(CUSTOMER_TWO_ID);
+
+        Mockito.verify(appointmentsService, Mockito.times(2)).getAppointmentsByCustomerId(CUSTOMER_ONE_ID);
+        Mockito.verify(appointmentsService, Mockito.times(1)).getAppointmentsByCustomerId(CUSTOMER_TWO_ID);
+    }
+
+    @Test
+    void testCancellationEvictsOnlyCancellingCustomer() {
+        customersService.getAppointments(CUSTOMER_ONE_ID);
+        customersService.getAppointments(CUSTOMER_TWO_ID);
+
+        customersService.cancelAppointment(APPOINTMENT_REQUEST, CUSTOMER_TWO_ID);
+        customersService.getAppointments(CUSTOMER_ONE_ID);
+        customersService.getAppointments(CUSTOMER_TWO_ID);
+
+        Mockito.verify(appointmentsService, Mockito.times(1)).getAppointmentsByCustomerId(CUSTOMER_ONE_ID);
+        Mockito.verify(appointmentsService, Mockito.times(2)).getAppointmentsByCustomerId(CUSTOMER_TWO_ID);
+    }
+
+    @Test
+    void testFailedBookingDoesNotEvict() {
+        customersService.getAppointments(CUSTOMER_ONE_ID);
+        Mockito.doThrow(new IllegalStateException()).when(appointmentsService)
+                .tryAddAppointment(APPOINTMENT_REQUEST, CUSTOMER_ONE_ID);
+
+        assertThrows(IllegalStateException.class,
+                () -> customersService.makeAppointment(APPOINTMENT_REQUEST, CUSTOMER_ONE_ID));
+        customersService.getAppointments(CUSTOMER_ONE_ID);
+
+        Mockito.verify(appointmentsService, Mockito.times(1)).getAppointmentsByCustomerId(CUSTOMER_ONE_ID);
+    }
+
+    @Test
+    void testDoctorSideEvictionOfGivenCustomers() {
+        customersService.getAppointments(CUSTOMER_ONE_ID);
+        customersService.getAppointments(CUSTOMER_TWO_ID);
+
+        customerAppointmentsCache.evict(List.of(CUSTOMER_TWO_ID));
+        customersService.getAppointments(CUSTOMER_ONE_ID);
+        customersService.getAppointments(CUSTOMER_TWO_ID);
+
+        Mockito.verify(appointmentsService, Mockito.times(1)).getAppointmentsByCustomerId(CUSTOMER_ONE_ID);
+        Mockito.verify(appointmentsService, Mockito.times(2)).getAppointmentsByCustomerId(CUSTOMER_TWO_ID);
+    }
+}
@@ -1,13 +1,15 @@
 package com.simonjoz.vetclinic.service;
 
 import com.simonjoz.vetclinic.domain.*;
+import com.simonjoz.vetclinic.dto.AppointmentBatchResultDTO;
 import com.simonjoz.vetclinic.dto.AppointmentDTO;
+import com.simonjoz.vetclinic.dto.CancellationResultDTO;
 import com.simonjoz.vetclinic.dto.CustomerDTO;
 import com.simonjoz.vetclinic.dto.PageDTO;
+import com.simonjoz.vetclinic.dto.SliceDTO;
 import com.simonjoz.vetclinic.exceptions.InvalidPinException;
 import com.simonjoz.vetclinic.exceptions.ResourceNotFoundException;
 import com.simonjoz.vetclinic.exceptions.UnavailableDateException;
-import com.simonjoz.vetclinic.mappers.CustomerAppointmentMapper;
 import com.simonjoz.vetclinic.mappers.PagesMapper;
 import com.simonjoz.vetclinic.repository.CustomersRepo;
 import com.simonjoz.vetclinic.repository.DoctorsRepo;
@@ -22,8 +24,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -59,9 +62,6 @@ class CustomersServiceTest {
     @Autowired
     private CustomersService customersService;
 
-    @Autowired
-    private CustomerAppointmentMapper customerAppointmentMapper;
-
     @MockBean
     private PagesMapper<CustomerDTO> pagesMapper;
 
@@ -126,10 +126,40 @@ class CustomersServiceTest {
         Mockito.verify(pagesMapper).map(customersPage);
     }
 
+    @Test
+    void testGetSliceSuccess() {
+        Slice<CustomerDTO> customersSlice = new SliceImpl<>(customersList, PAGE_REQUEST, true);
+        Mockito.doReturn(customersSlice).when(customersRepo).getCustomersSlice(PAGE_REQUEST);
+
+        SliceDTO<CustomerDTO> actualSlice = customersService.getSlice(PAGE_REQUEST);
+
+        assertEquals(new SliceDTO<>(true, false, false, customersList), actualSlice);
+        Mockito.verify(customersRepo, Mockito.never()).getCustomersPage(any(PageRequest.class));
+    }
+
+
+    @Test
+    void testGetAppointmentsSuccess() {
+        List<AppointmentDTO> expectedAppointments = List.of(new AppointmentDTO(1L, "note",
+                LocalDate.parse("2022-01-21"), LocalTime.of(12, 0), "DOCTOR1", "SURNAME1"));
+        Mockito.doReturn(true).when(customersRepo).existsById(CUSTOMER_ONE_ID);
+        Mockito.doReturn(expectedAppointments).when(appointmentsService).getAppointmentsByCustomerId(CUSTOMER_ONE_ID);
+
+        assertEquals(expectedAppointments, customersService.getAppointments(CUSTOMER_ONE_ID));
+    }
+
+    @Test
+    void testGetAppointmentsNoneExistingId() {
+        RuntimeException ex = assertThrows(ResourceNotFoundException.class,
+                () -> customersService.getAppointments(NONE_EXISTING_ID));
+
+        assertEquals("Customer with id '100' not found.", ex.getMessage());
+        Mockito.verifyNoInteractions(appointmentsService);
+    }
 
     @Test
     void testMakeAppointmentInvalidPin() {
-        Mockito.doReturn(Optional.of(CUSTOMER_ONE)).when(customersRepo).findById(anyLong());
+        Mockito.doReturn(Optional.of(VALID_PIN)).when(customersRepo).getCustomerPinById(anyLong());
 
         var appointmentRequest = new AppointmentRequest(INVALID_PIN, DOCTOR_ONE_ID,
                 "some note here", LocalDate.now(), LocalTime.now().plusMinutes(1));
@@ -140,17 +170,34 @@ class CustomersServiceTest {
         String expectedMsg = String.format("Given pin '%d' is invalid", INVALID_PIN);
         assertEquals(expectedMsg, ex.getMessage());
 
-        Mockito.verify(customersRepo).findById(anyLong());
+        Mockito.verify(appointmentsService).tryAddAppointment(appointmentRequest, CUSTOMER_ONE_ID);
+        Mockito.verify(customersRepo).getCustomerPinById(CUSTOMER_ONE_ID);
     }
 
     @Test
-    void testMakeAppointmentDateNoneExistingDoctorId() {
-        Mockito.doReturn(Optional.empty()).when(customersRepo).findById(anyLong());
+    void testMakeAppointmentDateNoneExistingCustomerId() {
+        Mockito.doReturn(Optional.empty()).when(customersRepo).getCustomerPinById(anyLong());
 
         assertThrows(ResourceNotFoundException.class,
+                () -> customersService.makeAppointment(APPOINTMENT_REQUEST, NONE_EXISTING_ID));
+
+        Mockito.verify(appointmentsService).tryAddAppointment(APPOINTMENT_REQUEST, NONE_EXISTING_ID);
+        Mockito.verify(customersRepo).getCustomerPinById(NONE_EXISTING_ID);
+    }
+
+    @Test
+    void testMakeAppointmentDateTaken() {
+        LocalDateTime timestamp = LocalDateTime.of(APPOINTMENT_REQUEST.getDate(), APPOINTMENT_REQUEST.getTime());
+        UnavailableDateException dateTakenException = new UnavailableDateException("Date is already taken.");
+
+        Mockito.doReturn(Optional.of(VALID_PIN)).when(customersRepo).getCustomerPinById(anyLong());
+        Mockito.doReturn(dateTakenException).when(appointmentsService).getDateTakenException(timestamp);
+
+        RuntimeException ex = assertThrows(UnavailableDateException.class,
                 () -> customersService.makeAppointment(APPOINTMENT_REQUEST, CUSTOMER_ONE_ID));
 
-        Mockito.verify(customersRepo).findById(anyLong());
+        assertSame(dateTakenException, ex);
+        Mockito.verify(customersRepo).getCustomerPinById(CUSTOMER_ONE_ID);
     }
 
     @ParameterizedTest
@@ -162,82 +209,84 @@ class CustomersServiceTest {
         assertThrows(UnavailableDateException.class,
                 () -> customersService.makeAppointment(invalidRequest, CUSTOMER_ONE_ID));
 
-        Mockito.verify(customersRepo, Mockito.never()).findById(anyLong());
+        Mockito.verify(customersRepo, Mockito.never()).getCustomerPinById(anyLong());
         Mockito.verify(appointmentsService, Mockito.never())
-                .checkDateAvailabilityForDoctor(any(AppointmentRequest.class));
+                .tryAddAppointment(any(AppointmentRequest.class), anyLong());
         Mockito.verify(doctorRepo, Mockito.never()).findById(anyLong());
     }
 
     @ParameterizedTest
     @ValueSource(ints = {1, 5, 10, 40, 120})
     void testMakeAppointmentDateValidTime(int value) {
-
-        VisitDetails visitDetails = VisitDetails.builder()
-                .id(1L).doctor(null)
-                .openingAt(LocalTime.of(6, 0))
-                .closingAt(LocalTime.of(16, 0))
-                .visitDurationInMinutes(30)
-                .visitPrice(BigDecimal.TEN).build();
-
-        Doctor doctor = new Doctor(DOCTOR_ONE_ID, "DR", "DOCTOR1", "SURNAME1", visitDetails, Collections.emptyList());
-        visitDetails.setDoctor(doctor);
-
         var validRequest = new AppointmentRequest(VALID_PIN, DOCTOR_ONE_ID, "some note here",
                 LocalDate.now().plusDays(value), LocalTime.now().minusMinutes(value));
 
-        Mockito.doReturn(Optional.of(CUSTOMER_ONE)).when(customersRepo).findById(anyLong());
-        Mockito.doReturn(Optional.of(doctor)).when(doctorRepo).findById(anyLong());
+        var appointmentDTO = new AppointmentDTO(1L, validRequest.getNote(), validRequest.getDate(),
+                validRequest.getTime(), "DOCTOR1", "SURNAME1");
+        Mockito.doReturn(Optional.of(appointmentDTO)).when(appointmentsService)
+                .tryAddAppointment(validRequest, CUSTOMER_ONE_ID);
 
         customersService.makeAppointment(validRequest, CUSTOMER_ONE_ID);
-        Mockito.verify(customersRepo).findById(anyLong());
-        Mockito.verify(appointmentsService).checkDateAvailabilityForDoctor(any(AppointmentRequest.class));
-        Mockito.verify(doctorRepo).findById(anyLong());
-        Mockito.verify(appointmentsService).addAppointment(any(Appointment.class));
+        Mockito.verify(appointmentsService).tryAddAppointment(validRequest, CUSTOMER_ONE_ID);
+        Mockito.verify(customersRepo, Mockito.never()).getCustomerPinById(anyLong());
     }
 
     @Test
     void testMakeAppointmentSuccess() {
-        VisitDetails visitDetails = VisitDetails.builder()
-                .id(1L).doctor(null)
-                .openingAt(LocalTime.of(6, 0))
-                .closingAt(LocalTime.of(16, 0))
-                .visitDurationInMinutes(30)
-                .visitPrice(BigDecimal.TEN).build();
-
-        Doctor expectedDoctor = new Doctor(DOCTOR_ONE_ID, "DR", "DOCTOR1",
-                "SURNAME1", visitDetails, Collections.emptyList());
-        visitDetails.setDoctor(expectedDoctor);
+        var expectedAppointmentDTO = new AppointmentDTO(1L, APPOINTMENT_REQUEST.getNote(),
+                APPOINTMENT_REQUEST.getDate(), APPOINTMENT_REQUEST.getTime(), "DOCTOR1", "SURNAME1");
 
-        Mockito.doReturn(Optional.of(CUSTOMER_ONE)).when(customersRepo).findById(anyLong());
-        Mockito.doReturn(Optional.of(expectedDoctor)).when(doctorRepo).findById(anyLong());
-
-        Appointment appointment = Appointment.builder()
-                .customer(CUSTOMER_ONE)
-                .doctor(expectedDoctor)
-                .note(APPOINTMENT_REQUEST.getNote())
-                .scheduledDate(APPOINTMENT_REQUEST.getDate())
-                .scheduledTime(APPOINTMENT_REQUEST.getTime())
-                .timestamp(LocalDateTime.of(APPOINTMENT_REQUEST.getDate(), APPOINTMENT_REQUEST.getTime()))
-                .build();
-
-        AppointmentDTO expectedAppointmentDTO = customerAppointmentMapper.map(appointment);
-        Mockito.doReturn(expectedAppointmentDTO).when(appointmentsService).addAppointment(any(Appointment.class));
+        Mockito.doReturn(Optional.of(expectedAppointmentDTO)).when(appointmentsService)
+                .tryAddAppointment(APPOINTMENT_REQUEST, CUSTOMER_ONE_ID);
         AppointmentDTO actualAppointmentDTO = customersService.makeAppointment(APPOINTMENT_REQUEST, CUSTOMER_ONE_ID);
 
         assertEquals(expectedAppointmentDTO, actualAppointmentDTO);
-        assertEquals(expectedAppointmentDTO.getId(), actualAppointmentDTO.getId());
-        assertEquals(expectedAppointmentDTO.getNote(), actualAppointmentDTO.getNote());
-        assertEquals(expectedAppointmentDTO.getPersonName(), actualAppointmentDTO.getPersonName());
-        assertEquals(expectedAppointmentDTO.getPersonSurname(), actualAppointmentDTO.getPersonSurname());
-        assertEquals(expectedAppointmentDTO.getScheduledDate(), actualAppointmentDTO.getScheduledDate());
-        assertEquals(expectedAppointmentDTO.getScheduledTime(), actualAppointmentDTO.getScheduledTime());
-
-        Mockito.verify(customersRepo).findById(anyLong());
-        Mockito.verify(doctorRepo).findById(anyLong());
-        Mockito.verify(appointmentsService).addAppointment(any(Appointment.class));
+
+        // Neither customer nor doctor is loaded on successful booking.
+        Mockito.verifyNoInteractions(customersRepo, doctorRepo);
+        Mockito.verify(appointmentsService).tryAddAppointment(APPOINTMENT_REQUEST, CUSTOMER_ONE_ID);
     }
 
 
+    @Test
+    void testMakeAppointmentsInvalidPin() {
+        Mockito.doReturn(Optional.of(VALID_PIN)).when(customersRepo).getCustomerPinById(anyLong());
+
+        var invalidRequest = new AppointmentRequest(INVALID_PIN, DOCTOR_ONE_ID,
+                "some note here", LocalDate.now().plusDays(1), LocalTime.of(10, 0));
+        var batchRequest = new AppointmentBatchRequest(List.of(APPOINTMENT_REQUEST, invalidRequest));
+
+        assertThrows(InvalidPinException.class, () -> customersService.makeAppointments(batchRequest, CUSTOMER_ONE_ID));
+
+        Mockito.verify(appointmentsService, Mockito.never()).addAppointments(any(), anyLong());
+    }
+
+    @Test
+    void testMakeAppointmentsNoneExistingCustomerId() {
+        Mockito.doReturn(Optional.empty()).when(customersRepo).getCustomerPinById(anyLong());
+        var batchRequest = new AppointmentBatchRequest(List.of(APPOINTMENT_REQUEST));
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> customersService.makeAppointments(batchRequest, NONE_EXISTING_ID));
+
+        Mockito.verify(appointmentsService, Mockito.never()).addAppointments(any(), anyLong());
+    }
+
+    @Test
+    void testMakeAppointmentsSuccess() {
+        var batchRequest = new AppointmentBatchRequest(List.of(APPOINTMENT_REQUEST));
+        var expectedResults = List.of(new AppointmentBatchResultDTO(0, AppointmentBatchResultDTO.Status.BOOKED,
+                new AppointmentDTO(1L, APPOINTMENT_REQUEST.getNote(), APPOINTMENT_REQUEST.getDate(),
+                        APPOINTMENT_REQUEST.getTime(), "DOCTOR1", "SURNAME1"), null));
+
+        Mockito.doReturn(Optional.of(VALID_PIN)).when(customersRepo).getCustomerPinById(anyLong());
+        Mockito.doReturn(expectedResults).when(appointmentsService)
+                .addAppointments(batchRequest.getAppointments(), CUSTOMER_ONE_ID);
+
+        assertEquals(expectedResults, customersService.makeAppointments(batchRequest, CUSTOMER_ONE_ID));
+        Mockito.verify(customersRepo).getCustomerPinById(CUSTOMER_ONE_ID);
+    }
+
     @Test
     void testCancelAppointmentInvalidPin() {
         Mockito.doReturn(Optional.of(VALID_PIN)).when(customersRepo).getCustomerPinById(anyLong());
@@ -275,4 +324,29 @@ class CustomersServiceTest {
         Mockito.verify(appointmentsService).deleteAppointment(CUSTOMER_ONE_ID, appointmentTimestamp);
         Mockito.verify(customersRepo).getCustomerPinById(anyLong());
     }
+
+    @Test
+    void testCancelAppointmentsInvalidPin() {
+        Mockito.doReturn(Optional.of(VALID_PIN)).when(customersRepo).getCustomerPinById(anyLong());
+        var cancelRequest = new AppointmentsCancelRequest(INVALID_PIN, List.of(LocalDateTime.now()));
+
+        assertThrows(InvalidPinException.class,
+                () -> customersService.cancelAppointments(cancelRequest, CUSTOMER_ONE_ID));
+
+        Mockito.verifyNoInteractions(appointmentsService);
+    }
+
+    @Test
+    void testCancelAppointmentsSuccess() {
+        Mockito.doReturn(Optional.of(VALID_PIN)).when(customersRepo).getCustomerPinById(anyLong());
+        List<LocalDateTime> timestamps = List.of(LocalDateTime.now(), LocalDateTime.now().plusHours(1));
+        var expectedResult = new CancellationResultDTO(2, List.of());
+        Mockito.doReturn(expectedResult).when(appointmentsService).deleteAppointments(CUSTOMER_ONE_ID, timestamps);
+
+        var result = customersService.cancelAppointments(
+                new AppointmentsCancelRequest(VALID_PIN, timestamps), CUSTOMER_ONE_ID);
+
+        assertEquals(expectedResult, result);
+        Mockito.verify(appointmentsService).deleteAppointments(CUSTOMER_ONE_ID, timestamps);
+    }
 }
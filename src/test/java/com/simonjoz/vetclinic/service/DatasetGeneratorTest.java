@@ -0,0 +1,155 @@
+package com.simonjoz.vetclinic.service;
+
+import com.simonjoz.vetclinic.domain.Customer;
+import com.simonjoz.vetclinic.domain.DatasetSettings;
+import com.simonjoz.vetclinic.repository.CustomersRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Generated rows are committed batch by batch, so they are removed after each test.
+ */
+@SpringBootTest
+class DatasetGeneratorTest {
+
+    private static final DatasetSettings SETTINGS = settingsBuilder().build();
+
+    @Autowired
+    private DatasetGenerator datasetGenerator;
+
+    @Autowired
+    private CustomersRepo customersRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    void testGeneratesRequestedVolumes() {
+        assertFalse(datasetGenerator.isPopulated());
+
+        assertEquals(503, datasetGenerator.generate(SETTINGS));
+
+        assertTrue(datasetGenerator.isPopulated());
+        assertEquals(5, count("doctors"));
+        assertEquals(5, count("visit_details"));
+        assertEquals(40, count("customers"));
+        assertEquals(503, count("appointments"));
+    }
+
+    @Test
+    void testAppointmentsFitOpeningHoursWithoutOverlapping() {
+        datasetGenerator.generate(SETTINGS);
+
+        List<Map<String, Object>> appointments = jdbcTemplate.queryForList("SELECT a.doctor_id, a.scheduled_date, " +
+                "a.scheduled_time, a.customer_id, v.visit_duration_in_minutes, v.opening_at, v.closing_at " +
+                "FROM appointments a JOIN visit_details v ON v.doctor_id = a.doctor_id " +
+                "ORDER BY a.doctor_id, a.timestamp");
+
+        Map<String, Object> previous = null;
+        for (Map<String, Object> appointment : appointments) {
+            LocalTime time = ((Time) appointment.get("SCHEDULED_TIME")).toLocalTime();
+            LocalDate date = ((Date) appointment.get("SCHEDULED_DATE")).toLocalDate();
+            int visitDuration = (Integer) appointment.get("VISIT_DURATION_IN_MINUTES");
+            assertFalse(time.isBefore(((Time) appointment.get("OPENING_AT")).toLocalTime()));
+            assertFalse(time.plusMinutes(visitDuration)
+                    .isAfter(((Time) appointment.get("CLOSING_AT")).toLocalTime()));
+            assertNotEquals(DayOfWeek.SUNDAY, date.getDayOfWeek());
+            assertFalse(date.isAfter(SETTINGS.getLastDate()));
+            assertTrue((Long) appointment.get("CUSTOMER_ID") <= SETTINGS.getCustomers());
+            if (previous != null && previous.get("DOCTOR_ID").equals(appointment.get("DOCTOR_ID"))
+                    && previous.get("SCHEDULED_DATE").equals(appointment.get("SCHEDULED_DATE"))) {
+                LocalTime previousTime = ((Time) previous.get("SCHEDULED_TIME")).toLocalTime();
+                assertFalse(previousTime.plusMinutes(visitDuration).isAfter(time));
+            }
+            previous = appointment;
+        }
+    }
+
+    @Test
+    void testSameSeedGivesSameDataset() {
+        datasetGenerator.generate(SETTINGS);
+        List<String> first = snapshot();
+        cleanUp();
+
+        datasetGenerator.generate(SETTINGS);
+        List<String> second = snapshot();
+        cleanUp();
+
+        datasetGenerator.generate(settingsBuilder().seed(8L).build());
+        List<String> otherSeed = snapshot();
+
+        assertEquals(first, second);
+        assertNotEquals(first, otherSeed);
+    }
+
+    @Test
+    void testEntitiesPersistedAfterGenerationGetFreeIds() {
+        datasetGenerator.generate(SETTINGS);
+
+        Customer customer = customersRepo.save(new Customer(null, 1234, "NEW", "CUSTOMER", new ArrayList<>()));
+
+        assertTrue(customer.getId() > SETTINGS.getCustomers());
+    }
+
+    @Test
+    void testInvalidOccupancyIsRejected() {
+        DatasetSettings settings = settingsBuilder().occupancy(0).build();
+
+        assertThrows(IllegalArgumentException.class, () -> datasetGenerator.generate(settings));
+    }
+
+    private static DatasetSettings.DatasetSettingsBuilder settingsBuilder() {
+        return DatasetSettings.builder()
+                .seed(7L)
+                .doctors(5)
+                .customers(40)
+                .appointments(503)
+                .occupancy(0.8)
+                .lastDate(LocalDate.of(2030, 1, 31))
+                .batchSize(64);
+    }
+
+    private List<String> snapshot() {
+        List<String> rows = new ArrayList<>();
+        rows.addAll(jdbcTemplate.queryForList("SELECT CONCAT_WS('|', id, title, name, surname) FROM doctors " +
+                "ORDER BY id", String.class));
+        rows.addAll(jdbcTemplate.queryForList("SELECT CONCAT_WS('|', doctor_id, visit_price, " +
+                "visit_duration_in_minutes, opening_at, closing_at) FROM visit_details ORDER BY doctor_id", String.class));
+        rows.addAll(jdbcTemplate.queryForList("SELECT CONCAT_WS('|', id, pin, name, surname) FROM customers " +
+                "ORDER BY id", String.class));
+        rows.addAll(jdbcTemplate.queryForList("SELECT CONCAT_WS('|', id, note, timestamp, customer_id, doctor_id) " +
+                "FROM appointments ORDER BY id", String.class));
+        return rows;
+    }
+
+    private void cleanUp() {
+        jdbcTemplate.update("DELETE FROM appointments");
+        jdbcTemplate.update("DELETE FROM visit_details");
+        jdbcTemplate.update("DELETE FROM doctors");
+        jdbcTemplate.update("DELETE FROM customers");
+    }
+
+    private int count(String table) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+        return count == null ? 0 : count;
+    }
+}
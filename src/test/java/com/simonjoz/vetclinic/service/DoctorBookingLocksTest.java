@@ -0,0 +1,149 @@
+package com.simonjoz.vetclinic.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DoctorBookingLocksTest {
+
+    private static final long DOCTOR_ONE_ID = 1L;
+    private static final long DOCTOR_TWO_ID = 2L;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DoctorBookingLocks bookingLocks;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookingLocks = new DoctorBookingLocks(meterRegistry, 16);
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1,1", "16,16", "17,32", "1000,1024"})
+    void testStripesCountIsRoundedToPowerOfTwo(int requested, int expected) {
+        assertEquals(expected, new DoctorBookingLocks(meterRegistry, requested).getStripesCount());
+    }
+
+    @Test
+    void testSameDoctorBookingsAreSerialized() throws Exception {
+        CountDownLatch firstEntered = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        Future<Boolean> first = executor.submit(() -> bookingLocks.callWithLock(DOCTOR_ONE_ID, () -> {
+            firstEntered.countDown();
+            return await(releaseFirst);
+        }));
+        assertTrue(firstEntered.await(5, TimeUnit.SECONDS));
+
+        Future<Boolean> second = executor.submit(() -> bookingLocks.callWithLock(DOCTOR_ONE_ID, () -> true));
+        assertThrows(TimeoutException.class, () -> second.get(200, TimeUnit.MILLISECONDS));
+
+        releaseFirst.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testDifferentDoctorsBookingsRunInParallel() throws Exception {
+        assertNotSame(bookingLocks.getStripe(DOCTOR_ONE_ID), bookingLocks.getStripe(DOCTOR_TWO_ID));
+
+        CountDownLatch bothEntered = new CountDownLatch(2);
+        Callable<Boolean> booking = () -> {
+            bothEntered.countDown();
+            return await(bothEntered);
+        };
+
+        Future<Boolean> first = executor.submit(() -> bookingLocks.callWithLock(DOCTOR_ONE_ID, () -> call(booking)));
+        Future<Boolean> second = executor.submit(() -> bookingLocks.callWithLock(DOCTOR_TWO_ID, () -> call(booking)));
+
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testLockIsReleasedOnException() {
+        assertThrows(IllegalStateException.class, () -> bookingLocks.callWithLock(DOCTOR_ONE_ID, () -> {
+            throw new IllegalStateException();
+        }));
+
+        assertFalse(bookingLocks.getStripe(DOCTOR_ONE_ID).isLocked());
+    }
+
+    @Test
+    void testCallWithLocksHoldsAllStripes() {
+        boolean allLocked = bookingLocks.callWithLocks(List.of(DOCTOR_TWO_ID, DOCTOR_ONE_ID, DOCTOR_TWO_ID),
+                () -> bookingLocks.getStripe(DOCTOR_ONE_ID).isHeldByCurrentThread()
+                        && bookingLocks.getStripe(DOCTOR_TWO_ID).isHeldByCurrentThread());
+
+        assertTrue(allLocked);
+        assertFalse(bookingLocks.getStripe(DOCTOR_ONE_ID).isLocked());
+        assertFalse(bookingLocks.getStripe(DOCTOR_TWO_ID).isLocked());
+    }
+
+    @Test
+    void testCallWithLocksInOppositeOrderDoesNotDeadlock() throws Exception {
+        Callable<Integer> forward = () -> repeat(() -> bookingLocks.callWithLocks(
+                List.of(DOCTOR_ONE_ID, DOCTOR_TWO_ID), () -> true));
+        Callable<Integer> backward = () -> repeat(() -> bookingLocks.callWithLocks(
+                List.of(DOCTOR_TWO_ID, DOCTOR_ONE_ID), () -> true));
+
+        Future<Integer> first = executor.submit(forward);
+        Future<Integer> second = executor.submit(backward);
+
+        assertEquals(1000, first.get(10, TimeUnit.SECONDS));
+        assertEquals(1000, second.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testLockWaitIsRecorded() {
+        bookingLocks.callWithLock(DOCTOR_ONE_ID, () -> true);
+        bookingLocks.callWithLock(DOCTOR_TWO_ID, () -> true);
+
+        Timer timer = meterRegistry.get(DoctorBookingLocks.LOCK_WAIT_METRIC).timer();
+        assertEquals(2, timer.count());
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static int repeat(Supplier<Boolean> action) {
+        int calls = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (action.get()) {
+                calls++;
+            }
+        }
+        return calls;
+    }
+
+    private static boolean call(Callable<Boolean> callable) {
+        try {
+            return callable.call();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.simonjoz.vetclinic.service;
 
+import com.simonjoz.vetclinic.cache.DoctorDaySchedules;
 import com.simonjoz.vetclinic.domain.Doctor;
+import com.simonjoz.vetclinic.domain.DoctorAppointmentsCancelRequest;
+import com.simonjoz.vetclinic.dto.CancellationResultDTO;
 import com.simonjoz.vetclinic.dto.DoctorDTO;
 import com.simonjoz.vetclinic.dto.PageDTO;
+import com.simonjoz.vetclinic.dto.SliceDTO;
+import com.simonjoz.vetclinic.exceptions.InvalidPinException;
 import com.simonjoz.vetclinic.exceptions.ResourceNotFoundException;
 import com.simonjoz.vetclinic.mappers.PagesMapper;
 import com.simonjoz.vetclinic.repository.DoctorsRepo;
@@ -15,6 +20,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.time.LocalDate;
 import java.util.Collections;
@@ -22,8 +29,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.never;
 
 @SpringBootTest
@@ -31,6 +37,8 @@ class DoctorsServiceTest {
 
     private static final long DOCTOR_ONE_ID = 1L;
     private static final long NONE_EXISTING_ID = 100L;
+    // Admin pin configured in test properties.
+    private static final int ADMIN_PIN = 9876;
     private static final PageRequest PAGE_REQUEST = PageRequest.of(0, 2);
 
     private final List<DoctorDTO> doctorsList = List.of(
@@ -49,9 +57,12 @@ class DoctorsServiceTest {
     @MockBean
     private AppointmentsService appointmentsService;
 
+    @MockBean
+    private DoctorDaySchedules daySchedules;
+
     @AfterEach
     void reset() {
-        Mockito.reset(pagesMapper, doctorsRepo, appointmentsService);
+        Mockito.reset(pagesMapper, doctorsRepo, appointmentsService, daySchedules);
     }
 
     @Test
@@ -105,6 +116,37 @@ class DoctorsServiceTest {
         Mockito.verify(pagesMapper).map(doctorsPage);
     }
 
+    @Test
+    void testGetSliceSuccess() {
+        Slice<DoctorDTO> doctorsSlice = new SliceImpl<>(doctorsList, PAGE_REQUEST, false);
+        Mockito.doReturn(doctorsSlice).when(doctorsRepo).getDoctorsSlice(PAGE_REQUEST);
+
+        SliceDTO<DoctorDTO> actualSlice = doctorsService.getSlice(PAGE_REQUEST);
+
+        assertEquals(new SliceDTO<>(true, true, false, doctorsList), actualSlice);
+        Mockito.verify(doctorsRepo, never()).getDoctorsPage(any(PageRequest.class));
+    }
+
+    @Test
+    void testGetAppointmentsSliceByIdNoneExistingId() {
+        Mockito.doReturn(false).when(doctorsRepo).existsById(NONE_EXISTING_ID);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> doctorsService.getAppointmentsSliceById(PAGE_REQUEST, NONE_EXISTING_ID, null));
+
+        Mockito.verify(appointmentsService, never()).getAppointmentsSliceByDoctorId(any(PageRequest.class), anyLong());
+    }
+
+    @Test
+    void testGetAppointmentsSliceByIdDateIsPresent() {
+        Mockito.doReturn(true).when(doctorsRepo).existsById(anyLong());
+        doctorsService.getAppointmentsSliceById(PAGE_REQUEST, DOCTOR_ONE_ID, LocalDate.now());
+
+        Mockito.verify(appointmentsService)
+                .getAppointmentsSliceByDoctorIdForDate(any(PageRequest.class), anyLong(), any(LocalDate.class));
+        Mockito.verify(appointmentsService, never()).getAppointmentsSliceByDoctorId(any(PageRequest.class), anyLong());
+    }
+
 
     @Test
     void testGetAppointmentsPageByIdNoneExistingId() {
@@ -141,4 +183,58 @@ class DoctorsServiceTest {
         Mockito.verify(appointmentsService, never()).getAppointmentsPageByDoctorId(any(PageRequest.class), anyLong());
     }
 
+    @Test
+    void testGetAppointmentsPageByIdLoadedDaySkipsExistenceCheck() {
+        LocalDate date = LocalDate.now();
+        Mockito.doReturn(true).when(daySchedules).isLoaded(DOCTOR_ONE_ID, date);
+
+        doctorsService.getAppointmentsPageById(PAGE_REQUEST, DOCTOR_ONE_ID, date);
+
+        Mockito.verify(doctorsRepo, never()).existsById(anyLong());
+        Mockito.verify(appointmentsService).getAppointmentsPageByDoctorIdForDate(PAGE_REQUEST, DOCTOR_ONE_ID, date);
+    }
+
+    @Test
+    void testGetAppointmentsCursorPageByIdNoneExistingId() {
+        Mockito.doReturn(false).when(doctorsRepo).existsById(NONE_EXISTING_ID);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> doctorsService.getAppointmentsCursorPageById(NONE_EXISTING_ID, 10, false, null));
+
+        Mockito.verify(appointmentsService, never())
+                .getAppointmentsCursorPageByDoctorId(anyLong(), anyInt(), anyBoolean(), any());
+    }
+
+    @Test
+    void testCancelAppointmentsNoneExistingId() {
+        Mockito.doReturn(false).when(doctorsRepo).existsById(NONE_EXISTING_ID);
+
+        assertThrows(ResourceNotFoundException.class, () -> doctorsService.cancelAppointments(
+                new DoctorAppointmentsCancelRequest(ADMIN_PIN, LocalDate.now()), NONE_EXISTING_ID));
+
+        Mockito.verify(appointmentsService, never()).deleteDoctorAppointments(anyLong(), any(LocalDate.class));
+    }
+
+    @Test
+    void testCancelAppointmentsInvalidPin() {
+        Mockito.doReturn(true).when(doctorsRepo).existsById(DOCTOR_ONE_ID);
+
+        assertThrows(InvalidPinException.class, () -> doctorsService.cancelAppointments(
+                new DoctorAppointmentsCancelRequest(1234, LocalDate.now()), DOCTOR_ONE_ID));
+
+        Mockito.verify(appointmentsService, never()).deleteDoctorAppointments(anyLong(), any(LocalDate.class));
+    }
+
+    @Test
+    void testCancelAppointmentsSuccess() {
+        LocalDate date = LocalDate.now();
+        var expectedResult = new CancellationResultDTO(3, List.of());
+        Mockito.doReturn(true).when(doctorsRepo).existsById(DOCTOR_ONE_ID);
+        Mockito.doReturn(expectedResult).when(appointmentsService).deleteDoctorAppointments(DOCTOR_ONE_ID, date);
+
+        assertEquals(expectedResult, doctorsService.cancelAppointments(
+                new DoctorAppointmentsCancelRequest(ADMIN_PIN, date), DOCTOR_ONE_ID));
+
+        Mockito.verify(appointmentsService).deleteDoctorAppointments(DOCTOR_ONE_ID, date);
+    }
 }
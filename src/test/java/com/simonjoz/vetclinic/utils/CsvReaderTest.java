@@ -0,0 +1,55 @@
+package com.simonjoz.vetclinic.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void testReadsPlainRecords() throws IOException {
+        CsvReader csvReader = new CsvReader(new StringReader("name,surname\nJOHN,DOE\n"));
+
+        assertEquals(List.of("name", "surname"), csvReader.readRecord());
+        assertEquals(List.of("JOHN", "DOE"), csvReader.readRecord());
+        assertNull(csvReader.readRecord());
+    }
+
+    @Test
+    void testReadsQuotedFields() throws IOException {
+        CsvReader csvReader = new CsvReader(new StringReader("\"DOE, JOHN\",\"say \"\"hi\"\"\",\"\"\n"));
+
+        assertEquals(List.of("DOE, JOHN", "say \"hi\"", ""), csvReader.readRecord());
+    }
+
+    @Test
+    void testQuotedLineBreakIsPartOfField() throws IOException {
+        CsvReader csvReader = new CsvReader(new StringReader("1,\"first\nsecond\"\r\n2,third"));
+
+        assertEquals(1, csvReader.getLineNumber());
+        assertEquals(List.of("1", "first\nsecond"), csvReader.readRecord());
+        assertEquals(3, csvReader.getLineNumber());
+        assertEquals(List.of("2", "third"), csvReader.readRecord());
+        assertNull(csvReader.readRecord());
+    }
+
+    @Test
+    void testKeepsEmptyFields() throws IOException {
+        CsvReader csvReader = new CsvReader(new StringReader(",a,\n\n"));
+
+        assertEquals(List.of("", "a", ""), csvReader.readRecord());
+        assertEquals(List.of(""), csvReader.readRecord());
+        assertNull(csvReader.readRecord());
+    }
+
+    @Test
+    void testUnclosedQuoteIsRejected() {
+        CsvReader csvReader = new CsvReader(new StringReader("\"open,field\n"));
+
+        assertThrows(IllegalArgumentException.class, csvReader::readRecord);
+    }
+}
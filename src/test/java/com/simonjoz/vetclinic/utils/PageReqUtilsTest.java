@@ -1,7 +1,9 @@
 package com.simonjoz.vetclinic.utils;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -49,4 +51,30 @@ class PageReqUtilsTest {
         assertEquals("Page index must not be less than zero!", ex.getMessage());
     }
 
+    @ParameterizedTest
+    @CsvSource({"id,id", "SURNAME,surname", "' surname ',surname"})
+    void testGetPageRequestWithAllowedSortField(String sortBy, String expectedProperty) {
+        PageRequest actualReq = PageReqUtils.getPageRequest(1, 20, sortBy, true, PageReqUtils.CUSTOMERS_SORT_FIELDS);
+        assertEquals(PageRequest.of(1, 20, Sort.Direction.DESC, expectedProperty), actualReq);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"date", "scheduledDate", "TIMESTAMP"})
+    void testGetPageRequestResolvesSortFieldAlias(String sortBy) {
+        PageRequest actualReq = PageReqUtils.getPageRequest(0, 10, sortBy, false, PageReqUtils.APPOINTMENTS_SORT_FIELDS);
+        assertEquals(PageRequest.of(0, 10, Sort.Direction.ASC, "timestamp"), actualReq);
+    }
+
+    @Test
+    void testGetPageRequestCapsPageSize() {
+        PageRequest actualReq = PageReqUtils.getPageRequest(0, 532, null, false, PageReqUtils.DOCTORS_SORT_FIELDS);
+        assertEquals(PageRequest.of(0, PageReqUtils.MAX_SIZE), actualReq);
+    }
+
+    @Test
+    void testGetPageRequestUnsupportedSortField() {
+        RuntimeException ex = assertThrows(IllegalArgumentException.class,
+                () -> PageReqUtils.getPageRequest(0, 10, "postCode", false, PageReqUtils.CUSTOMERS_SORT_FIELDS));
+        assertEquals("Sorting by 'postCode' is not supported. Allowed values: [id, surname].", ex.getMessage());
+    }
 }
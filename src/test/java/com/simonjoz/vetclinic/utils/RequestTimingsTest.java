@@ -0,0 +1,72 @@
+package com.simonjoz.vetclinic.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimingsTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTimings.end();
+    }
+
+    @Test
+    void testNothingIsRecordedOutsideOfRequest() {
+        assertEquals(0L, RequestTimings.start());
+        assertEquals(0L, RequestTimings.record("db", System.nanoTime()));
+    }
+
+    @Test
+    void testPhasesAreAccumulated() {
+        RequestTimings timings = RequestTimings.begin();
+
+        long phaseStart = RequestTimings.start();
+        assertNotEquals(0L, phaseStart);
+        phaseStart = RequestTimings.record("timing", phaseStart);
+        RequestTimings.record("db", phaseStart);
+        RequestTimings.record("db", RequestTimings.start());
+
+        assertEquals(1, timings.getCount("timing"));
+        assertEquals(2, timings.getCount("db"));
+        assertTrue(timings.getNanos("db") >= 0L);
+        assertEquals(0, timings.getCount("insert"));
+    }
+
+    @Test
+    void testMarkOfMissingPhaseIsIgnored() {
+        RequestTimings timings = RequestTimings.begin();
+
+        assertEquals(0L, RequestTimings.record("db", 0L));
+
+        assertEquals(0, timings.getCount("db"));
+    }
+
+    @Test
+    void testSerializationIsRecordedOnlyWhenStarted() {
+        RequestTimings timings = RequestTimings.begin();
+        timings.endSerialization();
+        assertEquals(0, timings.getCount(RequestTimings.SERIALIZATION_PHASE));
+
+        RequestTimings.startSerialization();
+        timings.endSerialization();
+        timings.endSerialization();
+        assertEquals(1, timings.getCount(RequestTimings.SERIALIZATION_PHASE));
+    }
+
+    @Test
+    void testHeaderFormat() {
+        RequestTimings timings = RequestTimings.begin();
+        RequestTimings.record("timing", RequestTimings.start());
+        RequestTimings.record("db", RequestTimings.start());
+        RequestTimings.record("db", RequestTimings.start());
+
+        String header = timings.toHeader();
+
+        assertTrue(header.matches("timing;dur=\\d+\\.\\d{2}, db;dur=\\d+\\.\\d{2};desc=\"2 calls\", " +
+                "total;dur=\\d+\\.\\d{2}"), header);
+        assertTrue(timings.toLogLine().matches("timing=\\d+\\.\\d{2}ms, db=\\d+\\.\\d{2}ms \\(2\\), " +
+                "total=\\d+\\.\\d{2}ms"), timings.toLogLine());
+    }
+}
@@ -0,0 +1,4 @@
+-- Applied by Flyway after schema migrations. Sequences must start above ids inserted explicitly by test scripts.
+ALTER SEQUENCE doctors_seq RESTART WITH 1000;
+ALTER SEQUENCE customers_seq RESTART WITH 1000;
+ALTER SEQUENCE appointments_seq RESTART WITH 1000;